@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# Measures how long the service takes from launch to its first answered lookup, and its resident memory at
+# that point. GitHub is replaced by a local stub that answers every user with no repositories.
+#
+#   scripts/measure-startup.sh [runs] -- java -jar target/git-info-fetcher-0.0.1-SNAPSHOT.jar
+#
+# The service is started in a scratch directory with the given command and these arguments appended:
+#   --server.port=<free port> --github.api.base-url=<stub> --github.http.warmup-connections=0
+set -euo pipefail
+
+runs=5
+if [[ $# -gt 0 && $1 != "--" ]]; then
+    runs=$1
+    shift
+fi
+[[ ${1:-} == "--" ]] && shift
+[[ $# -gt 0 ]] || { echo "usage: $0 [runs] -- <command>" >&2; exit 2; }
+
+free_port() {
+    python3 -c 'import socket; s = socket.socket(); s.bind(("", 0)); print(s.getsockname()[1])'
+}
+
+stub_port=$(free_port)
+python3 - "$stub_port" <<'PY' &
+import http.server, sys
+
+class Stub(http.server.BaseHTTPRequestHandler):
+    def do_GET(self):
+        self.send_response(200)
+        self.send_header("Content-Type", "application/json")
+        self.send_header("Content-Length", "2")
+        self.end_headers()
+        self.wfile.write(b"[]")
+
+    def log_message(self, *args):
+        pass
+
+http.server.ThreadingHTTPServer(("localhost", int(sys.argv[1])), Stub).serve_forever()
+PY
+stub_pid=$!
+scratch=$(mktemp -d)
+trap 'kill $stub_pid 2>/dev/null; rm -rf "$scratch"' EXIT
+
+now_ms() {
+    date +%s%3N
+}
+
+for ((run = 1; run <= runs; run++)); do
+    port=$(free_port)
+    start=$(now_ms)
+    (cd "$scratch" && exec "$@" --server.port="$port" --github.api.base-url="http://localhost:$stub_port" \
+        --github.http.warmup-connections=0 > "$scratch/run.log" 2>&1) &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$port/api/github/users/octocat/repos"; do
+        kill -0 $pid 2>/dev/null || { echo "service exited, see log:" >&2; tail -20 "$scratch/run.log" >&2; exit 1; }
+        sleep 0.01
+    done
+    first_response=$(( $(now_ms) - start ))
+    rss_kb=$(awk '/VmRSS/ { print $2 }' /proc/$pid/status)
+    kill $pid
+    wait $pid 2>/dev/null || true
+    rm -rf "$scratch/data"
+    printf 'run %d: first response %d ms, RSS %d MB\n' "$run" "$first_response" $(( rss_kb / 1024 ))
+done
@@ -0,0 +1,87 @@
+package com.example.gitinfofetcher.benchmark;
+
+import com.example.gitinfofetcher.client.GitHubJsonDecoder;
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes GitHub list responses the way {@code toEntityList} does: the body is tokenized as a stream and
+ * every array element is bound to a domain record. {@code jackson} is the default databinding decoder,
+ * {@code selective} the {@link GitHubJsonDecoder} registered on the production {@code WebClient}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodeBenchmark {
+
+    private static final ResolvableType REPOSITORY = ResolvableType.forClass(GitHubRepository.class);
+    private static final ResolvableType BRANCH = ResolvableType.forClass(GitHubBranch.class);
+
+    @Param({"100", "1000", "10000"})
+    int elements;
+
+    @Param({"jackson", "selective"})
+    String decoder;
+
+    private Decoder<?> bodyDecoder;
+    private byte[] repositories;
+    private byte[] branches;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        if ("selective".equals(decoder)) {
+            bodyDecoder = new GitHubJsonDecoder(objectMapper.getFactory());
+        } else {
+            Jackson2JsonDecoder jackson = new Jackson2JsonDecoder(objectMapper);
+            jackson.setMaxInMemorySize(-1);
+            bodyDecoder = jackson;
+        }
+        repositories = GitHubPayloads.repositories(0, elements);
+        branches = GitHubPayloads.branches(elements);
+    }
+
+    @Benchmark
+    public List<Object> repositories() {
+        return decode(repositories, REPOSITORY);
+    }
+
+    @Benchmark
+    public List<Object> branches() {
+        return decode(branches, BRANCH);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> decode(byte[] body, ResolvableType elementType) {
+        return (List<Object>) bodyDecoder.decode(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)), elementType,
+                        MediaType.APPLICATION_JSON, Collections.emptyMap())
+                .collectList()
+                .block();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.gitinfofetcher.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Response bodies shaped like the real GitHub REST API, including the fields the service ignores, so that
+ * decoding cost is representative.
+ */
+final class GitHubPayloads {
+
+    static final String OWNER = "octocat";
+
+    private GitHubPayloads() {
+    }
+
+    static byte[] repositories(int from, int to) {
+        return IntStream.range(from, to)
+                .mapToObj(GitHubPayloads::repository)
+                .collect(Collectors.joining(",", "[", "]"))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] branches(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(GitHubPayloads::branch)
+                .collect(Collectors.joining(",", "[", "]"))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String sha(int seed) {
+        return String.format("%040x", (long) seed * 0x9E3779B97F4A7C15L & Long.MAX_VALUE);
+    }
+
+    private static String repository(int i) {
+        String name = "repository-" + i;
+        return """
+                {"id":%d,"node_id":"R_kgDOB%08d","name":"%s","full_name":"%s/%s","private":false,
+                "owner":{"login":"%s","id":583231,"node_id":"MDQ6VXNlcjU4MzIzMQ==",
+                "avatar_url":"https://avatars.githubusercontent.com/u/583231?v=4","gravatar_id":"",
+                "url":"https://api.github.com/users/%s","html_url":"https://github.com/%s","type":"User","site_admin":false},
+                "html_url":"https://github.com/%s/%s","description":"Benchmark repository number %d","fork":%s,
+                "url":"https://api.github.com/repos/%s/%s","branches_url":"https://api.github.com/repos/%s/%s/branches{/branch}",
+                "created_at":"2011-01-26T19:01:12Z","updated_at":"2024-01-02T10:11:12Z","pushed_at":"2024-01-02T10:11:12Z",
+                "git_url":"git://github.com/%s/%s.git","clone_url":"https://github.com/%s/%s.git","homepage":null,
+                "size":%d,"stargazers_count":%d,"watchers_count":%d,"language":"Java","has_issues":true,
+                "has_projects":true,"has_downloads":true,"has_wiki":true,"has_pages":false,"forks_count":%d,
+                "archived":false,"disabled":false,"open_issues_count":0,
+                "license":{"key":"mit","name":"MIT License","spdx_id":"MIT","url":"https://api.github.com/licenses/mit"},
+                "topics":["github","benchmark"],"visibility":"public","forks":%d,"open_issues":0,"watchers":%d,
+                "default_branch":"main"}"""
+                .formatted(1_000_000 + i, i, name, OWNER, name, OWNER, OWNER, OWNER, OWNER, name, i, i % 10 == 9,
+                        OWNER, name, OWNER, name, OWNER, name, OWNER, name, 100 + i, i % 500, i % 500, i % 50, i % 50, i % 500);
+    }
+
+    private static String branch(int i) {
+        String sha = sha(i);
+        return """
+                {"name":"%s","commit":{"sha":"%s","url":"https://api.github.com/repos/%s/repository/commits/%s"},"protected":%s}"""
+                .formatted(i == 0 ? "main" : "feature/branch-" + i, sha, OWNER, sha, i == 0);
+    }
+}
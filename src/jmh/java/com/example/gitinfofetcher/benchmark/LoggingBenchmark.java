@@ -0,0 +1,125 @@
+package com.example.gitinfofetcher.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.gitinfofetcher.cache.EncodedResponseCache;
+import com.example.gitinfofetcher.cache.RepositoryResultCache;
+import com.example.gitinfofetcher.client.AdaptiveConcurrencyLimiter;
+import com.example.gitinfofetcher.client.GitHubJsonDecoder;
+import com.example.gitinfofetcher.diagnostics.UpstreamTimingFilter;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.service.GitHubPaginator;
+import com.example.gitinfofetcher.service.GitHubService;
+import com.example.gitinfofetcher.service.RestGitHubBackend;
+import com.example.gitinfofetcher.watch.WatchList;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link PipelineBenchmark} pipeline with logging at the application's default level, INFO, instead of
+ * the WARN the other benchmarks run with. Events are formatted with Spring Boot's console pattern and
+ * written to {@code /dev/null}, either directly on the calling thread ({@code sync}) or through the
+ * non-blocking {@link AsyncAppender} of {@code logback-spring.xml} ({@code async}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String CONSOLE_PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5level %pid --- [%15.15thread] %-40.40logger{39} : %msg%n";
+
+    @Param({"100"})
+    int repositories;
+
+    @Param({"30"})
+    int branchesPerRepository;
+
+    @Param({"sync", "async"})
+    String appender;
+
+    private GitHubService service;
+    private LoggerContext loggerContext;
+
+    @Setup
+    public void setUp() throws FileNotFoundException {
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        loggerContext.reset();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(CONSOLE_PATTERN);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+        output.setContext(loggerContext);
+        output.setEncoder(encoder);
+        output.setOutputStream(devNull());
+        output.start();
+        Appender<ILoggingEvent> root = output;
+        if (appender.equals("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(loggerContext);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(output);
+            async.start();
+            root = async;
+        }
+        ch.qos.logback.classic.Logger rootLogger = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.INFO);
+        rootLogger.addAppender(root);
+
+        WebClient webClient = WebClient.builder()
+                .baseUrl("https://api.github.com")
+                .codecs(codecs -> codecs.customCodecs().register(new GitHubJsonDecoder(new JsonFactory())))
+                .exchangeFunction(new StubGitHubExchange(repositories, branchesPerRepository, 100))
+                .filter(new UpstreamTimingFilter())
+                .build();
+        service = new GitHubService(
+                new RestGitHubBackend(new GitHubPaginator(webClient, 100, 4),
+                        new AdaptiveConcurrencyLimiter(8, 1, 64, Duration.ofSeconds(2)), false),
+                RepositoryResultCache.disabled(), EncodedResponseCache.disabled(), WatchList.disabled(), 8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public List<RepositoryBranchesDto> listUserRepositoriesWithBranches() {
+        return service.listUserRepositoriesWithBranches(GitHubPayloads.OWNER).collectList().block();
+    }
+
+    private static OutputStream devNull() throws FileNotFoundException {
+        // A real file descriptor, so every event still pays for the write system call a console would.
+        return new FileOutputStream("/dev/null");
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.gitinfofetcher.benchmark;
+
+import com.example.gitinfofetcher.cache.EncodedResponseCache;
+import com.example.gitinfofetcher.cache.RepositoryResultCache;
+import com.example.gitinfofetcher.client.AdaptiveConcurrencyLimiter;
+import com.example.gitinfofetcher.client.GitHubJsonDecoder;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.service.GitHubPaginator;
+import com.example.gitinfofetcher.service.GitHubService;
+import com.example.gitinfofetcher.service.RestGitHubBackend;
+import com.example.gitinfofetcher.watch.WatchList;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link GitHubService#listUserRepositoriesWithBranches} end to end, from pagination through branch
+ * fan-out to DTO assembly, against {@link StubGitHubExchange} instead of the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int repositories;
+
+    @Param({"3"})
+    int branchesPerRepository;
+
+    private GitHubService service;
+
+    @Setup
+    public void setUp() {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("https://api.github.com")
+                .codecs(codecs -> codecs.customCodecs().register(new GitHubJsonDecoder(new JsonFactory())))
+                .exchangeFunction(new StubGitHubExchange(repositories, branchesPerRepository, 100))
+                .build();
+        service = new GitHubService(
+                new RestGitHubBackend(new GitHubPaginator(webClient, 100, 4),
+                        new AdaptiveConcurrencyLimiter(8, 1, 64, Duration.ofSeconds(2)), false),
+                RepositoryResultCache.disabled(), EncodedResponseCache.disabled(), WatchList.disabled(), 8);
+    }
+
+    @Benchmark
+    public List<RepositoryBranchesDto> listUserRepositoriesWithBranches() {
+        return service.listUserRepositoriesWithBranches(GitHubPayloads.OWNER).collectList().block();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.gitinfofetcher.benchmark;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Encodes the controller output the way WebFlux writes it for {@code application/json} (one array) and
+ * {@code application/x-ndjson} (one document per line).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final ResolvableType DTO = ResolvableType.forClass(RepositoryBranchesDto.class);
+
+    @Param({"100", "1000", "10000"})
+    int repositories;
+
+    private Jackson2JsonEncoder encoder;
+    private List<RepositoryBranchesDto> dtos;
+
+    @Setup
+    public void setUp() {
+        encoder = new Jackson2JsonEncoder(Jackson2ObjectMapperBuilder.json().build());
+        dtos = IntStream.range(0, repositories)
+                .mapToObj(i -> new RepositoryBranchesDto("repository-" + i, GitHubPayloads.OWNER, List.of(
+                        new GitHubBranch("main", new GitHubCommit(GitHubPayloads.sha(i))),
+                        new GitHubBranch("feature/branch-1", new GitHubCommit(GitHubPayloads.sha(i + 1))),
+                        new GitHubBranch("feature/branch-2", new GitHubCommit(GitHubPayloads.sha(i + 2))))))
+                .toList();
+    }
+
+    @Benchmark
+    public long jsonArray() {
+        return encode(MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public long ndjson() {
+        return encode(MediaType.APPLICATION_NDJSON);
+    }
+
+    private long encode(MediaType mediaType) {
+        return encoder.encode(Flux.fromIterable(dtos), DefaultDataBufferFactory.sharedInstance, DTO, mediaType, Collections.emptyMap())
+                .map(buffer -> {
+                    int bytes = buffer.readableByteCount();
+                    DataBufferUtils.release(buffer);
+                    return (long) bytes;
+                })
+                .reduce(0L, Long::sum)
+                .block();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.gitinfofetcher.benchmark;
+
+import com.example.gitinfofetcher.cache.CompactRepository;
+import com.example.gitinfofetcher.cache.NameInterner;
+import com.example.gitinfofetcher.cache.RepositoryResultCache;
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Seeds an instance with the cached results of {@code users} users, from a binary result snapshot and from a
+ * JSON dump of the same results. {@code firstLookup} measures the time until the first user can be answered,
+ * {@code loadAll} until every user has been turned into its cached form.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotLoadBenchmark {
+
+    private static final TypeReference<Map<String, List<RepositoryBranchesDto>>> DUMP = new TypeReference<>() {
+    };
+    private static final Supplier<Flux<RepositoryBranchesDto>> UPSTREAM =
+            () -> Flux.error(new IllegalStateException("not in the snapshot"));
+
+    @Param({"1000"})
+    int users;
+
+    @Param({"30"})
+    int repositoriesPerUser;
+
+    @Param({"5"})
+    int branchesPerRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Path directory;
+    private Path snapshot;
+    private Path json;
+    private String firstUser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("snapshot-benchmark");
+        snapshot = directory.resolve("results.snapshot");
+        json = directory.resolve("results.json");
+        Random random = new Random(42);
+        Map<String, List<RepositoryBranchesDto>> dump = new LinkedHashMap<>();
+        RepositoryResultCache cache = cache();
+        for (int user = 0; user < users; user++) {
+            List<RepositoryBranchesDto> repositories = repositories("user-" + user, random);
+            dump.put("user-" + user, repositories);
+            cache.get("user-" + user, () -> Flux.fromIterable(repositories)).blockLast();
+        }
+        firstUser = "user-" + users / 2;
+        cache.exportSnapshot(snapshot);
+        cache.close();
+        objectMapper.writeValue(json.toFile(), dump);
+        System.out.printf("%n%d users: snapshot %d KB, JSON %d KB%n", users, Files.size(snapshot) / 1024, Files.size(json) / 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+        Files.deleteIfExists(json);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public List<RepositoryBranchesDto> snapshotFirstLookup() throws IOException {
+        try (RepositoryResultCache cache = cache()) {
+            cache.importSnapshot(snapshot);
+            return cache.get(firstUser, UPSTREAM).collectList().block();
+        }
+    }
+
+    @Benchmark
+    public List<RepositoryBranchesDto> jsonFirstLookup() throws IOException {
+        try (InputStream in = Files.newInputStream(json)) {
+            return objectMapper.readValue(in, DUMP).get(firstUser);
+        }
+    }
+
+    @Benchmark
+    public void snapshotLoadAll(Blackhole blackhole) throws IOException {
+        try (RepositoryResultCache cache = cache()) {
+            cache.importSnapshot(snapshot);
+            for (int user = 0; user < users; user++) {
+                blackhole.consume(cache.get("user-" + user, UPSTREAM).count().block());
+            }
+        }
+    }
+
+    @Benchmark
+    public void jsonLoadAll(Blackhole blackhole) throws IOException {
+        NameInterner names = new NameInterner(100_000);
+        try (InputStream in = Files.newInputStream(json)) {
+            for (List<RepositoryBranchesDto> repositories : objectMapper.readValue(in, DUMP).values()) {
+                blackhole.consume(CompactRepository.of(repositories, names));
+            }
+        }
+    }
+
+    private RepositoryResultCache cache() {
+        return new RepositoryResultCache(users, Duration.ofHours(1), 1, Duration.ofHours(1), null, objectMapper, Clock.systemUTC());
+    }
+
+    private List<RepositoryBranchesDto> repositories(String owner, Random random) {
+        List<RepositoryBranchesDto> repositories = new ArrayList<>(repositoriesPerUser);
+        byte[] sha = new byte[20];
+        for (int r = 0; r < repositoriesPerUser; r++) {
+            List<GitHubBranch> branches = new ArrayList<>(branchesPerRepository);
+            for (int b = 0; b < branchesPerRepository; b++) {
+                random.nextBytes(sha);
+                branches.add(new GitHubBranch(b == 0 ? "main" : "feature-" + random.nextInt(50), new GitHubCommit(HexFormat.of().formatHex(sha))));
+            }
+            repositories.add(new RepositoryBranchesDto("repository-" + r, owner, branches));
+        }
+        return repositories;
+    }
+}
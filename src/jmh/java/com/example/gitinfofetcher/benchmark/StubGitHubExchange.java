@@ -0,0 +1,74 @@
+package com.example.gitinfofetcher.benchmark;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * In-process stand-in for the GitHub REST API: paginated {@code /users/{user}/repos} with {@code Link}
+ * headers and a fixed branch list for every {@code /repos/{owner}/{repo}/branches}. Bodies are rendered
+ * once up front so that only the client pipeline is measured.
+ */
+final class StubGitHubExchange implements ExchangeFunction {
+
+    private final ExchangeStrategies strategies = ExchangeStrategies.withDefaults();
+    private final byte[][] repositoryPages;
+    private final byte[] branches;
+    private final int perPage;
+
+    StubGitHubExchange(int repositories, int branchesPerRepository, int perPage) {
+        this.perPage = perPage;
+        int pages = Math.max(1, (repositories + perPage - 1) / perPage);
+        this.repositoryPages = new byte[pages][];
+        for (int page = 0; page < pages; page++) {
+            repositoryPages[page] = GitHubPayloads.repositories(page * perPage, Math.min(repositories, (page + 1) * perPage));
+        }
+        this.branches = GitHubPayloads.branches(branchesPerRepository);
+    }
+
+    @Override
+    public Mono<ClientResponse> exchange(ClientRequest request) {
+        String path = request.url().getPath();
+        if (path.endsWith("/branches")) {
+            return Mono.just(ok(branches).build());
+        }
+        if (path.endsWith("/repos")) {
+            String page = UriComponentsBuilder.fromUri(request.url()).build().getQueryParams().getFirst("page");
+            int index = page == null ? 0 : Integer.parseInt(page) - 1;
+            ClientResponse.Builder response = ok(repositoryPages[index]);
+            if (repositoryPages.length > 1) {
+                response.header(HttpHeaders.LINK, links(request, index));
+            }
+            return Mono.just(response.build());
+        }
+        return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND, strategies)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"message\":\"Not Found\"}")
+                .build());
+    }
+
+    private ClientResponse.Builder ok(byte[] body) {
+        return ClientResponse.create(HttpStatus.OK, strategies)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(new String(body, StandardCharsets.UTF_8));
+    }
+
+    private String links(ClientRequest request, int index) {
+        String base = UriComponentsBuilder.fromUri(request.url())
+                .replaceQueryParam("per_page", perPage)
+                .replaceQueryParam("page")
+                .toUriString();
+        String last = "<" + base + "&page=" + repositoryPages.length + ">; rel=\"last\"";
+        return index + 1 < repositoryPages.length
+                ? "<" + base + "&page=" + (index + 2) + ">; rel=\"next\", " + last
+                : last;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.gitinfofetcher.benchmark;
+
+import com.example.gitinfofetcher.cache.EncodedResponseCache;
+import com.example.gitinfofetcher.cache.RepositoryResultCache;
+import com.example.gitinfofetcher.controller.GitHubController;
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.service.GitHubBackend;
+import com.example.gitinfofetcher.service.GitHubService;
+import com.example.gitinfofetcher.watch.WatchList;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Requests per second for a user whose repositories are already in the result cache, answered through the
+ * full WebFlux handler chain. With {@code preEncoded} off every request runs the object mapper; with it on
+ * repeat requests are written from the cached bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WarmCacheResponseBenchmark {
+
+    @Param({"100", "1000"})
+    int repositories;
+
+    @Param({"false", "true"})
+    boolean preEncoded;
+
+    private WebTestClient client;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<RepositoryBranchesDto> dtos = IntStream.range(0, repositories)
+                .mapToObj(i -> new RepositoryBranchesDto("repository-" + i, GitHubPayloads.OWNER, List.of(
+                        new GitHubBranch("main", new GitHubCommit(GitHubPayloads.sha(i))),
+                        new GitHubBranch("feature/branch-1", new GitHubCommit(GitHubPayloads.sha(i + 1))),
+                        new GitHubBranch("feature/branch-2", new GitHubCommit(GitHubPayloads.sha(i + 2))))))
+                .toList();
+        GitHubBackend backend = username -> Flux.fromIterable(dtos);
+        RepositoryResultCache resultCache = new RepositoryResultCache(100, Duration.ofHours(1), 0.8, Duration.ofHours(1),
+                null, objectMapper, Clock.systemUTC());
+        EncodedResponseCache encodedResponses = preEncoded ? new EncodedResponseCache(100, 64L << 20, objectMapper) : EncodedResponseCache.disabled();
+        GitHubService service = new GitHubService(backend, resultCache, encodedResponses, WatchList.disabled(), 8);
+        client = WebTestClient.bindToController(new GitHubController(service, WatchList.disabled(), ObservationRegistry.NOOP))
+                .configureClient()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+        request();
+    }
+
+    @Benchmark
+    public int request() {
+        byte[] body = client.get().uri("/api/github/users/{username}/repos", GitHubPayloads.OWNER)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectBody()
+                .returnResult()
+                .getResponseBodyContent();
+        return body.length;
+    }
+}
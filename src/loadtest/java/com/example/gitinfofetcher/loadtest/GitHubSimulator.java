@@ -0,0 +1,284 @@
+package com.example.gitinfofetcher.loadtest;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * A local stand-in for the GitHub REST API with generated users, repositories and branches. The data is
+ * derived from the seed, so every run sees the same users; upstream latency follows a log-normal
+ * distribution fitted to the configured median and p99.
+ * <ul>
+ *     <li>{@code user-0} to {@code user-(users-1)} exist, any other user answers {@code 404}.</li>
+ *     <li>Lists are paginated with {@code per_page}/{@code page} and absolute {@code Link} headers.</li>
+ *     <li>Every list has an {@code ETag}; a matching {@code If-None-Match} answers {@code 304} without
+ *     using quota.</li>
+ *     <li>{@code X-RateLimit-*} headers count down a single hourly quota, and a request without quota left
+ *     answers {@code 403}.</li>
+ *     <li>{@code errorRate} of the requests answer {@code 502}.</li>
+ * </ul>
+ */
+final class GitHubSimulator implements Closeable {
+
+    record Settings(int users, int minRepositories, int maxRepositories, int minBranches, int maxBranches,
+                    double forkRate, Duration latencyMedian, Duration latencyP99, double errorRate, int rateLimit,
+                    long seed) {
+    }
+
+    /** Upstream calls received so far, by kind. */
+    record Counts(long repositoryPages, long branchPages, long notModified, long errors, long rateLimited) {
+
+        long total() {
+            return repositoryPages + branchPages;
+        }
+
+        Counts minus(Counts start) {
+            return new Counts(repositoryPages - start.repositoryPages, branchPages - start.branchPages,
+                    notModified - start.notModified, errors - start.errors, rateLimited - start.rateLimited);
+        }
+    }
+
+    private static final int DEFAULT_PER_PAGE = 30;
+    private static final int MAX_PER_PAGE = 100;
+    private static final byte[] NOT_FOUND = "{\"message\":\"Not Found\",\"documentation_url\":\"https://docs.github.com/rest\"}"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SERVER_ERROR = "{\"message\":\"Server Error\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RATE_LIMITED = "{\"message\":\"API rate limit exceeded\",\"documentation_url\":\"https://docs.github.com/rest/rate-limit\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final Settings settings;
+    private final double latencySigma;
+    private final SplittableRandom random;
+    private final DisposableServer server;
+
+    private final AtomicLong repositoryPages = new AtomicLong();
+    private final AtomicLong branchPages = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+
+    private int remaining;
+    private Instant resetAt = Instant.EPOCH;
+
+    GitHubSimulator(Settings settings, int port) {
+        this.settings = settings;
+        // z(0.99) = 2.326: the p99 of a log-normal sits that many sigmas above its median.
+        this.latencySigma = settings.latencyP99().compareTo(settings.latencyMedian()) > 0
+                ? Math.log((double) settings.latencyP99().toNanos() / settings.latencyMedian().toNanos()) / 2.326
+                : 0;
+        this.random = new SplittableRandom(settings.seed());
+        this.server = HttpServer.create()
+                .port(port)
+                .route(routes -> routes
+                        .get("/rate_limit", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("{\"resources\":{}}")))
+                        .get("/users/{user}/repos", this::repositories)
+                        .get("/repos/{owner}/{repo}/branches", this::branches))
+                .bindNow();
+    }
+
+    int port() {
+        return server.port();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    Counts counts() {
+        return new Counts(repositoryPages.get(), branchPages.get(), notModified.get(), errors.get(), rateLimited.get());
+    }
+
+    private Mono<Void> repositories(HttpServerRequest request, HttpServerResponse response) {
+        repositoryPages.incrementAndGet();
+        int user = userIndex(request.param("user"));
+        if (user < 0) {
+            return answer(response, HttpResponseStatus.NOT_FOUND, NOT_FOUND);
+        }
+        int count = repositoryCount(user);
+        return page(request, response, count, user * 31L, i -> repositoryJson(user, i));
+    }
+
+    private Mono<Void> branches(HttpServerRequest request, HttpServerResponse response) {
+        branchPages.incrementAndGet();
+        int user = userIndex(request.param("owner"));
+        int repository = repositoryIndex(request.param("repo"));
+        if (user < 0 || repository < 0 || repository >= repositoryCount(user)) {
+            return answer(response, HttpResponseStatus.NOT_FOUND, NOT_FOUND);
+        }
+        int count = branchCount(user, repository);
+        return page(request, response, count, user * 1_000_003L + repository, i -> branchJson(user, repository, i));
+    }
+
+    private Mono<Void> page(HttpServerRequest request, HttpServerResponse response, int count, long listId,
+                            IntFunction<String> item) {
+        QueryStringDecoder query = new QueryStringDecoder(request.uri());
+        int perPage = Math.min(MAX_PER_PAGE, intParameter(query, "per_page", DEFAULT_PER_PAGE));
+        int page = Math.max(1, intParameter(query, "page", 1));
+        int lastPage = Math.max(1, (count + perPage - 1) / perPage);
+        String etag = "W/\"" + Long.toHexString(mix(settings.seed() ^ listId * 131 + page * 7919L + perPage)) + "\"";
+        Duration latency = latency();
+        if (etag.equals(request.requestHeaders().get("If-None-Match"))) {
+            notModified.incrementAndGet();
+            response.header("ETag", etag);
+            rateLimitHeaders(response, false);
+            return Mono.delay(latency).then(response.status(HttpResponseStatus.NOT_MODIFIED).send());
+        }
+        if (injectError()) {
+            errors.incrementAndGet();
+            return Mono.delay(latency).then(answer(response, HttpResponseStatus.BAD_GATEWAY, SERVER_ERROR));
+        }
+        if (!rateLimitHeaders(response, true)) {
+            rateLimited.incrementAndGet();
+            return answer(response, HttpResponseStatus.FORBIDDEN, RATE_LIMITED);
+        }
+        StringBuilder body = new StringBuilder(256 * perPage).append('[');
+        for (int i = (page - 1) * perPage; i < Math.min(count, page * perPage); i++) {
+            if (body.length() > 1) {
+                body.append(',');
+            }
+            body.append(item.apply(i));
+        }
+        body.append(']');
+        if (page < lastPage) {
+            String path = "http://" + request.requestHeaders().get("Host") + query.path() + "?per_page=" + perPage + "&page=";
+            response.header("Link", "<" + path + (page + 1) + ">; rel=\"next\", <" + path + lastPage + ">; rel=\"last\"");
+        }
+        response.header("ETag", etag);
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        return Mono.delay(latency).then(answer(response, HttpResponseStatus.OK, bytes));
+    }
+
+    private static Mono<Void> answer(HttpServerResponse response, HttpResponseStatus status, byte[] body) {
+        return response.status(status)
+                .header("Content-Type", "application/json; charset=utf-8")
+                .header("Content-Length", String.valueOf(body.length))
+                .sendByteArray(Mono.just(body))
+                .then();
+    }
+
+    /**
+     * Sets the rate-limit headers, using one request of the quota if {@code consume}. Returns whether
+     * the request is within the quota.
+     */
+    private synchronized boolean rateLimitHeaders(HttpServerResponse response, boolean consume) {
+        Instant now = Instant.now();
+        if (!resetAt.isAfter(now)) {
+            resetAt = now.plus(Duration.ofHours(1));
+            remaining = settings.rateLimit();
+        }
+        boolean allowed = remaining > 0;
+        if (consume && allowed) {
+            remaining--;
+        }
+        response.header("X-RateLimit-Limit", String.valueOf(settings.rateLimit()))
+                .header("X-RateLimit-Remaining", String.valueOf(remaining))
+                .header("X-RateLimit-Reset", String.valueOf(resetAt.getEpochSecond()));
+        return allowed;
+    }
+
+    private synchronized Duration latency() {
+        double factor = Math.exp(latencySigma * random.nextGaussian());
+        return Duration.ofNanos((long) (settings.latencyMedian().toNanos() * factor));
+    }
+
+    private synchronized boolean injectError() {
+        return settings.errorRate() > 0 && random.nextDouble() < settings.errorRate();
+    }
+
+    private int userIndex(String login) {
+        if (login == null || !login.startsWith("user-")) {
+            return -1;
+        }
+        try {
+            int index = Integer.parseInt(login.substring("user-".length()));
+            return index < settings.users() ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int repositoryIndex(String name) {
+        if (name == null || !name.startsWith("repo-")) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name.substring("repo-".length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private int repositoryCount(int user) {
+        return between(mix(settings.seed() + user), settings.minRepositories(), settings.maxRepositories());
+    }
+
+    private int branchCount(int user, int repository) {
+        return between(mix(settings.seed() + user * 1_000_003L + repository + 17), settings.minBranches(), settings.maxBranches());
+    }
+
+    private String repositoryJson(int user, int repository) {
+        long hash = mix(settings.seed() * 7 + user * 1_000_003L + repository);
+        boolean fork = (hash >>> 11) % 10_000 < settings.forkRate() * 10_000;
+        String login = "user-" + user;
+        String name = "repo-" + repository;
+        Instant pushedAt = Instant.parse("2024-01-01T00:00:00Z").minusSeconds((hash >>> 1) % 63_072_000);
+        return "{\"id\":" + (hash >>> 34) + ",\"name\":\"" + name + "\",\"full_name\":\"" + login + "/" + name
+                + "\",\"private\":false,\"owner\":{\"login\":\"" + login + "\",\"id\":" + (100_000 + user)
+                + ",\"type\":\"User\",\"site_admin\":false},\"html_url\":\"https://github.com/" + login + "/" + name
+                + "\",\"description\":\"Simulated repository\",\"fork\":" + fork
+                + ",\"created_at\":\"2015-01-01T00:00:00Z\",\"pushed_at\":\"" + pushedAt
+                + "\",\"language\":\"Java\",\"stargazers_count\":" + (hash & 1023)
+                + ",\"topics\":[\"simulated\"],\"default_branch\":\"main\"}";
+    }
+
+    private String branchJson(int user, int repository, int branch) {
+        String sha = String.format("%016x%016x%08x", mix(settings.seed() + user), mix(repository * 31L + branch),
+                (int) mix(user * 17L + repository * 13L + branch));
+        return "{\"name\":\"" + (branch == 0 ? "main" : "feature/branch-" + branch) + "\",\"commit\":{\"sha\":\"" + sha
+                + "\",\"url\":\"https://api.github.com/repos/user-" + user + "/repo-" + repository + "/commits/" + sha
+                + "\"},\"protected\":" + (branch == 0) + "}";
+    }
+
+    private static int intParameter(QueryStringDecoder query, String name, int fallback) {
+        List<String> values = query.parameters().get(name);
+        if (values == null || values.isEmpty()) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(values.get(0));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static int between(long hash, int min, int max) {
+        return min + (int) Long.remainderUnsigned(hash, max - min + 1L);
+    }
+
+    /** SplitMix64 finalizer, to derive independent values from the seed and an index. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
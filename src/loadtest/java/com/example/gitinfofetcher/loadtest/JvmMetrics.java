@@ -0,0 +1,61 @@
+package com.example.gitinfofetcher.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * The service's heap and GC counters, read from its {@code /actuator/metrics} endpoint so they describe the
+ * service's JVM whether it runs in this process or not.
+ */
+final class JvmMetrics {
+
+    record Snapshot(long gcPauses, double gcPauseSeconds, double maxGcPauseSeconds, double allocatedBytes,
+                    double heapUsedBytes, double liveDataBytes) {
+
+        Snapshot minus(Snapshot start) {
+            return new Snapshot(gcPauses - start.gcPauses, gcPauseSeconds - start.gcPauseSeconds, maxGcPauseSeconds,
+                    allocatedBytes - start.allocatedBytes, heapUsedBytes, liveDataBytes);
+        }
+    }
+
+    private final WebClient client;
+
+    JvmMetrics(String serviceUrl) {
+        this.client = WebClient.create(serviceUrl);
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(
+                (long) measurement("jvm.gc.pause", "", "COUNT"),
+                measurement("jvm.gc.pause", "", "TOTAL_TIME"),
+                measurement("jvm.gc.pause", "", "MAX"),
+                measurement("jvm.gc.memory.allocated", "", "COUNT"),
+                measurement("jvm.memory.used", "?tag=area:heap", "VALUE"),
+                measurement("jvm.gc.live.data.size", "", "VALUE"));
+    }
+
+    /**
+     * A metric's measurement, 0 while the metric does not exist yet, as {@code jvm.gc.pause} before the
+     * first collection.
+     */
+    private double measurement(String metric, String query, String statistic) {
+        JsonNode body = client.get().uri("/actuator/metrics/" + metric + query)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, notFound -> Mono.empty())
+                .block(Duration.ofSeconds(10));
+        if (body == null) {
+            return 0;
+        }
+        for (JsonNode measurement : body.path("measurements")) {
+            if (statistic.equals(measurement.path("statistic").asText())) {
+                return measurement.path("value").asDouble();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.gitinfofetcher.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends lookups at a fixed arrival rate, whether or not earlier ones have completed (an open workload).
+ * Latency is measured from the time a request was due rather than when it was sent, so a service that
+ * falls behind shows its queueing delay instead of hiding it. Users are picked from a Zipf distribution
+ * over the simulated users; {@code skew} 0 picks them uniformly.
+ */
+final class LoadGenerator implements AutoCloseable {
+
+    record Result(long sent, long ok, long clientErrors, long serverErrors, long failures, long dropped,
+                  Duration elapsed, Histogram latencyMicros) {
+
+        long completed() {
+            return ok + clientErrors + serverErrors;
+        }
+    }
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final WebClient client;
+    private final ConnectionProvider connections;
+    private final int maxInFlight;
+    private final double[] userCdf;
+    private final SplittableRandom random;
+
+    LoadGenerator(String serviceUrl, int users, double skew, int maxInFlight, Duration timeout, long seed) {
+        this.connections = ConnectionProvider.builder("loadtest")
+                .maxConnections(maxInFlight)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.client = WebClient.builder()
+                .baseUrl(serviceUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections).responseTimeout(timeout)))
+                .build();
+        this.maxInFlight = maxInFlight;
+        this.userCdf = zipf(users, skew);
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Sends {@code rate} lookups per second for {@code duration} and waits for the last one to finish.
+     */
+    Result run(double rate, Duration duration) {
+        ConcurrentHistogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLong ok = new AtomicLong();
+        AtomicLong clientErrors = new AtomicLong();
+        AtomicLong serverErrors = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        long dropped = 0;
+        long requests = (long) (rate * duration.toNanos() / 1e9);
+        double interval = 1e9 / rate;
+        long start = System.nanoTime();
+        for (long i = 0; i < requests; i++) {
+            long due = start + (long) (i * interval);
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (inFlight.get() >= maxInFlight) {
+                dropped++;
+                latencies.recordValue(Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - due) / 1000));
+                continue;
+            }
+            inFlight.incrementAndGet();
+            client.get().uri("/api/github/users/{username}/repos", "user-" + nextUser())
+                    .exchangeToMono(response -> response.bodyToFlux(DataBuffer.class)
+                            .doOnNext(DataBufferUtils::release)
+                            .then()
+                            .thenReturn(response.statusCode().value()))
+                    .subscribe(status -> {
+                        if (status < 400) {
+                            ok.incrementAndGet();
+                        } else if (status < 500) {
+                            clientErrors.incrementAndGet();
+                        } else {
+                            serverErrors.incrementAndGet();
+                        }
+                    }, error -> {
+                        failures.incrementAndGet();
+                        record(latencies, due);
+                        inFlight.decrementAndGet();
+                    }, () -> {
+                        record(latencies, due);
+                        inFlight.decrementAndGet();
+                    });
+        }
+        while (inFlight.get() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return new Result(requests, ok.get(), clientErrors.get(), serverErrors.get(), failures.get(), dropped, elapsed,
+                latencies.copy());
+    }
+
+    private static void record(Histogram latencies, long due) {
+        latencies.recordValue(Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - due) / 1000));
+    }
+
+    private int nextUser() {
+        double sample = random.nextDouble();
+        int low = 0;
+        int high = userCdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (userCdf[mid] < sample) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static double[] zipf(int users, double skew) {
+        double[] cdf = new double[users];
+        double sum = 0;
+        for (int i = 0; i < users; i++) {
+            sum += 1 / Math.pow(i + 1, skew);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < users; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    @Override
+    public void close() {
+        connections.dispose();
+    }
+}
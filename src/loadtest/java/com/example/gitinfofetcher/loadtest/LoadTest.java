@@ -0,0 +1,151 @@
+package com.example.gitinfofetcher.loadtest;
+
+import com.example.gitinfofetcher.GitInfoFetcherApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drives {@code /api/github/users/{username}/repos} against a {@link GitHubSimulator} at a fixed request
+ * rate and reports throughput, latency percentiles, upstream calls per lookup and the service's GC
+ * behaviour. Exits with status 1 when a configured SLO is missed, so the run can gate a release.
+ * <p>
+ * The service under test is, in order of precedence, an already running instance at {@code --service-url}
+ * (configured with {@code --simulator-port} to reach the simulator), the jar at {@code --service-jar}
+ * started in its own JVM with {@code --service-jvm-args}, or an application context in this JVM, whose GC
+ * figures then include the simulator and the load generator.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        LoadTestReport report;
+        try (GitHubSimulator simulator = new GitHubSimulator(options.simulator(), options.simulatorPort());
+             Service service = start(options, simulator.baseUrl());
+             LoadGenerator generator = new LoadGenerator(service.url(), options.simulator().users(), options.skew(),
+                     options.maxInFlight(), options.timeout(), options.seed())) {
+            System.out.printf("Service at %s, GitHub simulator at %s%n", service.url(), simulator.baseUrl());
+            if (!options.warmup().isZero()) {
+                System.out.printf("Warming up for %s at %.0f requests/s%n", options.warmup(), options.rate());
+                generator.run(options.rate(), options.warmup());
+            }
+            JvmMetrics jvm = new JvmMetrics(service.url());
+            GitHubSimulator.Counts upstreamBefore = simulator.counts();
+            JvmMetrics.Snapshot jvmBefore = jvm.snapshot();
+            System.out.printf("Measuring for %s at %.0f requests/s%n", options.duration(), options.rate());
+            LoadGenerator.Result result = generator.run(options.rate(), options.duration());
+            report = LoadTestReport.of(options, result, simulator.counts().minus(upstreamBefore),
+                    jvm.snapshot().minus(jvmBefore));
+        }
+        System.out.print(report.toText());
+        Files.createDirectories(options.report().toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.report().toFile(), report);
+        System.out.println("Report written to " + options.report());
+        System.exit(report.violations().isEmpty() ? 0 : 1);
+    }
+
+    private static Service start(LoadTestOptions options, String simulatorUrl) throws IOException {
+        if (!options.serviceUrl().isBlank()) {
+            return new Service(options.serviceUrl(), () -> {
+            });
+        }
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("github.api.base-url", simulatorUrl);
+        // Every run starts cold, without results persisted by an earlier one.
+        properties.put("github.result-cache.disk.path", "");
+        properties.put("github.result-cache.snapshot.path", "");
+        properties.put("management.endpoints.web.exposure.include", "health,metrics");
+        properties.putAll(options.serviceProperties());
+        if (options.serviceJar() != null) {
+            return fork(options, properties);
+        }
+        // A summary line per lookup would flood the console shared with the report.
+        properties.putIfAbsent("logging.level.com.example.gitinfofetcher.diagnostics.RequestDiagnostics", "WARN");
+        properties.put("server.port", "0");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(GitInfoFetcherApplication.class)
+                .run(arguments(properties).toArray(String[]::new));
+        return new Service("http://localhost:" + context.getEnvironment().getProperty("local.server.port"), context::close);
+    }
+
+    private static Service fork(LoadTestOptions options, Map<String, String> properties) throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        properties.put("server.port", String.valueOf(port));
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(options.serviceJvmArgs());
+        command.add("-jar");
+        command.add(options.serviceJar().toAbsolutePath().toString());
+        command.addAll(arguments(properties));
+        Path log = options.report().toAbsolutePath().resolveSibling("service.log");
+        Files.createDirectories(log.getParent());
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        Service service = new Service("http://localhost:" + port, () -> {
+            process.destroy();
+            try {
+                process.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        awaitHealthy(service, process, log);
+        return service;
+    }
+
+    private static void awaitHealthy(Service service, Process process, Path log) {
+        WebClient client = WebClient.create(service.url());
+        long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("The service exited with status " + process.exitValue() + ", see " + log);
+            }
+            Boolean healthy = client.get().uri("/actuator/health")
+                    .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().is2xxSuccessful()))
+                    .onErrorReturn(false)
+                    .block(Duration.ofSeconds(5));
+            if (Boolean.TRUE.equals(healthy)) {
+                return;
+            }
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        service.close();
+        throw new IllegalStateException("The service did not become healthy within 2 minutes, see " + log);
+    }
+
+    private static List<String> arguments(Map<String, String> properties) {
+        return properties.entrySet().stream().map(property -> "--" + property.getKey() + "=" + property.getValue()).toList();
+    }
+
+    private record Service(String url, Runnable stop) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            stop.run();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.gitinfofetcher.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line of {@link LoadTest}. Options are {@code --name=value}; every option not listed here, such as
+ * {@code --github.result-cache.max-entries=0}, is passed on to the service.
+ */
+record LoadTestOptions(double rate, Duration duration, Duration warmup, int maxInFlight, Duration timeout,
+                       double skew, long seed, GitHubSimulator.Settings simulator, int simulatorPort,
+                       String serviceUrl, Path serviceJar, List<String> serviceJvmArgs, Map<String, String> serviceProperties,
+                       Path report, Slo slo) {
+
+    /** Release gates; {@code null} and zero values are not checked. */
+    record Slo(Duration p50, Duration p99, Duration p999, double minThroughput, double maxErrorRate,
+               double maxAmplification, double maxGcOverhead) {
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        Reader reader = new Reader(options);
+        int[] repositories = reader.range("repos", "10-50");
+        int[] branches = reader.range("branches", "1-20");
+        GitHubSimulator.Settings simulator = new GitHubSimulator.Settings(
+                reader.integer("users", 1000), repositories[0], repositories[1], branches[0], branches[1],
+                reader.decimal("fork-rate", 0.1), reader.duration("latency-median", "40ms"),
+                reader.duration("latency-p99", "250ms"), reader.decimal("error-rate", 0),
+                reader.integer("rate-limit", 1_000_000), reader.integer("seed", 42));
+        Slo slo = new Slo(reader.optionalDuration("slo-p50"), reader.optionalDuration("slo-p99"),
+                reader.optionalDuration("slo-p999"), reader.decimal("slo-min-throughput", 0),
+                reader.decimal("slo-max-error-rate", 0), reader.decimal("slo-max-amplification", 0),
+                reader.decimal("slo-max-gc-overhead", 0));
+        double rate = reader.decimal("rate", 50);
+        Duration duration = reader.duration("duration", "30s");
+        Duration warmup = reader.duration("warmup", "10s");
+        int maxInFlight = reader.integer("max-in-flight", 2000);
+        Duration timeout = reader.duration("timeout", "30s");
+        double skew = reader.decimal("skew", 1.0);
+        int simulatorPort = reader.integer("simulator-port", 0);
+        String serviceUrl = reader.text("service-url", "");
+        Path serviceJar = reader.path("service-jar");
+        List<String> serviceJvmArgs = reader.words("service-jvm-args");
+        Path report = Path.of(reader.text("report", "target/loadtest/report.json"));
+        return new LoadTestOptions(rate, duration, warmup, maxInFlight, timeout, skew, simulator.seed(), simulator,
+                simulatorPort, serviceUrl, serviceJar, serviceJvmArgs, Collections.unmodifiableMap(options), report, slo);
+    }
+
+    /** Reads and removes the harness's own options, leaving those for the service. */
+    private record Reader(Map<String, String> options) {
+
+        String text(String name, String fallback) {
+            String value = options.remove(name);
+            return value != null ? value : fallback;
+        }
+
+        int integer(String name, int fallback) {
+            return Integer.parseInt(text(name, String.valueOf(fallback)));
+        }
+
+        double decimal(String name, double fallback) {
+            return Double.parseDouble(text(name, String.valueOf(fallback)));
+        }
+
+        Duration duration(String name, String fallback) {
+            return DurationStyle.detectAndParse(text(name, fallback));
+        }
+
+        Duration optionalDuration(String name) {
+            String value = text(name, "");
+            return value.isBlank() ? null : DurationStyle.detectAndParse(value);
+        }
+
+        Path path(String name) {
+            String value = text(name, "");
+            return value.isBlank() ? null : Path.of(value);
+        }
+
+        List<String> words(String name) {
+            String value = text(name, "").trim();
+            return value.isEmpty() ? List.of() : List.of(value.split("\\s+"));
+        }
+
+        /** {@code n} or {@code min-max}. */
+        int[] range(String name, String fallback) {
+            String[] bounds = text(name, fallback).split("-");
+            int min = Integer.parseInt(bounds[0].trim());
+            int max = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : min;
+            if (min < 0 || max < min) {
+                throw new IllegalArgumentException("--" + name + " must be n or min-max");
+            }
+            return new int[]{min, max};
+        }
+    }
+}
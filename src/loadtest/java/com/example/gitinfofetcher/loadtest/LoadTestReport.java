@@ -0,0 +1,126 @@
+package com.example.gitinfofetcher.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The outcome of the measured phase, printed for people and written as JSON for release gates.
+ */
+record LoadTestReport(Map<String, Object> settings, Requests requests, Latency latency, Upstream upstream, Jvm jvm,
+                      List<String> violations) {
+
+    record Requests(long sent, long ok, long clientErrors, long serverErrors, long failures, long dropped,
+                    double seconds, double throughput, double errorRate) {
+    }
+
+    /** Milliseconds, measured from the time each request was due. */
+    record Latency(double p50, double p90, double p99, double p999, double max) {
+    }
+
+    record Upstream(long calls, long repositoryPages, long branchPages, long notModified, long injectedErrors,
+                    long rateLimited, double amplification) {
+    }
+
+    record Jvm(long gcPauses, double gcPauseMillis, double maxGcPauseMillis, double gcOverhead,
+               double allocatedMbPerSecond, double heapUsedMb, double liveDataMb) {
+    }
+
+    static LoadTestReport of(LoadTestOptions options, LoadGenerator.Result result, GitHubSimulator.Counts upstream,
+                             JvmMetrics.Snapshot jvm) {
+        double seconds = result.elapsed().toNanos() / 1e9;
+        Requests requests = new Requests(result.sent(), result.ok(), result.clientErrors(), result.serverErrors(),
+                result.failures(), result.dropped(), seconds, result.ok() / seconds,
+                result.sent() == 0 ? 0 : (double) (result.sent() - result.ok()) / result.sent());
+        Histogram histogram = result.latencyMicros();
+        Latency latency = new Latency(millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+        Upstream calls = new Upstream(upstream.total(), upstream.repositoryPages(), upstream.branchPages(),
+                upstream.notModified(), upstream.errors(), upstream.rateLimited(),
+                result.completed() == 0 ? 0 : (double) upstream.total() / result.completed());
+        Jvm heap = new Jvm(jvm.gcPauses(), jvm.gcPauseSeconds() * 1000, jvm.maxGcPauseSeconds() * 1000,
+                jvm.gcPauseSeconds() / seconds, jvm.allocatedBytes() / seconds / (1 << 20),
+                jvm.heapUsedBytes() / (1 << 20), jvm.liveDataBytes() / (1 << 20));
+        return new LoadTestReport(settings(options), requests, latency, calls, heap, violations(options.slo(), requests, latency, calls, heap));
+    }
+
+    private static Map<String, Object> settings(LoadTestOptions options) {
+        GitHubSimulator.Settings simulator = options.simulator();
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rate", options.rate());
+        settings.put("duration", options.duration().toString());
+        settings.put("warmup", options.warmup().toString());
+        settings.put("users", simulator.users());
+        settings.put("skew", options.skew());
+        settings.put("repositoriesPerUser", simulator.minRepositories() + "-" + simulator.maxRepositories());
+        settings.put("branchesPerRepository", simulator.minBranches() + "-" + simulator.maxBranches());
+        settings.put("latencyMedian", simulator.latencyMedian().toString());
+        settings.put("latencyP99", simulator.latencyP99().toString());
+        settings.put("errorRate", simulator.errorRate());
+        settings.put("rateLimit", simulator.rateLimit());
+        settings.put("seed", options.seed());
+        settings.put("serviceProperties", options.serviceProperties());
+        return settings;
+    }
+
+    private static List<String> violations(LoadTestOptions.Slo slo, Requests requests, Latency latency, Upstream upstream, Jvm jvm) {
+        List<String> violations = new ArrayList<>();
+        checkAtMost(violations, "p50 latency (ms)", latency.p50(), slo.p50());
+        checkAtMost(violations, "p99 latency (ms)", latency.p99(), slo.p99());
+        checkAtMost(violations, "p999 latency (ms)", latency.p999(), slo.p999());
+        if (slo.minThroughput() > 0 && requests.throughput() < slo.minThroughput()) {
+            violations.add(format("throughput %.1f/s is below %.1f/s", requests.throughput(), slo.minThroughput()));
+        }
+        checkAtMost(violations, "error rate", requests.errorRate(), slo.maxErrorRate());
+        checkAtMost(violations, "upstream amplification", upstream.amplification(), slo.maxAmplification());
+        checkAtMost(violations, "GC overhead", jvm.gcOverhead(), slo.maxGcOverhead());
+        return violations;
+    }
+
+    private static void checkAtMost(List<String> violations, String name, double value, Duration limit) {
+        if (limit != null && value > limit.toNanos() / 1e6) {
+            violations.add(format("%s %.1f exceeds %.1f", name, value, limit.toNanos() / 1e6));
+        }
+    }
+
+    private static void checkAtMost(List<String> violations, String name, double value, double limit) {
+        if (limit > 0 && value > limit) {
+            violations.add(format("%s %.4f exceeds %.4f", name, value, limit));
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(format("requests    %d sent, %d ok, %d 4xx, %d 5xx, %d failed, %d dropped in %.1f s%n",
+                requests.sent(), requests.ok(), requests.clientErrors(), requests.serverErrors(), requests.failures(),
+                requests.dropped(), requests.seconds()));
+        text.append(format("throughput  %.1f ok/s, error rate %.4f%n", requests.throughput(), requests.errorRate()));
+        text.append(format("latency     p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, p999 %.1f ms, max %.1f ms%n",
+                latency.p50(), latency.p90(), latency.p99(), latency.p999(), latency.max()));
+        text.append(format("upstream    %d calls (%d repository pages, %d branch pages), %d not modified, %d injected errors, %d rate limited, %.2f calls per lookup%n",
+                upstream.calls(), upstream.repositoryPages(), upstream.branchPages(), upstream.notModified(),
+                upstream.injectedErrors(), upstream.rateLimited(), upstream.amplification()));
+        text.append(format("jvm         %d GC pauses, %.0f ms total (%.2f%% of the run), max %.1f ms; %.0f MB/s allocated; heap %.0f MB, live data %.0f MB%n",
+                jvm.gcPauses(), jvm.gcPauseMillis(), jvm.gcOverhead() * 100, jvm.maxGcPauseMillis(),
+                jvm.allocatedMbPerSecond(), jvm.heapUsedMb(), jvm.liveDataMb()));
+        if (violations.isEmpty()) {
+            text.append("slo         met").append(System.lineSeparator());
+        } else {
+            violations.forEach(violation -> text.append("slo         VIOLATED: ").append(violation).append(System.lineSeparator()));
+        }
+        return text.toString();
+    }
+
+    private static String format(String format, Object... args) {
+        return String.format(Locale.ROOT, format, args);
+    }
+}
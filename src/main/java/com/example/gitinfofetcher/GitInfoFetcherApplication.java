@@ -1,9 +1,12 @@
 package com.example.gitinfofetcher;
 
+import com.example.gitinfofetcher.service.GraphQlGitHubBackend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints({GitInfoFetcherRuntimeHints.class, GraphQlGitHubBackend.BindingHints.class})
 public class GitInfoFetcherApplication {
     public static void main(String[] args) {
         SpringApplication.run(GitInfoFetcherApplication.class, args);
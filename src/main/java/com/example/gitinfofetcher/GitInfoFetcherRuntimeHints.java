@@ -0,0 +1,32 @@
+package com.example.gitinfofetcher;
+
+import com.example.gitinfofetcher.cache.SnapshotSummary;
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.domain.GitHubRepository;
+import com.example.gitinfofetcher.domain.GitHubUser;
+import com.example.gitinfofetcher.dto.BranchChangeDto;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.dto.UserRepositoriesDto;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection hints for the types Jackson binds outside of controller signatures: GitHub payloads, cached
+ * and shared results, and actuator responses. Ahead-of-time processing cannot find these on its own, and a
+ * native image needs them to construct records and read their accessors.
+ */
+class GitInfoFetcherRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] BOUND_TYPES = {
+            GitHubRepository.class, GitHubBranch.class, GitHubCommit.class, GitHubUser.class,
+            RepositoryBranchesDto.class, UserRepositoriesDto.class, BranchChangeDto.class,
+            SnapshotSummary.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), BOUND_TYPES);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.gitinfofetcher.cache;
+
+import java.time.Instant;
+import java.util.List;
+
+record CachedResult(List<CompactRepository> repositories, Instant fetchedAt) {
+}
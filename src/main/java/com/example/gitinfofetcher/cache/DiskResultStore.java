@@ -0,0 +1,254 @@
+package com.example.gitinfofetcher.cache;
+
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only file of cached results that survives restarts. Each record is
+ * {@code [int length][long fetchedAtMillis][short keyLength][key][JSON repositories]}; a later record for the
+ * same key supersedes earlier ones. Nothing is read until the first lookup, which scans the record
+ * headers once to build an offset index. A record cut short by a crash is truncated away.
+ * <p>
+ * The file is mapped in {@link #WINDOW} windows that overlap by {@link #MAX_RECORD}, as in
+ * {@link ResultSnapshot}, so it can grow past 2 GB. Once superseded records make up more than half of a
+ * file of at least {@code minCompactionBytes}, the live records are copied to a new file that replaces it.
+ */
+class DiskResultStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiskResultStore.class);
+    private static final TypeReference<List<RepositoryBranchesDto>> REPOSITORIES = new TypeReference<>() {
+    };
+    private static final int HEADER_BYTES = Long.BYTES + Short.BYTES;
+    private static final long WINDOW = 1L << 30;
+    private static final int MAX_RECORD = 1 << 26;
+    private static final long MIN_COMPACTION_BYTES = 64L << 20;
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final NameInterner names;
+    private final long minCompactionBytes;
+    private final Map<String, Location> index = new HashMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer[] windows = new MappedByteBuffer[0];
+    private long size;
+    private long deadBytes;
+    private int compactions;
+
+    DiskResultStore(Path path, ObjectMapper objectMapper, NameInterner names) {
+        this(path, objectMapper, names, MIN_COMPACTION_BYTES);
+    }
+
+    DiskResultStore(Path path, ObjectMapper objectMapper, NameInterner names, long minCompactionBytes) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.names = names;
+        this.minCompactionBytes = minCompactionBytes;
+    }
+
+    synchronized CachedResult read(String key) {
+        ensureLoaded();
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        try {
+            ByteBuffer record = slice(location.offset(), location.length());
+            Instant fetchedAt = Instant.ofEpochMilli(record.getLong());
+            record.position(HEADER_BYTES + record.getShort());
+            List<RepositoryBranchesDto> repositories = objectMapper.readValue(new ByteBufferBackedInputStream(record), REPOSITORIES);
+            return new CachedResult(CompactRepository.of(repositories, names), fetchedAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void append(String key, CachedResult result) {
+        ensureLoaded();
+        try {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            byte[] json = objectMapper.writeValueAsBytes(CompactRepository.toDtos(result.repositories()));
+            int length = HEADER_BYTES + keyBytes.length + json.length;
+            if (length > MAX_RECORD) {
+                throw new IOException("Cached result of " + key + " exceeds the record limit of " + MAX_RECORD + " bytes");
+            }
+            ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length)
+                    .putInt(length)
+                    .putLong(result.fetchedAt().toEpochMilli())
+                    .putShort((short) keyBytes.length)
+                    .put(keyBytes)
+                    .put(json)
+                    .flip();
+            long position = size;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            Location superseded = index.put(key, new Location(size + Integer.BYTES, length));
+            if (superseded != null) {
+                deadBytes += Integer.BYTES + superseded.length();
+            }
+            size = position;
+            if (size >= minCompactionBytes && deadBytes * 2 > size) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized List<String> keys() {
+        ensureLoaded();
+        return List.copyOf(index.keySet());
+    }
+
+    synchronized int entries() {
+        return channel == null ? 0 : index.size();
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    synchronized int compactions() {
+        return compactions;
+    }
+
+    /**
+     * Copies the live records to a sibling file and moves it over this one. A crash before the move leaves
+     * the old file in place; the leftover copy is overwritten by the next compaction.
+     */
+    private void compact() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Map<String, Location> moved = new HashMap<>();
+        long position = 0;
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Map.Entry<String, Location> entry : index.entrySet()) {
+                Location location = entry.getValue();
+                long from = location.offset() - Integer.BYTES;
+                long count = Integer.BYTES + location.length();
+                for (long copied = 0; copied < count; ) {
+                    copied += channel.transferTo(from + copied, count - copied, target);
+                }
+                moved.put(entry.getKey(), new Location(position + Integer.BYTES, location.length()));
+                position += count;
+            }
+            target.force(true);
+        }
+        long before = size;
+        channel.close();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        windows = new MappedByteBuffer[0];
+        index.clear();
+        index.putAll(moved);
+        size = position;
+        deadBytes = 0;
+        compactions++;
+        logger.info("Compacted {} from {} to {} bytes", path, before, size);
+    }
+
+    /**
+     * The bytes at {@code offset}, from the window the offset falls into. A window is mapped again once the
+     * file has grown past it.
+     */
+    private ByteBuffer slice(long offset, int length) throws IOException {
+        int window = (int) (offset / WINDOW);
+        if (window >= windows.length) {
+            windows = Arrays.copyOf(windows, window + 1);
+        }
+        long start = window * WINDOW;
+        MappedByteBuffer mapped = windows[window];
+        if (mapped == null || offset - start + length > mapped.capacity()) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, WINDOW + MAX_RECORD));
+            windows[window] = mapped;
+        }
+        return mapped.slice((int) (offset - start), length);
+    }
+
+    private void ensureLoaded() {
+        if (channel != null) {
+            return;
+        }
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long fileSize = channel.size();
+            size = fileSize;
+            long position = 0;
+            while (position + Integer.BYTES <= fileSize) {
+                int length = slice(position, Integer.BYTES).getInt();
+                long start = position + Integer.BYTES;
+                if (length < HEADER_BYTES || length > MAX_RECORD || start + length > fileSize) {
+                    break;
+                }
+                ByteBuffer header = slice(start, length);
+                byte[] keyBytes = new byte[header.getShort(Long.BYTES)];
+                header.get(HEADER_BYTES, keyBytes);
+                Location superseded = index.put(new String(keyBytes, StandardCharsets.UTF_8), new Location(start, length));
+                if (superseded != null) {
+                    deadBytes += Integer.BYTES + superseded.length();
+                }
+                position = start + length;
+            }
+            if (position < fileSize) {
+                logger.warn("Discarding {} bytes of incomplete records at the end of {}", fileSize - position, path);
+                channel.truncate(position);
+                windows = new MappedByteBuffer[0];
+            }
+            size = position;
+            logger.info("Loaded result cache index for {} users from {}", index.size(), path);
+        } catch (IOException e) {
+            discardPartialLoad();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void discardPartialLoad() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            logger.debug("Could not close {}: {}", path, e.toString());
+        }
+        channel = null;
+        windows = new MappedByteBuffer[0];
+        index.clear();
+        size = 0;
+        deadBytes = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private record Location(long offset, int length) {
+    }
+}
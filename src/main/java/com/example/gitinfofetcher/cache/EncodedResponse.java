@@ -0,0 +1,25 @@
+package com.example.gitinfofetcher.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+
+/**
+ * A response body encoded once and written many times. The bytes live in an unreleasable, read-only
+ * heap buffer, so they count against the heap and are collected with their cache entry; every response
+ * gets its own duplicate of it, and releasing that after the write leaves the shared buffer intact.
+ */
+public record EncodedResponse(ByteBuf content, MediaType mediaType, String eTag) {
+
+    private static final NettyDataBufferFactory BUFFERS = new NettyDataBufferFactory(ByteBufAllocator.DEFAULT);
+
+    public DataBuffer dataBuffer() {
+        return BUFFERS.wrap(content.duplicate());
+    }
+
+    public int size() {
+        return content.readableBytes();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.gitinfofetcher.cache;
+
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.buffer.Unpooled;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Final response bytes of users whose repositories are retained in memory, per user and media type. An
+ * entry remembers the retained list it was encoded from and is re-encoded once the result cache or the
+ * watch list has replaced that list, so it never outlives the data it was built from. The ETag is an MD5
+ * of the bytes, which changes exactly when the body does. The cache is bounded by entries and by total
+ * encoded bytes, evicting the least recently used entries first.
+ */
+public class EncodedResponseCache implements MeterBinder {
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final ObjectMapper objectMapper;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong encodes = new AtomicLong();
+
+    public EncodedResponseCache(int maxEntries, long maxBytes, ObjectMapper objectMapper) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.objectMapper = objectMapper;
+    }
+
+    public static EncodedResponseCache disabled() {
+        return new EncodedResponseCache(0, 0, null);
+    }
+
+    /**
+     * The given repositories encoded as a JSON array or as NDJSON, or {@code null} when the cache is disabled
+     * or the media type is not one of those.
+     */
+    public EncodedResponse get(String username, MediaType mediaType, List<CompactRepository> repositories) {
+        if (maxEntries <= 0 || !isSupported(mediaType)) {
+            return null;
+        }
+        MediaType type = new MediaType(mediaType.getType(), mediaType.getSubtype());
+        Key key = new Key(username, type);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.source() == repositories) {
+                hits.incrementAndGet();
+                return entry.response();
+            }
+        }
+        EncodedResponse response = encode(repositories, type);
+        encodes.incrementAndGet();
+        if (response.size() <= maxBytes) {
+            put(key, new Entry(repositories, response));
+        }
+        return response;
+    }
+
+    private synchronized void put(Key key, Entry entry) {
+        Entry replaced = entries.put(key, entry);
+        bytes += entry.response().size() - (replaced != null ? replaced.response().size() : 0);
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().response().size();
+            eldest.remove();
+        }
+    }
+
+    private EncodedResponse encode(List<CompactRepository> repositories, MediaType mediaType) {
+        List<RepositoryBranchesDto> dtos = CompactRepository.toDtos(repositories);
+        byte[] body;
+        try {
+            if (MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(mediaType)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                for (RepositoryBranchesDto dto : dtos) {
+                    out.writeBytes(objectMapper.writeValueAsBytes(dto));
+                    out.writeBytes(NEWLINE);
+                }
+                body = out.toByteArray();
+            } else {
+                body = objectMapper.writeValueAsBytes(dtos);
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new EncodedResponse(Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(body).asReadOnly()),
+                mediaType, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+    }
+
+    private static boolean isSupported(MediaType mediaType) {
+        return MediaType.APPLICATION_JSON.equalsTypeAndSubtype(mediaType) || MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(mediaType);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long encodes() {
+        return encodes.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("github.responses.cache.hits", this, EncodedResponseCache::hits)
+                .description("Responses written from pre-encoded bytes")
+                .register(registry);
+        FunctionCounter.builder("github.responses.cache.encodes", this, EncodedResponseCache::encodes)
+                .register(registry);
+        Gauge.builder("github.responses.cache.size", this, EncodedResponseCache::size)
+                .register(registry);
+        Gauge.builder("github.responses.cache.bytes", this, EncodedResponseCache::bytes)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private record Key(String username, MediaType mediaType) {
+    }
+
+    private record Entry(List<CompactRepository> source, EncodedResponse response) {
+    }
+}
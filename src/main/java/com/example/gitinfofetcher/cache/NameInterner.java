@@ -0,0 +1,37 @@
+package com.example.gitinfofetcher.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonicalises repository, owner and branch names so that the thousands of {@code main}, {@code master} and
+ * {@code develop} branches of retained results share one {@code String}. Once {@code maxNames} distinct names
+ * are known, further names are kept as they are rather than growing the table without bound.
+ */
+public class NameInterner {
+
+    private final int maxNames;
+    private final ConcurrentHashMap<String, String> names = new ConcurrentHashMap<>();
+
+    public NameInterner(int maxNames) {
+        this.maxNames = maxNames;
+    }
+
+    public String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        String canonical = names.get(name);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (names.size() >= maxNames) {
+            return name;
+        }
+        canonical = names.putIfAbsent(name, name);
+        return canonical != null ? canonical : name;
+    }
+
+    public int size() {
+        return names.size();
+    }
+}
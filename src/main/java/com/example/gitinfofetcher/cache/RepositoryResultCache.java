@@ -0,0 +1,361 @@
+package com.example.gitinfofetcher.cache;
+
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache of the assembled repositories of a user. Tier one is an LRU map bounded by entry count, tier
+ * two an optional {@link DiskResultStore} that is consulted on a tier-one miss and written behind every
+ * successful load. A {@link ResultSnapshot} exported by another instance can be imported as a read-only tier
+ * behind both, to seed a new instance without calling GitHub. An entry is fresh for {@code ttl}; once it is
+ * older than {@code refreshAhead * ttl} it is still served but reloaded in the background, and after it
+ * expires it keeps being served that way for up to {@code maxStale}. Failed loads and partial results are
+ * never cached. Entries are held as {@link CompactRepository} and only turned back into DTOs while they are
+ * served.
+ */
+public class RepositoryResultCache implements MeterBinder, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryResultCache.class);
+    private static final int MAX_INTERNED_NAMES = 100_000;
+
+    private final int maxEntries;
+    private final Duration refreshAfter;
+    private final Duration servableFor;
+    private final DiskResultStore diskStore;
+    private final Clock clock;
+    private final NameInterner names = new NameInterner(MAX_INTERNED_NAMES);
+    private final LinkedHashMap<String, CachedResult> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ObjectMapper objectMapper;
+    private volatile ResultSnapshot snapshot;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong snapshotHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    public RepositoryResultCache(int maxEntries, Duration ttl, double refreshAhead, Duration maxStale,
+                                 Path diskPath, ObjectMapper objectMapper, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.refreshAfter = Duration.ofMillis((long) (ttl.toMillis() * refreshAhead));
+        this.servableFor = ttl.plus(maxStale);
+        this.diskStore = diskPath != null && maxEntries > 0 ? new DiskResultStore(diskPath, objectMapper, names) : null;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    public static RepositoryResultCache disabled() {
+        return new RepositoryResultCache(0, Duration.ZERO, 1, Duration.ZERO, null, null, Clock.systemUTC());
+    }
+
+    public Flux<RepositoryBranchesDto> get(String username, Supplier<Flux<RepositoryBranchesDto>> loader) {
+        if (maxEntries <= 0) {
+            return loader.get();
+        }
+        return Flux.defer(() -> {
+            CachedResult cached = lookup(username);
+            if (cached != null) {
+                memoryHits.incrementAndGet();
+                return serve(username, cached, loader);
+            }
+            if (diskStore == null && snapshot == null) {
+                return load(username, loader);
+            }
+            return Mono.fromCallable(() -> readPersisted(username))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapMany(persisted -> {
+                        if (persisted.isEmpty()) {
+                            return load(username, loader);
+                        }
+                        put(username, persisted.get());
+                        return serve(username, persisted.get(), loader);
+                    });
+        });
+    }
+
+    /**
+     * The retained repositories of a user if they are in memory and still servable, without loading them.
+     * Like {@link #get}, a result that is due is still returned and reloaded in the background.
+     */
+    public List<CompactRepository> peek(String username, Supplier<Flux<RepositoryBranchesDto>> loader) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        CachedResult cached = lookup(username);
+        if (cached == null) {
+            return null;
+        }
+        memoryHits.incrementAndGet();
+        if (age(cached).compareTo(refreshAfter) >= 0) {
+            refresh(username, loader);
+        }
+        return cached.repositories();
+    }
+
+    private Flux<RepositoryBranchesDto> serve(String username, CachedResult cached, Supplier<Flux<RepositoryBranchesDto>> loader) {
+        if (age(cached).compareTo(refreshAfter) >= 0) {
+            refresh(username, loader);
+        }
+        return Flux.fromIterable(cached.repositories()).map(CompactRepository::toDto);
+    }
+
+    private Flux<RepositoryBranchesDto> load(String username, Supplier<Flux<RepositoryBranchesDto>> loader) {
+        misses.incrementAndGet();
+        return Flux.defer(() -> {
+            List<RepositoryBranchesDto> repositories = new ArrayList<>();
+            return loader.get()
+                    .doOnNext(repositories::add)
+                    .doOnComplete(() -> store(username, repositories));
+        });
+    }
+
+    private void refresh(String username, Supplier<Flux<RepositoryBranchesDto>> loader) {
+        if (!refreshing.add(username)) {
+            return;
+        }
+        refreshes.incrementAndGet();
+        logger.debug("Refreshing cached repositories for user {} in the background", username);
+        loader.get()
+                .collectList()
+                .doFinally(signal -> refreshing.remove(username))
+                .subscribe(repositories -> store(username, repositories),
+                        error -> logger.warn("Background refresh for user {} failed, keeping cached result: {}", username, error.toString()));
+    }
+
+    private void store(String username, List<RepositoryBranchesDto> repositories) {
+        if (repositories.stream().anyMatch(repository -> repository.error() != null)) {
+            logger.debug("Not caching partial result for user {}", username);
+            return;
+        }
+        CachedResult result = new CachedResult(CompactRepository.of(repositories, names), clock.instant());
+        put(username, result);
+        if (diskStore != null) {
+            Schedulers.boundedElastic().schedule(() -> {
+                try {
+                    diskStore.append(username, result);
+                } catch (RuntimeException e) {
+                    logger.warn("Could not persist cached repositories for user {}: {}", username, e.toString());
+                }
+            });
+        }
+    }
+
+    private Optional<CachedResult> readPersisted(String username) {
+        if (diskStore != null) {
+            Optional<CachedResult> fromDisk = readFromDisk(username);
+            if (fromDisk.isPresent()) {
+                diskHits.incrementAndGet();
+                return fromDisk;
+            }
+        }
+        Optional<CachedResult> fromSnapshot = readFromSnapshot(snapshot, username);
+        fromSnapshot.ifPresent(result -> snapshotHits.incrementAndGet());
+        return fromSnapshot;
+    }
+
+    private Optional<CachedResult> readFromDisk(String username) {
+        try {
+            return Optional.ofNullable(diskStore.read(username)).filter(this::servable);
+        } catch (RuntimeException e) {
+            logger.warn("Could not read cached repositories for user {} from disk: {}", username, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<CachedResult> readFromSnapshot(ResultSnapshot source, String username) {
+        if (source == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(source.read(username)).filter(this::servable);
+        } catch (IOException e) {
+            logger.warn("Could not read cached repositories for user {} from the snapshot: {}", username, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes every servable result to a snapshot at {@code path}: those in memory, then those only on disk,
+     * then those only in the imported snapshot. An existing file is replaced once the new one is complete.
+     */
+    public SnapshotSummary exportSnapshot(Path path) throws IOException {
+        long start = System.nanoTime();
+        ResultSnapshot imported = snapshot;
+        Map<String, CachedResult> inMemory;
+        synchronized (this) {
+            inMemory = new LinkedHashMap<>(entries);
+        }
+        long bytes;
+        int users;
+        try (ResultSnapshot.Writer writer = new ResultSnapshot.Writer(path, objectMapper, clock)) {
+            for (Map.Entry<String, CachedResult> entry : inMemory.entrySet()) {
+                if (servable(entry.getValue())) {
+                    writer.add(entry.getKey(), entry.getValue());
+                }
+            }
+            if (diskStore != null) {
+                for (String username : diskStore.keys()) {
+                    if (!inMemory.containsKey(username)) {
+                        Optional<CachedResult> fromDisk = readFromDisk(username);
+                        if (fromDisk.isPresent()) {
+                            writer.add(username, fromDisk.get());
+                        }
+                    }
+                }
+            }
+            if (imported != null) {
+                for (String username : imported.keys()) {
+                    Optional<CachedResult> fromSnapshot = readFromSnapshot(imported, username);
+                    if (fromSnapshot.isPresent()) {
+                        writer.add(username, fromSnapshot.get());
+                    }
+                }
+            }
+            users = writer.users();
+            bytes = writer.finish();
+        }
+        Duration took = Duration.ofNanos(System.nanoTime() - start);
+        logger.info("Exported cached repositories of {} users to {} ({} bytes) in {}", users, path, bytes, took);
+        return new SnapshotSummary(path.toString(), users, bytes, took.toMillis());
+    }
+
+    /**
+     * Serves the results in the snapshot at {@code path} on memory and disk misses, replacing any snapshot
+     * imported before. Only the snapshot's index is read here; results are decoded when first requested and
+     * are served like disk entries, as long as they are within {@code ttl + maxStale} of when they were
+     * fetched.
+     */
+    public SnapshotSummary importSnapshot(Path path) throws IOException {
+        long start = System.nanoTime();
+        ResultSnapshot opened = ResultSnapshot.open(path, objectMapper, names);
+        ResultSnapshot previous = snapshot;
+        snapshot = opened;
+        if (previous != null) {
+            previous.close();
+        }
+        Duration took = Duration.ofNanos(System.nanoTime() - start);
+        logger.info("Imported result snapshot of {} users from {}, created {}, in {}", opened.users(), path, opened.createdAt(), took);
+        return new SnapshotSummary(path.toString(), opened.users(), Files.size(path), took.toMillis());
+    }
+
+    private synchronized CachedResult lookup(String username) {
+        CachedResult cached = entries.get(username);
+        if (cached != null && !servable(cached)) {
+            entries.remove(username);
+            return null;
+        }
+        return cached;
+    }
+
+    private synchronized void put(String username, CachedResult result) {
+        entries.put(username, result);
+        if (entries.size() > maxEntries) {
+            Map.Entry<String, CachedResult> eldest = entries.entrySet().iterator().next();
+            entries.remove(eldest.getKey());
+        }
+    }
+
+    private boolean servable(CachedResult cached) {
+        return age(cached).compareTo(servableFor) < 0;
+    }
+
+    private Duration age(CachedResult cached) {
+        return Duration.between(cached.fetchedAt(), clock.instant());
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int diskEntries() {
+        return diskStore != null ? diskStore.entries() : 0;
+    }
+
+    public long memoryHits() {
+        return memoryHits.get();
+    }
+
+    public long diskHits() {
+        return diskHits.get();
+    }
+
+    public long snapshotHits() {
+        return snapshotHits.get();
+    }
+
+    public int snapshotEntries() {
+        ResultSnapshot current = snapshot;
+        return current != null ? current.users() : 0;
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long refreshes() {
+        return refreshes.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("github.results.cache.hits", this, RepositoryResultCache::memoryHits)
+                .tag("tier", "memory")
+                .register(registry);
+        FunctionCounter.builder("github.results.cache.hits", this, RepositoryResultCache::diskHits)
+                .tag("tier", "disk")
+                .register(registry);
+        FunctionCounter.builder("github.results.cache.hits", this, RepositoryResultCache::snapshotHits)
+                .tag("tier", "snapshot")
+                .register(registry);
+        FunctionCounter.builder("github.results.cache.misses", this, RepositoryResultCache::misses)
+                .register(registry);
+        FunctionCounter.builder("github.results.cache.refreshes", this, RepositoryResultCache::refreshes)
+                .description("Cached results reloaded in the background because they were due or stale")
+                .register(registry);
+        Gauge.builder("github.results.cache.size", this, RepositoryResultCache::size)
+                .tag("tier", "memory")
+                .register(registry);
+        Gauge.builder("github.results.cache.size", this, RepositoryResultCache::diskEntries)
+                .tag("tier", "disk")
+                .register(registry);
+        Gauge.builder("github.results.cache.size", this, RepositoryResultCache::snapshotEntries)
+                .tag("tier", "snapshot")
+                .register(registry);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (diskStore != null) {
+            diskStore.close();
+        }
+        if (snapshot != null) {
+            snapshot.close();
+        }
+    }
+}
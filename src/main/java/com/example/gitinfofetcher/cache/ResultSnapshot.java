@@ -0,0 +1,378 @@
+package com.example.gitinfofetcher.cache;
+
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only file of cached results for many users, written by one instance and loaded by another. All
+ * numbers are big-endian:
+ * <pre>
+ * header     int magic "GIFS", short version, short reserved, long createdAtMillis,
+ *            long dictionaryOffset, long indexOffset
+ * records    per user: int length, long fetchedAtMillis, int repositoryCount, then per repository:
+ *            int nameId, int ownerId, int branchCount, int errorLength (-1 for none) and error JSON,
+ *            int[branchCount] branch name ids, byte[20 * branchCount] packed SHAs,
+ *            int irregularCount and per irregular commit: int branchIndex, byte kind, [int length, UTF-8 SHA]
+ * dictionary int count, then per string: int length, UTF-8 bytes; ids are positions, -1 is null
+ * index      int count, then per user: short keyLength, UTF-8 key, long recordOffset, int recordLength
+ * </pre>
+ * Opening a snapshot reads only the dictionary and the index at the end of the file. Records stay in the
+ * mapped file until a user is looked up, so a snapshot larger than the heap can be opened at startup. The
+ * file is mapped in {@link #WINDOW} windows that overlap by {@link #MAX_RECORD}, which keeps every record
+ * inside the window its offset falls into.
+ */
+class ResultSnapshot implements Closeable {
+
+    static final int MAGIC = 0x47494653;
+    static final short VERSION = 1;
+
+    private static final TypeReference<Map<String, Object>> ERROR = new TypeReference<>() {
+    };
+    private static final int HEADER_BYTES = 32;
+    private static final long WINDOW = 1L << 30;
+    private static final int MAX_RECORD = 1 << 26;
+    private static final byte NO_COMMIT = 1;
+    private static final byte IRREGULAR_SHA = 2;
+    private static final byte NULL_SHA = 3;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] windows;
+    private final String[] dictionary;
+    private final Map<String, Location> index;
+    private final Instant createdAt;
+    private final ObjectMapper objectMapper;
+
+    private ResultSnapshot(Path path, FileChannel channel, MappedByteBuffer[] windows, String[] dictionary,
+                           Map<String, Location> index, Instant createdAt, ObjectMapper objectMapper) {
+        this.path = path;
+        this.channel = channel;
+        this.windows = windows;
+        this.dictionary = dictionary;
+        this.index = index;
+        this.createdAt = createdAt;
+        this.objectMapper = objectMapper;
+    }
+
+    static ResultSnapshot open(Path path, ObjectMapper objectMapper, NameInterner names) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException(path + " is not a result snapshot");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(path + " is not a result snapshot");
+            }
+            short version = header.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported result snapshot version " + version + " in " + path);
+            }
+            header.getShort();
+            Instant createdAt = Instant.ofEpochMilli(header.getLong());
+            long dictionaryOffset = header.getLong();
+            long indexOffset = header.getLong();
+            if (dictionaryOffset < HEADER_BYTES || indexOffset < dictionaryOffset || indexOffset > size
+                    || size - dictionaryOffset > Integer.MAX_VALUE) {
+                throw new IOException("Corrupt result snapshot " + path);
+            }
+
+            ByteBuffer tail = channel.map(FileChannel.MapMode.READ_ONLY, dictionaryOffset, size - dictionaryOffset);
+            String[] dictionary = new String[tail.getInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = names.intern(string(tail, tail.getInt()));
+            }
+            tail.position((int) (indexOffset - dictionaryOffset));
+            int users = tail.getInt();
+            Map<String, Location> index = new HashMap<>(users * 4 / 3 + 1);
+            for (int i = 0; i < users; i++) {
+                String key = string(tail, tail.getShort());
+                long offset = tail.getLong();
+                int length = tail.getInt();
+                if (offset < HEADER_BYTES || length > MAX_RECORD || offset + length > dictionaryOffset) {
+                    throw new IOException("Corrupt result snapshot " + path);
+                }
+                index.put(key, new Location(offset, length));
+            }
+
+            MappedByteBuffer[] windows = new MappedByteBuffer[(int) ((dictionaryOffset + WINDOW - 1) / WINDOW)];
+            for (int i = 0; i < windows.length; i++) {
+                long start = i * WINDOW;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(dictionaryOffset - start, WINDOW + MAX_RECORD));
+            }
+            return new ResultSnapshot(path, channel, windows, dictionary, index, createdAt, objectMapper);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        } catch (RuntimeException e) {
+            channel.close();
+            throw new IOException("Corrupt result snapshot " + path, e);
+        }
+    }
+
+    CachedResult read(String key) throws IOException {
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        int window = (int) (location.offset() / WINDOW);
+        ByteBuffer record = windows[window].slice((int) (location.offset() - window * WINDOW), location.length());
+        try {
+            Instant fetchedAt = Instant.ofEpochMilli(record.getLong());
+            CompactRepository[] repositories = new CompactRepository[record.getInt()];
+            for (int r = 0; r < repositories.length; r++) {
+                String name = name(record.getInt());
+                String owner = name(record.getInt());
+                int branches = record.getInt();
+                int errorLength = record.getInt();
+                Map<String, Object> error = null;
+                if (errorLength >= 0) {
+                    error = objectMapper.readValue(new ByteBufferBackedInputStream(record.slice(record.position(), errorLength)), ERROR);
+                    record.position(record.position() + errorLength);
+                }
+                String[] branchNames = new String[branches];
+                for (int b = 0; b < branches; b++) {
+                    branchNames[b] = name(record.getInt());
+                }
+                byte[] shas = new byte[branches * CompactRepository.SHA_BYTES];
+                record.get(shas);
+                int irregular = record.getInt();
+                GitHubCommit[] irregularCommits = irregular > 0 ? new GitHubCommit[branches] : null;
+                for (int i = 0; i < irregular; i++) {
+                    int branch = record.getInt();
+                    irregularCommits[branch] = switch (record.get()) {
+                        case NO_COMMIT -> CompactRepository.NO_COMMIT;
+                        case IRREGULAR_SHA -> new GitHubCommit(string(record, record.getInt()));
+                        case NULL_SHA -> new GitHubCommit(null);
+                        default -> throw new IOException("Corrupt record for " + key + " in " + path);
+                    };
+                }
+                repositories[r] = new CompactRepository(name, owner, branchNames, shas, irregularCommits, error);
+            }
+            return new CachedResult(List.of(repositories), fetchedAt);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt record for " + key + " in " + path, e);
+        }
+    }
+
+    int users() {
+        return index.size();
+    }
+
+    Iterable<String> keys() {
+        return index.keySet();
+    }
+
+    Instant createdAt() {
+        return createdAt;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private String name(int id) {
+        return id < 0 ? null : dictionary[id];
+    }
+
+    private static String string(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Location(long offset, int length) {
+    }
+
+    /**
+     * Streams users into a new snapshot. The file is written next to {@code path} and moved into place by
+     * {@link #finish()}, so readers of an existing snapshot never see a partial one.
+     */
+    static final class Writer implements Closeable {
+
+        private final Path path;
+        private final Path temporary;
+        private final ObjectMapper objectMapper;
+        private final CountingOutputStream counting;
+        private final DataOutputStream out;
+        private final Map<String, Integer> dictionary = new LinkedHashMap<>();
+        private final Map<String, Location> index = new LinkedHashMap<>();
+        private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        private final DataOutputStream record = new DataOutputStream(recordBytes);
+        private boolean finished;
+
+        Writer(Path path, ObjectMapper objectMapper, Clock clock) throws IOException {
+            this.path = path;
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            this.objectMapper = objectMapper;
+            this.counting = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16));
+            this.out = new DataOutputStream(counting);
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(0);
+            out.writeLong(clock.millis());
+            out.writeLong(0);
+            out.writeLong(0);
+        }
+
+        void add(String key, CachedResult result) throws IOException {
+            if (index.containsKey(key)) {
+                return;
+            }
+            recordBytes.reset();
+            record.writeLong(result.fetchedAt().toEpochMilli());
+            record.writeInt(result.repositories().size());
+            for (CompactRepository repository : result.repositories()) {
+                int branches = repository.branchCount();
+                record.writeInt(id(repository.repositoryName()));
+                record.writeInt(id(repository.ownerLogin()));
+                record.writeInt(branches);
+                if (repository.error() != null) {
+                    byte[] error = objectMapper.writeValueAsBytes(repository.error());
+                    record.writeInt(error.length);
+                    record.write(error);
+                } else {
+                    record.writeInt(-1);
+                }
+                int irregular = 0;
+                for (int b = 0; b < branches; b++) {
+                    record.writeInt(id(repository.branchName(b)));
+                    if (repository.irregularCommit(b) != null) {
+                        irregular++;
+                    }
+                }
+                record.write(repository.packedShas());
+                record.writeInt(irregular);
+                for (int b = 0; irregular > 0 && b < branches; b++) {
+                    GitHubCommit commit = repository.irregularCommit(b);
+                    if (commit == null) {
+                        continue;
+                    }
+                    record.writeInt(b);
+                    if (commit == CompactRepository.NO_COMMIT) {
+                        record.writeByte(NO_COMMIT);
+                    } else if (commit.getSha() == null) {
+                        record.writeByte(NULL_SHA);
+                    } else {
+                        byte[] sha = commit.getSha().getBytes(StandardCharsets.UTF_8);
+                        record.writeByte(IRREGULAR_SHA);
+                        record.writeInt(sha.length);
+                        record.write(sha);
+                    }
+                }
+            }
+            if (recordBytes.size() > MAX_RECORD) {
+                throw new IOException("Cached result of " + key + " exceeds the snapshot record limit of " + MAX_RECORD + " bytes");
+            }
+            out.writeInt(recordBytes.size());
+            index.put(key, new Location(counting.count, recordBytes.size()));
+            recordBytes.writeTo(out);
+        }
+
+        int users() {
+            return index.size();
+        }
+
+        /**
+         * Writes the dictionary and the index, then replaces {@code path} with the new snapshot and returns
+         * its size in bytes.
+         */
+        long finish() throws IOException {
+            long dictionaryOffset = counting.count;
+            out.writeInt(dictionary.size());
+            for (String value : dictionary.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            long indexOffset = counting.count;
+            out.writeInt(index.size());
+            for (Map.Entry<String, Location> entry : index.entrySet()) {
+                byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                out.writeShort(key.length);
+                out.write(key);
+                out.writeLong(entry.getValue().offset());
+                out.writeInt(entry.getValue().length());
+            }
+            long size = counting.count;
+            out.close();
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer offsets = ByteBuffer.allocate(2 * Long.BYTES).putLong(dictionaryOffset).putLong(indexOffset).flip();
+                long position = HEADER_BYTES - offsets.remaining();
+                while (offsets.hasRemaining()) {
+                    position += channel.write(offsets, position);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            finished = true;
+            return size;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                out.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+
+        private int id(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return dictionary.computeIfAbsent(value, v -> dictionary.size());
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.gitinfofetcher.cache;
+
+/**
+ * Outcome of exporting or importing a result snapshot.
+ */
+public record SnapshotSummary(String path, int users, long bytes, long durationMillis) {
+}
@@ -0,0 +1,227 @@
+package com.example.gitinfofetcher.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limit for upstream calls. The limit grows by one per window of successful calls
+ * answered within the latency threshold, and is cut multiplicatively on slow calls and on 403/429
+ * responses carrying {@code Retry-After} or {@code X-RateLimit-Remaining: 0}, which GitHub uses for its
+ * secondary rate limits. Rejected calls are queued again; other 403s are permission errors and are not.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final double BACKOFF_RATIO = 0.5;
+    private static final double LATENCY_BACKOFF_RATIO = 0.9;
+    private static final int MAX_REJECTED_RETRIES = 5;
+    private static final Duration REJECTED_RETRY_BACKOFF = Duration.ofMillis(100);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+
+    private final Queue<Waiter> waiters = new ArrayDeque<>();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos = System.nanoTime();
+
+    public AdaptiveConcurrencyLimiter(@Value("${github.fanout.initial-concurrency:8}") int initialLimit,
+                                      @Value("${github.fanout.min-concurrency:1}") int minLimit,
+                                      @Value("${github.fanout.max-concurrency:64}") int maxLimit,
+                                      @Value("${github.fanout.latency-threshold:2s}") Duration latencyThreshold) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+    }
+
+    public <T> Mono<T> execute(Mono<T> task) {
+        return Mono.defer(() -> acquire().flatMap(permit -> task
+                        .doOnSuccess(value -> permit.onSuccess())
+                        .doOnError(permit::onError)
+                        .doOnCancel(permit::release)))
+                .retryWhen(Retry.backoff(MAX_REJECTED_RETRIES, REJECTED_RETRY_BACKOFF)
+                        .filter(AdaptiveConcurrencyLimiter::isRejection)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    public int maxLimit() {
+        return maxLimit;
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queued() {
+        return waiters.size();
+    }
+
+    public int rejected() {
+        return rejected.get();
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            sink.onCancel(waiter::cancel);
+            synchronized (this) {
+                waiters.add(waiter);
+            }
+            drain();
+        });
+    }
+
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            while (inFlight < (int) limit && !waiters.isEmpty()) {
+                Waiter waiter = waiters.poll();
+                if (waiter.grant()) {
+                    inFlight++;
+                    granted.add(waiter);
+                }
+            }
+        }
+        granted.forEach(Waiter::emit);
+    }
+
+    private void onSample(int inFlightAtStart, long startNanos, boolean rejection) {
+        long now = System.nanoTime();
+        double previous = limit;
+        if (rejection || now - startNanos > latencyThresholdNanos) {
+            // only back off once per batch of calls that were already in flight when the limit last dropped
+            if (startNanos > lastDecreaseNanos) {
+                limit = Math.max(minLimit, limit * (rejection ? BACKOFF_RATIO : LATENCY_BACKOFF_RATIO));
+                lastDecreaseNanos = now;
+            }
+        } else if (inFlightAtStart * 2 >= (int) limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+        if ((int) previous != (int) limit) {
+            logger.debug("Concurrency limit changed from {} to {}", (int) previous, (int) limit);
+        }
+    }
+
+    private static boolean isRejection(Throwable error) {
+        if (!(error instanceof WebClientResponseException ex)) {
+            return false;
+        }
+        int status = ex.getStatusCode().value();
+        if (status != HttpStatus.TOO_MANY_REQUESTS.value() && status != HttpStatus.FORBIDDEN.value()) {
+            return false;
+        }
+        HttpHeaders headers = ex.getHeaders();
+        return "0".equals(headers.getFirst(RateLimitScheduler.REMAINING_HEADER)) || headers.containsKey(HttpHeaders.RETRY_AFTER);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("github.fanout.concurrency.limit", this, AdaptiveConcurrencyLimiter::limit).register(registry);
+        Gauge.builder("github.fanout.concurrency.in-flight", this, AdaptiveConcurrencyLimiter::inFlight).register(registry);
+        Gauge.builder("github.fanout.concurrency.queued", this, AdaptiveConcurrencyLimiter::queued).register(registry);
+        Gauge.builder("github.fanout.concurrency.rejected", this, AdaptiveConcurrencyLimiter::rejected).register(registry);
+    }
+
+    private final class Waiter {
+        private final MonoSink<Permit> sink;
+        private final AtomicInteger state = new AtomicInteger();
+        private volatile Permit permit;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+
+        /**
+         * Publishes the permit before the state changes, so a concurrent {@link #cancel()} that finds the
+         * waiter granted always has a permit to release.
+         */
+        private boolean grant() {
+            permit = new Permit(inFlight + 1);
+            return state.compareAndSet(0, 1);
+        }
+
+        private void emit() {
+            sink.success(permit);
+        }
+
+        private void cancel() {
+            if (state.compareAndSet(0, 2)) {
+                synchronized (AdaptiveConcurrencyLimiter.this) {
+                    waiters.remove(this);
+                }
+            } else if (permit != null) {
+                permit.release();
+            }
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS, REJECTED, FAILED, CANCELLED
+    }
+
+    private final class Permit {
+        private final int inFlightAtStart;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        private void onSuccess() {
+            release(Outcome.SUCCESS);
+        }
+
+        private void onError(Throwable error) {
+            release(isRejection(error) ? Outcome.REJECTED : Outcome.FAILED);
+        }
+
+        private void release() {
+            release(Outcome.CANCELLED);
+        }
+
+        private void release(Outcome outcome) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            synchronized (AdaptiveConcurrencyLimiter.this) {
+                inFlight--;
+                if (outcome == Outcome.REJECTED) {
+                    rejected.incrementAndGet();
+                }
+                if (outcome == Outcome.SUCCESS || outcome == Outcome.REJECTED) {
+                    onSample(inFlightAtStart, startNanos, outcome == Outcome.REJECTED);
+                }
+            }
+            drain();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.gitinfofetcher.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Count-based circuit breaker. It opens when at least {@code failureRateThreshold} of the last
+ * {@code windowSize} calls failed, rejects calls for {@code openFor}, then lets a single probe through and
+ * closes again if that probe succeeds.
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final double failureRateThreshold;
+    private final Duration openFor;
+    private final Clock clock;
+
+    private final boolean[] outcomes;
+    private int next;
+    private int calls;
+    private int failures;
+    private State state = State.CLOSED;
+    private Instant openedAt = Instant.EPOCH;
+    private boolean probeInFlight;
+
+    CircuitBreaker(int windowSize, double failureRateThreshold, Duration openFor, Clock clock) {
+        this.windowSize = windowSize;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openFor = openFor;
+        this.clock = clock;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN && !clock.instant().isBefore(retryAt())) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (calls >= windowSize && failures >= failureRateThreshold * calls) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Releases the probe of a half-open breaker whose call ended without an outcome, e.g. when cancelled.
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    synchronized Instant retryAt() {
+        return openedAt.plus(openFor);
+    }
+
+    private void record(boolean failure) {
+        if (calls == windowSize) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % windowSize;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.instant();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        calls = 0;
+        failures = 0;
+        next = 0;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.gitinfofetcher.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Replays {@code If-None-Match} for upstream GET requests and serves the stored body when GitHub answers
+ * {@code 304 Not Modified}, which does not count against the rate limit.
+ * <p>
+ * Entries are keyed by the request's {@code Authorization} header as well as its URI, since a response
+ * fetched with one token may show repositories another token cannot see. Bodies are copied while they
+ * stream through to the decoder; a body larger than {@code maxEntryBytes} is passed on without being kept.
+ */
+public class ConditionalRequestCache implements ExchangeFilterFunction, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConditionalRequestCache.class);
+
+    public enum EvictionPolicy {
+        LRU, FIFO
+    }
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final LinkedHashMap<Key, CachedResponse> entries;
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ConditionalRequestCache(long maxBytes, EvictionPolicy evictionPolicy) {
+        this(maxBytes, maxBytes, evictionPolicy);
+    }
+
+    public ConditionalRequestCache(long maxBytes, long maxEntryBytes, EvictionPolicy evictionPolicy) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxBytes, maxEntryBytes);
+        this.entries = new LinkedHashMap<>(64, 0.75f, evictionPolicy == EvictionPolicy.LRU);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.method() != HttpMethod.GET) {
+            return next.exchange(request);
+        }
+        Key key = new Key(request.headers().getFirst(HttpHeaders.AUTHORIZATION), request.url());
+        CachedResponse cached = lookup(key);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return next.exchange(request).map(response -> store(key, response));
+        }
+
+        revalidations.incrementAndGet();
+        ClientRequest conditional = ClientRequest.from(request)
+                .headers(headers -> headers.setIfNoneMatch(cached.etag()))
+                .build();
+        return next.exchange(conditional).flatMap(response -> {
+            if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                hits.incrementAndGet();
+                logger.debug("Serving cached response for {} (ETag {})", request.url(), cached.etag());
+                return response.releaseBody().thenReturn(replay(response, cached));
+            }
+            misses.incrementAndGet();
+            return Mono.just(store(key, response));
+        });
+    }
+
+    private ClientResponse store(Key key, ClientResponse response) {
+        String etag = response.headers().asHttpHeaders().getETag();
+        if (response.statusCode().value() != HttpStatus.OK.value() || etag == null) {
+            return response;
+        }
+        if (response.headers().contentLength().orElse(0) > maxEntryBytes) {
+            logger.debug("Response for {} is larger than the entry limit, not caching", key.uri());
+            return response;
+        }
+        HttpHeaders headers = HttpHeaders.readOnlyHttpHeaders(response.headers().asHttpHeaders());
+        return response.mutate()
+                .body(body -> copying(body, copy -> put(key, new CachedResponse(etag, headers, copy))))
+                .build();
+    }
+
+    /**
+     * Passes the body on unchanged and hands a copy to {@code onComplete} once it has been read in full,
+     * unless it grew past the entry limit first.
+     */
+    private Flux<DataBuffer> copying(Flux<DataBuffer> body, Consumer<byte[]> onComplete) {
+        return Flux.defer(() -> {
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            boolean[] tooLarge = {false};
+            return body
+                    .doOnNext(buffer -> {
+                        int length = buffer.readableByteCount();
+                        if (tooLarge[0] || copy.size() + (long) length > maxEntryBytes) {
+                            tooLarge[0] = true;
+                            copy.reset();
+                            return;
+                        }
+                        byte[] bytes = new byte[length];
+                        int position = buffer.readPosition();
+                        buffer.read(bytes);
+                        buffer.readPosition(position);
+                        copy.writeBytes(bytes);
+                    })
+                    .doOnComplete(() -> {
+                        if (!tooLarge[0]) {
+                            onComplete.accept(copy.toByteArray());
+                        }
+                    });
+        });
+    }
+
+    private static ClientResponse replay(ClientResponse notModified, CachedResponse cached) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(cached.headers());
+        notModified.headers().asHttpHeaders().forEach((name, values) -> {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                headers.put(name, values);
+            }
+        });
+        return rebuild(notModified, headers, cached.body());
+    }
+
+    private static ClientResponse rebuild(ClientResponse original, HttpHeaders headers, byte[] body) {
+        return ClientResponse.create(HttpStatus.OK, original.strategies())
+                .request(original.request())
+                .headers(target -> target.addAll(headers))
+                .body(bodyOf(body))
+                .build();
+    }
+
+    private static Flux<DataBuffer> bodyOf(byte[] body) {
+        return Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+    }
+
+    private synchronized CachedResponse lookup(Key key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(Key key, CachedResponse response) {
+        CachedResponse previous = entries.put(key, response);
+        if (previous != null) {
+            currentBytes -= previous.size();
+        }
+        currentBytes += response.size();
+        Iterator<Map.Entry<Key, CachedResponse>> eldest = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, CachedResponse> entry = eldest.next();
+            currentBytes -= entry.getValue().size();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public synchronized long sizeInBytes() {
+        return currentBytes;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long revalidations() {
+        return revalidations.get();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("github.client.cache.hits", this, ConditionalRequestCache::hits)
+                .description("Upstream responses served from the cache after a 304 Not Modified")
+                .register(registry);
+        FunctionCounter.builder("github.client.cache.misses", this, ConditionalRequestCache::misses)
+                .description("Upstream responses fetched in full")
+                .register(registry);
+        FunctionCounter.builder("github.client.cache.revalidations", this, ConditionalRequestCache::revalidations)
+                .description("Conditional requests sent with If-None-Match")
+                .register(registry);
+        FunctionCounter.builder("github.client.cache.evictions", this, ConditionalRequestCache::evictions)
+                .register(registry);
+        Gauge.builder("github.client.cache.size", this, ConditionalRequestCache::sizeInBytes)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private record Key(String authorization, URI uri) {
+    }
+
+    private record CachedResponse(String etag, HttpHeaders headers, byte[] body) {
+        long size() {
+            return body.length;
+        }
+    }
+}
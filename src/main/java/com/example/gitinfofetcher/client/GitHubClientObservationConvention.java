@@ -0,0 +1,55 @@
+package com.example.gitinfofetcher.client;
+
+import io.micrometer.common.KeyValue;
+import org.springframework.web.reactive.function.client.ClientHttpObservationDocumentation.LowCardinalityKeyNames;
+import org.springframework.web.reactive.function.client.ClientRequestObservationContext;
+import org.springframework.web.reactive.function.client.DefaultClientRequestObservationConvention;
+
+import java.util.regex.Pattern;
+
+/**
+ * Tags upstream calls with the GitHub endpoint they hit instead of the literal URI template. Pages after
+ * the first are requested through the absolute {@code Link} URLs GitHub returns, which carry no template,
+ * so the endpoint is recognised from the request path and every page of a listing lands in the same series.
+ */
+public class GitHubClientObservationConvention extends DefaultClientRequestObservationConvention {
+
+    static final String REPOSITORIES = "/users/{username}/repos";
+    static final String BRANCHES = "/repos/{owner}/{repo}/branches";
+    static final String GRAPHQL = "/graphql";
+    static final String OTHER = "none";
+
+    private static final Pattern REPOSITORIES_PATH = Pattern.compile(".*/users/[^/]+/repos/?");
+    private static final Pattern BRANCHES_PATH = Pattern.compile(".*/repos/[^/]+/[^/]+/branches/?");
+    private static final Pattern GRAPHQL_PATH = Pattern.compile(".*/graphql/?");
+
+    @Override
+    protected KeyValue uri(ClientRequestObservationContext context) {
+        String path = context.getRequest() != null ? context.getRequest().url().getRawPath() : null;
+        return KeyValue.of(LowCardinalityKeyNames.URI, endpoint(path));
+    }
+
+    @Override
+    public String getContextualName(ClientRequestObservationContext context) {
+        if (context.getRequest() == null) {
+            return super.getContextualName(context);
+        }
+        return context.getRequest().method().name() + " " + endpoint(context.getRequest().url().getRawPath());
+    }
+
+    static String endpoint(String path) {
+        if (path == null) {
+            return OTHER;
+        }
+        if (REPOSITORIES_PATH.matcher(path).matches()) {
+            return REPOSITORIES;
+        }
+        if (BRANCHES_PATH.matcher(path).matches()) {
+            return BRANCHES;
+        }
+        if (GRAPHQL_PATH.matcher(path).matches()) {
+            return GRAPHQL;
+        }
+        return OTHER;
+    }
+}
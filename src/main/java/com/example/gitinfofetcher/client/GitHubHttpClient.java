@@ -0,0 +1,83 @@
+package com.example.gitinfofetcher.client;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the Reactor Netty client for GitHub. The pool is sized for the branch fan-out rather than the
+ * Reactor Netty default of {@code max(2 * cores, 16)} connections, behind which a burst of branch calls
+ * queues for up to 45 seconds. Connections are reused most recently used first so that surplus ones go idle
+ * and are evicted, HTTP/2 is negotiated over TLS with HTTP/1.1 as fallback, and every phase of a request
+ * has its own timeout: pool acquisition, connect, write and response.
+ */
+public final class GitHubHttpClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitHubHttpClient.class);
+
+    private GitHubHttpClient() {
+    }
+
+    public static ConnectionProvider connectionProvider(HttpClientSettings settings) {
+        return ConnectionProvider.builder("github")
+                .maxConnections(settings.maxConnections())
+                .pendingAcquireMaxCount(settings.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(settings.pendingAcquireTimeout())
+                .maxIdleTime(settings.maxIdleTime())
+                .maxLifeTime(settings.maxLifeTime())
+                .evictInBackground(settings.maxIdleTime())
+                .lifo()
+                .metrics(true)
+                .build();
+    }
+
+    public static HttpClient create(ConnectionProvider connectionProvider, HttpClientSettings settings, URI baseUrl) {
+        long writeTimeoutMillis = settings.writeTimeout().toMillis();
+        HttpClient client = HttpClient.create(connectionProvider)
+                .compress(settings.compression())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.connectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(settings.responseTimeout())
+                .doOnRequest((request, connection) ->
+                        connection.addHandlerLast(new WriteTimeoutHandler(writeTimeoutMillis, TimeUnit.MILLISECONDS)));
+        if (settings.http2() && "https".equalsIgnoreCase(baseUrl.getScheme())) {
+            client = client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+        return client;
+    }
+
+    /**
+     * Initializes the event loop and resolver and opens {@code connections} pooled connections with
+     * concurrent {@code GET /rate_limit} calls, which GitHub does not count against the quota. The calls go
+     * through the bare client rather than the WebClient, so they neither select a token nor reach the
+     * limiter, circuit breaker or caches as if they were GitHub traffic. Failures are logged and ignored.
+     */
+    public static Mono<Long> warmUp(HttpClient httpClient, URI baseUrl, int connections, Duration timeout) {
+        if (connections <= 0) {
+            return httpClient.warmup().then(Mono.just(0L));
+        }
+        HttpClient client = httpClient.baseUrl(baseUrl.toString());
+        return httpClient.warmup()
+                .thenMany(Flux.range(0, connections)
+                        .flatMap(i -> client.get()
+                                .uri("/rate_limit")
+                                .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                                .onErrorResume(e -> {
+                                    logger.debug("Connection warm-up request failed: {}", e.toString());
+                                    return Mono.empty();
+                                }), connections))
+                .count()
+                .timeout(timeout, Mono.just(0L))
+                .doOnNext(warmed -> logger.info("Warmed up {} of {} GitHub connections", warmed, connections));
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.gitinfofetcher.client;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.domain.GitHubRepository;
+import com.example.gitinfofetcher.domain.GitHubUser;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Decodes GitHub repository and branch lists straight from the response {@code DataBuffer}s with Jackson's
+ * non-blocking parser. Only {@code name}, {@code owner.login}, {@code fork}, {@code default_branch} and
+ * {@code pushed_at} of a repository and {@code name} and {@code commit.sha} of a branch are read; every other
+ * value is stepped over token by token without being turned into a String, tree or token buffer, and the
+ * domain records are built directly. Any other target type is left to the default Jackson decoder.
+ */
+public class GitHubJsonDecoder implements Decoder<Object> {
+
+    private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+
+    private final JsonFactory jsonFactory;
+
+    public GitHubJsonDecoder(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+        Class<?> type = elementType.resolve();
+        return (type == GitHubRepository.class || type == GitHubBranch.class)
+                && (mimeType == null || MIME_TYPES.stream().anyMatch(supported -> supported.isCompatibleWith(mimeType)));
+    }
+
+    @Override
+    public Flux<Object> decode(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        Supplier<ElementBinder> binder = elementType.resolve() == GitHubRepository.class ? RepositoryBinder::new : BranchBinder::new;
+        return Flux.defer(() -> {
+            StreamingReader reader;
+            try {
+                reader = new StreamingReader(jsonFactory.createNonBlockingByteBufferParser(), binder.get());
+            } catch (IOException e) {
+                return Flux.error(new DecodingException("Could not create JSON parser", e));
+            }
+            return Flux.from(input)
+                    .concatMapIterable(reader::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(reader.endOfInput())))
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        });
+    }
+
+    @Override
+    public Mono<Object> decodeToMono(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        return decode(input, elementType, mimeType, hints).singleOrEmpty();
+    }
+
+    @Override
+    public List<MimeType> getDecodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    /**
+     * Tracks where the parser is relative to the current element: depth 1 is the element object itself,
+     * depth 2 one of its nested objects. Values the binder does not ask for are skipped by counting
+     * structural tokens until the subtree closes.
+     */
+    private static final class StreamingReader {
+
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+        private final ElementBinder binder;
+        private boolean started;
+        private boolean arrayOpen;
+        private int depth;
+        private int skipping;
+        private String field;
+        private String nestedObject;
+
+        StreamingReader(JsonParser parser, ElementBinder binder) {
+            this.parser = parser;
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+            this.binder = binder;
+        }
+
+        List<Object> feed(DataBuffer buffer) {
+            List<Object> elements = new ArrayList<>();
+            try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                while (chunks.hasNext()) {
+                    ByteBuffer chunk = chunks.next();
+                    feeder.feedInput(chunk);
+                    drain(elements);
+                }
+            } catch (IOException e) {
+                throw new DecodingException("JSON decoding error: " + e.getMessage(), e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+            return elements;
+        }
+
+        List<Object> endOfInput() {
+            List<Object> elements = new ArrayList<>();
+            feeder.endOfInput();
+            try {
+                drain(elements);
+            } catch (IOException e) {
+                throw new DecodingException("JSON decoding error: " + e.getMessage(), e);
+            }
+            if (arrayOpen || depth != 0 || skipping != 0) {
+                throw new DecodingException("Unexpected end of JSON input");
+            }
+            return elements;
+        }
+
+        private void drain(List<Object> elements) throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                Object element = accept(token);
+                if (element != null) {
+                    elements.add(element);
+                }
+            }
+        }
+
+        private Object accept(JsonToken token) throws IOException {
+            if (skipping > 0) {
+                if (token.isStructStart()) {
+                    skipping++;
+                } else if (token.isStructEnd()) {
+                    skipping--;
+                }
+                return null;
+            }
+            if (!started) {
+                started = true;
+                if (token == JsonToken.START_ARRAY) {
+                    arrayOpen = true;
+                    return null;
+                }
+            }
+            switch (token) {
+                case START_OBJECT -> {
+                    if (depth == 0) {
+                        binder.start();
+                        depth = 1;
+                    } else if (depth == 1 && binder.readsNested(field)) {
+                        nestedObject = field;
+                        depth = 2;
+                    } else {
+                        skipping = 1;
+                    }
+                }
+                case START_ARRAY -> {
+                    if (depth == 0) {
+                        throw new DecodingException("Expected a JSON object but found a nested array");
+                    }
+                    skipping = 1;
+                }
+                case END_OBJECT -> {
+                    if (depth == 2) {
+                        nestedObject = null;
+                        depth = 1;
+                    } else if (depth == 1) {
+                        depth = 0;
+                        return binder.finish();
+                    }
+                }
+                case END_ARRAY -> arrayOpen = false;
+                case FIELD_NAME -> field = parser.currentName();
+                default -> {
+                    if (depth == 0) {
+                        throw new DecodingException("Expected a JSON object but found " + token);
+                    }
+                    binder.value(nestedObject, field, token, parser);
+                }
+            }
+            return null;
+        }
+    }
+
+    private interface ElementBinder {
+
+        void start();
+
+        boolean readsNested(String field);
+
+        void value(String nestedObject, String field, JsonToken token, JsonParser parser) throws IOException;
+
+        Object finish();
+    }
+
+    private static final class RepositoryBinder implements ElementBinder {
+
+        private String name;
+        private String ownerLogin;
+        private boolean hasOwner;
+        private boolean fork;
+        private String defaultBranch;
+        private String pushedAt;
+
+        @Override
+        public void start() {
+            name = null;
+            ownerLogin = null;
+            hasOwner = false;
+            fork = false;
+            defaultBranch = null;
+            pushedAt = null;
+        }
+
+        @Override
+        public boolean readsNested(String field) {
+            if ("owner".equals(field)) {
+                hasOwner = true;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void value(String nestedObject, String field, JsonToken token, JsonParser parser) throws IOException {
+            if (nestedObject == null) {
+                if ("name".equals(field)) {
+                    name = textOf(token, parser);
+                } else if ("fork".equals(field)) {
+                    fork = token == JsonToken.VALUE_TRUE;
+                } else if ("default_branch".equals(field)) {
+                    defaultBranch = textOf(token, parser);
+                } else if ("pushed_at".equals(field)) {
+                    pushedAt = textOf(token, parser);
+                }
+            } else if ("login".equals(field)) {
+                ownerLogin = textOf(token, parser);
+            }
+        }
+
+        @Override
+        public Object finish() {
+            return new GitHubRepository(name, hasOwner ? new GitHubUser(ownerLogin) : null, fork, null, defaultBranch,
+                    pushedAt != null ? parseInstant(pushedAt) : null);
+        }
+    }
+
+    private static final class BranchBinder implements ElementBinder {
+
+        private String name;
+        private String sha;
+        private boolean hasCommit;
+
+        @Override
+        public void start() {
+            name = null;
+            sha = null;
+            hasCommit = false;
+        }
+
+        @Override
+        public boolean readsNested(String field) {
+            if ("commit".equals(field)) {
+                hasCommit = true;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void value(String nestedObject, String field, JsonToken token, JsonParser parser) throws IOException {
+            if (nestedObject == null) {
+                if ("name".equals(field)) {
+                    name = textOf(token, parser);
+                }
+            } else if ("sha".equals(field)) {
+                sha = textOf(token, parser);
+            }
+        }
+
+        @Override
+        public Object finish() {
+            return new GitHubBranch(name, hasCommit ? new GitHubCommit(sha) : null);
+        }
+    }
+
+    private static Instant parseInstant(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new DecodingException("Invalid timestamp: " + value, e);
+        }
+    }
+
+    private static String textOf(JsonToken token, JsonParser parser) throws IOException {
+        return token == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.gitinfofetcher.client;
+
+import java.time.Duration;
+
+/**
+ * Connection pool, protocol and timeout settings of the Reactor Netty client used for GitHub.
+ */
+public record HttpClientSettings(int maxConnections,
+                                 int pendingAcquireMaxCount,
+                                 Duration pendingAcquireTimeout,
+                                 Duration maxIdleTime,
+                                 Duration maxLifeTime,
+                                 boolean http2,
+                                 boolean compression,
+                                 Duration connectTimeout,
+                                 Duration responseTimeout,
+                                 Duration writeTimeout) {
+}
@@ -0,0 +1,50 @@
+package com.example.gitinfofetcher.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Latency percentile over the most recent {@code capacity} samples. The percentile is recomputed every
+ * {@link #RECOMPUTE_EVERY} samples rather than on every read.
+ */
+class LatencyTracker {
+
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minSamples;
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private long cachedNanos = -1;
+
+    LatencyTracker(int capacity, double percentile, int minSamples) {
+        this.samples = new long[capacity];
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        sinceRecompute++;
+    }
+
+    /**
+     * The tracked percentile, or {@code null} until {@code minSamples} latencies have been recorded.
+     */
+    synchronized Duration percentile() {
+        if (count < minSamples) {
+            return null;
+        }
+        if (cachedNanos < 0 || sinceRecompute >= RECOMPUTE_EVERY) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            cachedNanos = sorted[Math.min(count - 1, (int) Math.ceil(count * percentile) - 1)];
+            sinceRecompute = 0;
+        }
+        return Duration.ofNanos(cachedNanos);
+    }
+}
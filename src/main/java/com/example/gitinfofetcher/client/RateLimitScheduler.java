@@ -0,0 +1,256 @@
+package com.example.gitinfofetcher.client;
+
+import com.example.gitinfofetcher.exceptions.RateLimitExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Tracks GitHub's {@code X-RateLimit-*} and {@code Retry-After} headers from every upstream response and
+ * schedules outgoing requests against the remaining quota. Requests run immediately while the quota is
+ * healthy, are spread evenly until the reset time once it drops below the pacing threshold, and wait for
+ * the reset when it is exhausted. A request that would have to wait longer than {@code maxWait} fails
+ * with {@link RateLimitExceededException}.
+ * <p>
+ * Replicas that share a token see the same quota. Each replica schedules against its {@code budgetShare} of
+ * the remaining quota, so together they pace against the whole of it.
+ */
+public class RateLimitScheduler implements ExchangeFilterFunction, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitScheduler.class);
+
+    static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    static final String RESET_HEADER = "X-RateLimit-Reset";
+
+    private final Duration maxWait;
+    private final double pacingThreshold;
+    private final Clock clock;
+    private final DoubleSupplier budgetShare;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private int limit = -1;
+    private int remaining = -1;
+    private int inFlight;
+    private Instant resetAt = Instant.EPOCH;
+    private Instant pausedUntil = Instant.EPOCH;
+    private Instant nextSlot = Instant.EPOCH;
+    private Instant windowStart;
+    private int remainingAtWindowStart = -1;
+
+    public RateLimitScheduler(Duration maxWait, double pacingThreshold, Clock clock) {
+        this(maxWait, pacingThreshold, clock, () -> 1.0);
+    }
+
+    public RateLimitScheduler(Duration maxWait, double pacingThreshold, Clock clock, DoubleSupplier budgetShare) {
+        this.maxWait = maxWait;
+        this.pacingThreshold = pacingThreshold;
+        this.clock = clock;
+        this.budgetShare = budgetShare;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return schedule(request, next, true);
+    }
+
+    private Mono<ClientResponse> schedule(ClientRequest request, ExchangeFunction next, boolean retryWhenLimited) {
+        return Mono.defer(() -> {
+            Duration wait;
+            try {
+                wait = reserve();
+            } catch (RateLimitExceededException e) {
+                return Mono.error(e);
+            }
+            Mono<ClientResponse> exchange = next.exchange(request).doOnNext(this::record);
+            if (!wait.isZero() && !wait.isNegative()) {
+                logger.debug("Delaying {} by {} to stay within the GitHub rate limit", request.url(), wait);
+                queued.incrementAndGet();
+                exchange = Mono.delay(wait)
+                        .doFinally(signal -> queued.decrementAndGet())
+                        .then(exchange);
+            }
+            return exchange
+                    .doFinally(signal -> release())
+                    .flatMap(response -> {
+                        if (!retryWhenLimited || !isRateLimited(response)) {
+                            return Mono.just(response);
+                        }
+                        logger.warn("GitHub rate limit hit for {}, rescheduling", request.url());
+                        return response.releaseBody().then(schedule(request, next, false));
+                    });
+        });
+    }
+
+    private synchronized Duration reserve() {
+        Instant now = clock.instant();
+        if (!resetAt.isAfter(now) && remaining >= 0) {
+            remaining = limit;
+        }
+        Instant start = now;
+        if (pausedUntil.isAfter(start)) {
+            start = pausedUntil;
+        }
+        double share = share();
+        int available = (int) (remaining * share) - inFlight;
+        if (remaining >= 0 && resetAt.isAfter(now)) {
+            if (available <= 0) {
+                start = max(start, resetAt);
+            } else if (available <= limit * share * pacingThreshold) {
+                Duration interval = Duration.between(now, resetAt).dividedBy(available);
+                start = max(start, nextSlot);
+                nextSlot = start.plus(interval);
+            }
+        }
+        Duration wait = Duration.between(now, start);
+        if (wait.compareTo(maxWait) > 0) {
+            throw new RateLimitExceededException("GitHub API rate limit exhausted until " + start, start);
+        }
+        inFlight++;
+        return wait;
+    }
+
+    private synchronized void release() {
+        inFlight--;
+    }
+
+    private synchronized void record(ClientResponse response) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        Instant now = clock.instant();
+        Integer newLimit = intHeader(headers, LIMIT_HEADER);
+        Integer newRemaining = intHeader(headers, REMAINING_HEADER);
+        Integer reset = intHeader(headers, RESET_HEADER);
+        if (newLimit != null) {
+            limit = newLimit;
+        }
+        if (reset != null) {
+            Instant newResetAt = Instant.ofEpochSecond(reset);
+            if (!newResetAt.equals(resetAt)) {
+                windowStart = now;
+                remainingAtWindowStart = newRemaining != null ? newRemaining : -1;
+                nextSlot = now;
+            }
+            resetAt = newResetAt;
+        }
+        if (newRemaining != null) {
+            remaining = newRemaining;
+            if (remainingAtWindowStart < 0) {
+                windowStart = now;
+                remainingAtWindowStart = newRemaining;
+            }
+        }
+        Integer retryAfter = intHeader(headers, HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            pausedUntil = max(pausedUntil, now.plusSeconds(retryAfter));
+        }
+    }
+
+    private boolean isRateLimited(ClientResponse response) {
+        int status = response.statusCode().value();
+        if (status != HttpStatus.FORBIDDEN.value() && status != HttpStatus.TOO_MANY_REQUESTS.value()) {
+            return false;
+        }
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        return "0".equals(headers.getFirst(REMAINING_HEADER)) || headers.containsKey(HttpHeaders.RETRY_AFTER);
+    }
+
+    /**
+     * The fraction of the quota this instance schedules against, between 0 and 1.
+     */
+    public double share() {
+        double share = budgetShare.getAsDouble();
+        return share > 0 && share <= 1 ? share : 1.0;
+    }
+
+    public int queueDepth() {
+        return queued.get();
+    }
+
+    public synchronized int remaining() {
+        return remaining;
+    }
+
+    public synchronized int limit() {
+        return limit;
+    }
+
+    /**
+     * Fraction of the hourly quota still available, or {@code NaN} before GitHub has reported a limit.
+     */
+    public synchronized double headroom() {
+        return limit > 0 && remaining >= 0 ? (double) remaining / limit : Double.NaN;
+    }
+
+    /**
+     * Seconds until the quota is used up at the consumption rate observed in the current window, or
+     * {@code NaN} when the current rate does not exhaust it before the reset.
+     */
+    public synchronized double secondsUntilPredictedExhaustion() {
+        Instant now = clock.instant();
+        if (remaining < 0 || windowStart == null || !resetAt.isAfter(now)) {
+            return Double.NaN;
+        }
+        double elapsed = Duration.between(windowStart, now).toMillis() / 1000.0;
+        int consumed = remainingAtWindowStart - remaining;
+        if (remaining == 0) {
+            return 0;
+        }
+        if (elapsed <= 0 || consumed <= 0) {
+            return Double.NaN;
+        }
+        double seconds = remaining / (consumed / elapsed);
+        return seconds < Duration.between(now, resetAt).getSeconds() ? seconds : Double.NaN;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("github.ratelimit.queue.depth", this, RateLimitScheduler::queueDepth)
+                .description("Upstream requests waiting for rate-limit budget")
+                .register(registry);
+        Gauge.builder("github.ratelimit.remaining", this, RateLimitScheduler::remaining)
+                .register(registry);
+        Gauge.builder("github.ratelimit.limit", this, RateLimitScheduler::limit)
+                .register(registry);
+        Gauge.builder("github.ratelimit.share", this, RateLimitScheduler::share)
+                .description("Fraction of the rate-limit quota this replica schedules against")
+                .register(registry);
+        Gauge.builder("github.ratelimit.headroom", this, RateLimitScheduler::headroom)
+                .description("Fraction of the rate-limit quota still available")
+                .register(registry);
+        Gauge.builder("github.ratelimit.exhaustion.predicted", this, RateLimitScheduler::secondsUntilPredictedExhaustion)
+                .description("Seconds until the quota runs out at the current consumption rate")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    private static Integer intHeader(HttpHeaders headers, String name) {
+        String value = headers.getFirst(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.gitinfofetcher.client;
+
+import com.example.gitinfofetcher.exceptions.CircuitOpenException;
+import com.example.gitinfofetcher.exceptions.RateLimitExceededException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Guards every upstream call with a circuit breaker per GitHub endpoint, retries idempotent requests that
+ * failed with a 5xx, a connection error or a timeout after a jittered exponential backoff, and hedges
+ * idempotent requests that run longer than the endpoint's recent p95 with a duplicate, taking whichever
+ * answers first. Retries and hedges share a {@link RetryBudget}, so a struggling GitHub sees at most a
+ * fixed fraction of extra traffic. Rate-limit rejections are neither retried nor counted as failures.
+ */
+public class ResilienceFilter implements ExchangeFilterFunction, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceFilter.class);
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(500, 502, 503, 504);
+    private static final int LATENCY_SAMPLES = 256;
+    private static final int MIN_LATENCY_SAMPLES = 32;
+
+    private final ResilienceSettings settings;
+    private final RetryBudget budget;
+    private final Map<String, Endpoint> endpoints;
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ResilienceFilter(ResilienceSettings settings, Clock clock) {
+        this.settings = settings;
+        this.budget = new RetryBudget(settings.retryBudgetRatio(), settings.retryBudgetReserve());
+        this.endpoints = Map.of(
+                GitHubClientObservationConvention.REPOSITORIES, new Endpoint(settings, clock),
+                GitHubClientObservationConvention.BRANCHES, new Endpoint(settings, clock),
+                GitHubClientObservationConvention.GRAPHQL, new Endpoint(settings, clock),
+                GitHubClientObservationConvention.OTHER, new Endpoint(settings, clock));
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String name = GitHubClientObservationConvention.endpoint(request.url().getRawPath());
+        Endpoint endpoint = endpoints.get(name);
+        boolean idempotent = request.method() == HttpMethod.GET || request.method() == HttpMethod.HEAD;
+        return Mono.defer(() -> {
+            budget.deposit();
+            return attempt(request, next, name, endpoint, idempotent, 1);
+        });
+    }
+
+    private Mono<ClientResponse> attempt(ClientRequest request, ExchangeFunction next, String name, Endpoint endpoint,
+                                         boolean idempotent, int attempt) {
+        return Mono.defer(() -> {
+            if (!endpoint.breaker.tryAcquire()) {
+                rejected.incrementAndGet();
+                return Mono.error(new CircuitOpenException("Circuit for GitHub endpoint " + name + " is open",
+                        endpoint.breaker.retryAt()));
+            }
+            Mono<ClientResponse> exchange = idempotent && settings.hedge()
+                    ? hedged(request, next, endpoint)
+                    : timed(next.exchange(request), endpoint);
+            return exchange
+                    .map(Outcome::of)
+                    .onErrorResume(error -> Mono.just(Outcome.failed(error)))
+                    .doOnCancel(endpoint.breaker::onIgnored)
+                    .flatMap(outcome -> {
+                        if (outcome.error() instanceof RateLimitExceededException || outcome.error() != null && !outcome.isFailure()) {
+                            endpoint.breaker.onIgnored();
+                            return outcome.toMono();
+                        }
+                        if (!outcome.isFailure()) {
+                            endpoint.breaker.onSuccess();
+                            return outcome.toMono();
+                        }
+                        endpoint.breaker.onFailure();
+                        if (!idempotent || attempt >= settings.maxAttempts()) {
+                            return outcome.toMono();
+                        }
+                        if (!budget.tryWithdraw()) {
+                            budgetExhausted.incrementAndGet();
+                            return outcome.toMono();
+                        }
+                        retries.incrementAndGet();
+                        Duration backoff = backoff(attempt);
+                        logger.debug("Retrying {} in {} after attempt {} failed", request.url(), backoff, attempt);
+                        return outcome.release()
+                                .then(Mono.delay(backoff))
+                                .then(attempt(request, next, name, endpoint, idempotent, attempt + 1));
+                    });
+        });
+    }
+
+    /**
+     * Sends a duplicate once the primary has been running for the endpoint's tracked percentile. Until
+     * enough latencies are known there is no baseline and nothing is hedged. A hedge that fails is dropped
+     * so it cannot beat a primary that is still going to succeed.
+     */
+    private Mono<ClientResponse> hedged(ClientRequest request, ExchangeFunction next, Endpoint endpoint) {
+        Duration percentile = endpoint.latency.percentile();
+        if (percentile == null) {
+            return timed(next.exchange(request), endpoint);
+        }
+        Duration delay = percentile.compareTo(settings.hedgeMinDelay()) > 0 ? percentile : settings.hedgeMinDelay();
+        AtomicBoolean claimed = new AtomicBoolean();
+        Mono<ClientResponse> primary = claim(timed(next.exchange(request), endpoint), claimed);
+        Mono<ClientResponse> hedge = Mono.delay(delay)
+                .flatMap(tick -> {
+                    if (!budget.tryWithdraw()) {
+                        budgetExhausted.incrementAndGet();
+                        return Mono.empty();
+                    }
+                    hedges.incrementAndGet();
+                    return next.exchange(request);
+                })
+                .flatMap(response -> RETRYABLE_STATUSES.contains(response.statusCode().value())
+                        ? response.releaseBody().then(Mono.<ClientResponse>empty())
+                        : Mono.just(response))
+                .onErrorResume(error -> Mono.empty())
+                .transform(response -> claim(response, claimed))
+                .doOnNext(response -> hedgeWins.incrementAndGet());
+        return Flux.merge(primary, hedge).next();
+    }
+
+    /**
+     * Records how long the primary took, including when it loses to a hedge and is cancelled, so slow
+     * calls keep pulling the percentile up instead of disappearing from it.
+     */
+    private static Mono<ClientResponse> timed(Mono<ClientResponse> exchange, Endpoint endpoint) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return exchange
+                    .doOnNext(response -> endpoint.latency.record(System.nanoTime() - start))
+                    .doOnCancel(() -> endpoint.latency.record(System.nanoTime() - start));
+        });
+    }
+
+    private static Mono<ClientResponse> claim(Mono<ClientResponse> response, AtomicBoolean claimed) {
+        return response.flatMap(value -> claimed.compareAndSet(false, true)
+                ? Mono.just(value)
+                : value.releaseBody().then(Mono.empty()));
+    }
+
+    private Duration backoff(int attempt) {
+        long ceiling = settings.retryBackoff().toNanos() << Math.min(attempt - 1, 20);
+        return Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    public long retries() {
+        return retries.get();
+    }
+
+    public long hedges() {
+        return hedges.get();
+    }
+
+    public long hedgeWins() {
+        return hedgeWins.get();
+    }
+
+    public long budgetExhausted() {
+        return budgetExhausted.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Whether the breaker of the given endpoint, one of the {@link GitHubClientObservationConvention}
+     * endpoint names, currently rejects calls.
+     */
+    public boolean isOpen(String endpoint) {
+        return endpoints.get(endpoint).breaker.state() == CircuitBreaker.State.OPEN;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("github.resilience.retries", this, ResilienceFilter::retries)
+                .register(registry);
+        FunctionCounter.builder("github.resilience.hedges", this, ResilienceFilter::hedges)
+                .description("Duplicate requests sent for slow upstream calls")
+                .register(registry);
+        FunctionCounter.builder("github.resilience.hedges.won", this, ResilienceFilter::hedgeWins)
+                .register(registry);
+        FunctionCounter.builder("github.resilience.budget.exhausted", this, ResilienceFilter::budgetExhausted)
+                .description("Retries and hedges skipped because the retry budget was spent")
+                .register(registry);
+        FunctionCounter.builder("github.resilience.rejected", this, ResilienceFilter::rejected)
+                .description("Upstream calls rejected by an open circuit")
+                .register(registry);
+        Gauge.builder("github.resilience.budget.tokens", budget, RetryBudget::tokens)
+                .register(registry);
+        endpoints.forEach((name, endpoint) -> Gauge.builder("github.resilience.breaker.state", endpoint.breaker,
+                        breaker -> breaker.state().ordinal())
+                .description("0 closed, 1 open, 2 half-open")
+                .tag("uri", name)
+                .register(registry));
+    }
+
+    private static final class Endpoint {
+
+        private final CircuitBreaker breaker;
+        private final LatencyTracker latency;
+
+        private Endpoint(ResilienceSettings settings, Clock clock) {
+            this.breaker = new CircuitBreaker(settings.breakerWindow(), settings.breakerFailureRate(),
+                    settings.breakerOpenFor(), clock);
+            this.latency = new LatencyTracker(LATENCY_SAMPLES, settings.hedgePercentile(), MIN_LATENCY_SAMPLES);
+        }
+    }
+
+    /**
+     * The result of a single attempt, kept as a value so that a later attempt's error is not mistaken for
+     * this one's.
+     */
+    private record Outcome(ClientResponse response, Throwable error) {
+
+        static Outcome of(ClientResponse response) {
+            return new Outcome(response, null);
+        }
+
+        static Outcome failed(Throwable error) {
+            return new Outcome(null, error);
+        }
+
+        boolean isFailure() {
+            if (response != null) {
+                return RETRYABLE_STATUSES.contains(response.statusCode().value());
+            }
+            return error instanceof WebClientRequestException || error instanceof TimeoutException;
+        }
+
+        Mono<ClientResponse> toMono() {
+            return response != null ? Mono.just(response) : Mono.error(error);
+        }
+
+        Mono<Void> release() {
+            return response != null ? response.releaseBody() : Mono.empty();
+        }
+    }
+}
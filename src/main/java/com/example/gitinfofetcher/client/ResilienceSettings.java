@@ -0,0 +1,18 @@
+package com.example.gitinfofetcher.client;
+
+import java.time.Duration;
+
+/**
+ * Retry, hedging and circuit breaker settings of the upstream GitHub calls.
+ */
+public record ResilienceSettings(int maxAttempts,
+                                 Duration retryBackoff,
+                                 double retryBudgetRatio,
+                                 int retryBudgetReserve,
+                                 boolean hedge,
+                                 Duration hedgeMinDelay,
+                                 double hedgePercentile,
+                                 int breakerWindow,
+                                 double breakerFailureRate,
+                                 Duration breakerOpenFor) {
+}
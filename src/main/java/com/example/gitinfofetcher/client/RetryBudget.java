@@ -0,0 +1,35 @@
+package com.example.gitinfofetcher.client;
+
+/**
+ * Caps retries and hedged requests at a fraction of the original requests. Every request deposits
+ * {@code ratio} of a token, every retry withdraws a whole one, and at most {@code reserve} tokens are kept,
+ * which is also the burst of retries allowed after a quiet period.
+ */
+class RetryBudget {
+
+    private final double ratio;
+    private final double reserve;
+    private double tokens;
+
+    RetryBudget(double ratio, int reserve) {
+        this.ratio = ratio;
+        this.reserve = reserve;
+        this.tokens = reserve;
+    }
+
+    synchronized void deposit() {
+        tokens = Math.min(reserve, tokens + ratio);
+    }
+
+    synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    synchronized double tokens() {
+        return tokens;
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.gitinfofetcher.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spreads upstream requests over several GitHub tokens. Every request is sent with the token that has the
+ * most quota left according to its latest {@code X-RateLimit-*} headers, less the requests it already has
+ * in flight. A token whose quota is used up, or that got a {@code Retry-After}, is put into cooldown until
+ * its reset time, and a request rejected with a rate-limit response is sent again with the next token.
+ * <p>
+ * The rate-limit headers passed on to the filters above describe the pool as a whole, so
+ * {@link RateLimitScheduler} paces against the combined quota and only waits once every token is cooling
+ * down.
+ */
+public class TokenPool implements ExchangeFilterFunction, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenPool.class);
+
+    /** Quota assumed for a token before GitHub has reported one, GitHub's limit for an authenticated user. */
+    static final int ASSUMED_LIMIT = 5000;
+
+    private final List<Token> tokens;
+    private final Clock clock;
+
+    public TokenPool(List<String> tokens, Clock clock) {
+        this.tokens = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            this.tokens.add(new Token("token-" + this.tokens.size(), token));
+        }
+        this.clock = clock;
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (tokens.isEmpty()) {
+            return next.exchange(request);
+        }
+        return send(request, next, tokens.size() - 1);
+    }
+
+    private Mono<ClientResponse> send(ClientRequest request, ExchangeFunction next, int retriesLeft) {
+        return Mono.defer(() -> {
+            Token token = acquire();
+            ClientRequest authorized = ClientRequest.from(request)
+                    .headers(headers -> headers.setBearerAuth(token.secret))
+                    .build();
+            return next.exchange(authorized)
+                    .doFinally(signal -> release(token))
+                    .flatMap(response -> {
+                        boolean limited = record(token, response);
+                        if (limited && retriesLeft > 0 && hasAvailableToken()) {
+                            logger.debug("{} is rate limited, sending {} with another token", token.label, request.url());
+                            return response.releaseBody().then(send(request, next, retriesLeft - 1));
+                        }
+                        return Mono.just(withPoolHeaders(response));
+                    });
+        });
+    }
+
+    private synchronized Token acquire() {
+        Instant now = clock.instant();
+        Token best = null;
+        for (Token token : tokens) {
+            token.refresh(now);
+            if (best == null || token.score(now) > best.score(now)
+                    || token.score(now) == best.score(now) && token.cooldownUntil.isBefore(best.cooldownUntil)) {
+                best = token;
+            }
+        }
+        best.inFlight++;
+        best.requests++;
+        return best;
+    }
+
+    private synchronized void release(Token token) {
+        token.inFlight--;
+    }
+
+    private synchronized boolean hasAvailableToken() {
+        Instant now = clock.instant();
+        return tokens.stream().anyMatch(token -> !token.coolingDown(now));
+    }
+
+    /**
+     * Updates the token from the response headers and returns whether the response is a rate-limit
+     * rejection.
+     */
+    private synchronized boolean record(Token token, ClientResponse response) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        Instant now = clock.instant();
+        Integer limit = intHeader(headers, RateLimitScheduler.LIMIT_HEADER);
+        Integer remaining = intHeader(headers, RateLimitScheduler.REMAINING_HEADER);
+        Integer reset = intHeader(headers, RateLimitScheduler.RESET_HEADER);
+        Instant previousCooldown = token.cooldownUntil;
+        if (limit != null) {
+            token.limit = limit;
+        }
+        if (reset != null) {
+            token.resetAt = Instant.ofEpochSecond(reset);
+        }
+        if (remaining != null) {
+            token.remaining = remaining;
+            if (remaining == 0 && token.resetAt.isAfter(now)) {
+                token.cooldownUntil = max(token.cooldownUntil, token.resetAt);
+            }
+        }
+        Integer retryAfter = intHeader(headers, HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            token.cooldownUntil = max(token.cooldownUntil, now.plusSeconds(retryAfter));
+        }
+        int status = response.statusCode().value();
+        boolean limited = (status == HttpStatus.FORBIDDEN.value() || status == HttpStatus.TOO_MANY_REQUESTS.value())
+                && (Integer.valueOf(0).equals(remaining) || retryAfter != null);
+        if (limited) {
+            token.rejections++;
+        }
+        if (!token.cooldownUntil.equals(previousCooldown) && token.cooldownUntil.isAfter(now)) {
+            logger.info("{} cools down until {}", token.label, token.cooldownUntil);
+        }
+        return limited;
+    }
+
+    /**
+     * Replaces the token's own rate-limit headers with the combined quota of the pool. While any token is
+     * usable the reset is the latest one of the pool; once all are cooling down it is the earliest time one
+     * of them becomes usable again.
+     */
+    private synchronized ClientResponse withPoolHeaders(ClientResponse response) {
+        Instant now = clock.instant();
+        long limit = 0;
+        long remaining = 0;
+        Instant latestReset = null;
+        Instant earliestUsable = null;
+        for (Token token : tokens) {
+            token.refresh(now);
+            limit += token.limit >= 0 ? token.limit : ASSUMED_LIMIT;
+            if (token.coolingDown(now)) {
+                earliestUsable = earliestUsable == null || token.cooldownUntil.isBefore(earliestUsable) ? token.cooldownUntil : earliestUsable;
+            } else {
+                remaining += token.remaining >= 0 ? token.remaining : ASSUMED_LIMIT;
+                if (token.resetAt.isAfter(now) && (latestReset == null || token.resetAt.isAfter(latestReset))) {
+                    latestReset = token.resetAt;
+                }
+            }
+        }
+        Instant reset = remaining == 0 ? earliestUsable : latestReset;
+        long poolLimit = limit;
+        long poolRemaining = remaining;
+        return response.mutate()
+                .headers(headers -> {
+                    headers.set(RateLimitScheduler.LIMIT_HEADER, String.valueOf(poolLimit));
+                    headers.set(RateLimitScheduler.REMAINING_HEADER, String.valueOf(poolRemaining));
+                    if (reset != null) {
+                        headers.set(RateLimitScheduler.RESET_HEADER, String.valueOf(reset.getEpochSecond()));
+                    } else {
+                        headers.remove(RateLimitScheduler.RESET_HEADER);
+                    }
+                    headers.remove(HttpHeaders.RETRY_AFTER);
+                })
+                .build();
+    }
+
+    synchronized int remaining(int index) {
+        Token token = tokens.get(index);
+        token.refresh(clock.instant());
+        return token.remaining;
+    }
+
+    synchronized boolean coolingDown(int index) {
+        return tokens.get(index).coolingDown(clock.instant());
+    }
+
+    synchronized long requests(int index) {
+        return tokens.get(index).requests;
+    }
+
+    private synchronized int limit(int index) {
+        return tokens.get(index).limit;
+    }
+
+    private synchronized long rejections(int index) {
+        return tokens.get(index).rejections;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int i = 0; i < tokens.size(); i++) {
+            int index = i;
+            String label = tokens.get(i).label;
+            Gauge.builder("github.tokens.remaining", this, pool -> pool.remaining(index))
+                    .description("Requests left in the token's rate-limit window, -1 before GitHub reported it")
+                    .tag("token", label)
+                    .register(registry);
+            Gauge.builder("github.tokens.limit", this, pool -> pool.limit(index))
+                    .tag("token", label)
+                    .register(registry);
+            Gauge.builder("github.tokens.cooldown", this, pool -> pool.coolingDown(index) ? 1 : 0)
+                    .description("Whether the token is cooling down until its rate limit resets")
+                    .tag("token", label)
+                    .register(registry);
+            FunctionCounter.builder("github.tokens.requests", this, pool -> pool.requests(index))
+                    .description("Upstream requests sent with the token")
+                    .tag("token", label)
+                    .register(registry);
+            FunctionCounter.builder("github.tokens.rejections", this, pool -> pool.rejections(index))
+                    .description("Rate-limit rejections received with the token")
+                    .tag("token", label)
+                    .register(registry);
+        }
+    }
+
+    private static Integer intHeader(HttpHeaders headers, String name) {
+        String value = headers.getFirst(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static final class Token {
+
+        private final String label;
+        private final String secret;
+        private int limit = -1;
+        private int remaining = -1;
+        private int inFlight;
+        private long requests;
+        private long rejections;
+        private Instant resetAt = Instant.EPOCH;
+        private Instant cooldownUntil = Instant.EPOCH;
+
+        private Token(String label, String secret) {
+            this.label = label;
+            this.secret = secret;
+        }
+
+        private void refresh(Instant now) {
+            if (remaining >= 0 && limit >= 0 && !resetAt.isAfter(now)) {
+                remaining = limit;
+            }
+        }
+
+        private boolean coolingDown(Instant now) {
+            return cooldownUntil.isAfter(now);
+        }
+
+        /**
+         * Quota left after the requests in flight. A cooling-down token scores below every usable one and is
+         * only picked when all of them cool down.
+         */
+        private long score(Instant now) {
+            if (coolingDown(now)) {
+                return Long.MIN_VALUE;
+            }
+            return (remaining >= 0 ? remaining : ASSUMED_LIMIT) - inFlight;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.gitinfofetcher.cluster;
+
+import reactor.core.publisher.Mono;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * State shared by the replicas of the service: assembled results, leases that let one replica fetch a user
+ * while the others wait for its result, and the set of live replicas among which the rate-limit budget is
+ * split. {@link LocalClusterCoordinator} keeps the state in this process; {@link HttpClusterCoordinator}
+ * keeps it in a {@link ClusterCoordinatorServer} that all replicas talk to.
+ */
+public interface ClusterCoordinator extends Closeable {
+
+    /**
+     * Announces that {@code nodeId} is alive and returns the number of replicas that announced themselves
+     * within the membership timeout, this one included.
+     */
+    Mono<Integer> heartbeat(String nodeId);
+
+    /**
+     * The shared result for {@code key}, empty if there is none.
+     */
+    Mono<SharedResult> get(String key);
+
+    Mono<Void> put(String key, SharedResult result);
+
+    /**
+     * Makes {@code nodeId} the replica that fetches {@code key} until it releases the lease or {@code ttl}
+     * passes. Emits {@code false} while another replica holds the lease.
+     */
+    Mono<Boolean> tryLease(String key, String nodeId, Duration ttl);
+
+    Mono<Void> release(String key, String nodeId);
+
+    /**
+     * A result for {@code key} fetched at or after {@code notBefore}, waiting up to {@code timeout} for the
+     * lease holder to publish one. Empty if the lease is released without a result or the wait times out.
+     */
+    Mono<SharedResult> await(String key, Instant notBefore, Duration timeout);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.gitinfofetcher.cluster;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the coordination state to {@link HttpClusterCoordinator} replicas over HTTP. Results are stored as
+ * the JSON the leading replica sent and returned as is. Any replica can host the server, or it can run on
+ * its own; state is kept in memory only, so a restarted server starts empty and replicas fetch from GitHub
+ * until results are shared again.
+ * <pre>
+ * PUT    /members/{node}                              heartbeat, answers the live member count
+ * GET    /results/{key}[?notBefore=ms&amp;waitMs=ms]       200 with the result, or 404 after the wait
+ * PUT    /results/{key}          X-Fetched-At: ms       store a result
+ * POST   /leases/{key}?node=..&amp;ttlMs=..                 200 when granted, 409 while another node holds it
+ * DELETE /leases/{key}?node=..                         release
+ * </pre>
+ * Every request must carry the shared secret in {@code X-Cluster-Secret}; others are answered 401. Any
+ * caller holding it can store results that every replica serves as GitHub data, so the server binds to
+ * loopback by default and its port must not be reachable from outside the deployment.
+ */
+public class ClusterCoordinatorServer implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterCoordinatorServer.class);
+
+    static final String FETCHED_AT_HEADER = "X-Fetched-At";
+    static final String SECRET_HEADER = "X-Cluster-Secret";
+    private static final Duration MAX_WAIT = Duration.ofSeconds(60);
+
+    private final ClusterState<byte[]> state;
+    private final byte[] secret;
+    private final DisposableServer server;
+
+    public ClusterCoordinatorServer(String host, int port, String secret, int maxEntries, Duration memberTimeout,
+                                    Clock clock) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("The cluster coordinator needs a shared secret");
+        }
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.state = new ClusterState<>(maxEntries, memberTimeout, clock);
+        this.server = HttpServer.create()
+                .host(host)
+                .port(port)
+                .route(routes -> routes
+                        .put("/members/{node}", guarded((request, response) -> response.sendString(
+                                Mono.just(String.valueOf(state.heartbeat(request.param("node")))))))
+                        .get("/results/{key}", guarded(this::getResult))
+                        .put("/results/{key}", guarded(this::putResult))
+                        .post("/leases/{key}", guarded(this::lease))
+                        .delete("/leases/{key}", guarded((request, response) -> {
+                            state.release(request.param("key"), required(query(request).get("node"), "node"));
+                            return response.status(HttpResponseStatus.NO_CONTENT).send();
+                        })))
+                .bindNow();
+        logger.info("Cluster coordinator listening on {}:{}", host, server.port());
+    }
+
+    public int port() {
+        return server.port();
+    }
+
+    int results() {
+        return state.size();
+    }
+
+    private Mono<Void> getResult(HttpServerRequest request, HttpServerResponse response) {
+        Map<String, String> query = query(request);
+        Instant notBefore = Instant.ofEpochMilli(number(query.getOrDefault("notBefore", "0"), "notBefore"));
+        Duration wait = Duration.ofMillis(number(query.getOrDefault("waitMs", "0"), "waitMs"));
+        Mono<ClusterState.Entry<byte[]>> entry = wait.isZero()
+                ? Mono.justOrEmpty(state.get(request.param("key"))).filter(found -> !found.fetchedAt().isBefore(notBefore))
+                : state.await(request.param("key"), found -> !found.fetchedAt().isBefore(notBefore), min(wait, MAX_WAIT));
+        return entry
+                .flatMap(found -> response
+                        .header(FETCHED_AT_HEADER, String.valueOf(found.fetchedAt().toEpochMilli()))
+                        .header("Content-Type", "application/json")
+                        .sendByteArray(Mono.just(found.value()))
+                        .then())
+                .switchIfEmpty(Mono.defer(() -> response.status(HttpResponseStatus.NOT_FOUND).send().then()));
+    }
+
+    private Mono<Void> putResult(HttpServerRequest request, HttpServerResponse response) {
+        String key = request.param("key");
+        Instant fetchedAt = Instant.ofEpochMilli(number(request.requestHeaders().get(FETCHED_AT_HEADER), FETCHED_AT_HEADER));
+        return request.receive().aggregate().asByteArray()
+                .doOnNext(body -> state.put(key, body, fetchedAt))
+                .then(response.status(HttpResponseStatus.NO_CONTENT).send());
+    }
+
+    private Mono<Void> lease(HttpServerRequest request, HttpServerResponse response) {
+        Map<String, String> query = query(request);
+        Duration ttl = Duration.ofMillis(number(query.get("ttlMs"), "ttlMs"));
+        boolean granted = state.tryLease(request.param("key"), required(query.get("node"), "node"), ttl);
+        return response.status(granted ? HttpResponseStatus.OK : HttpResponseStatus.CONFLICT).send();
+    }
+
+    /**
+     * Answers 401 to requests without the shared secret, and 400 to those whose parameters do not parse.
+     */
+    private BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> guarded(
+            BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> handler) {
+        return (request, response) -> {
+            String presented = request.requestHeaders().get(SECRET_HEADER);
+            if (presented == null || !MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8))) {
+                return response.status(HttpResponseStatus.UNAUTHORIZED).send();
+            }
+            try {
+                return handler.apply(request, response);
+            } catch (IllegalArgumentException e) {
+                return response.status(HttpResponseStatus.BAD_REQUEST).sendString(Mono.just(e.getMessage()));
+            }
+        };
+    }
+
+    private static long number(String value, String name) {
+        try {
+            return Long.parseLong(required(value, name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+    }
+
+    private static String required(String value, String name) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return value;
+    }
+
+    private static Map<String, String> query(HttpServerRequest request) {
+        Map<String, List<String>> parameters = new QueryStringDecoder(request.uri(), StandardCharsets.UTF_8).parameters();
+        return parameters.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, parameter -> parameter.getValue().get(0)));
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) < 0 ? a : b;
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
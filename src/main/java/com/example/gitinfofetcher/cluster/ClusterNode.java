@@ -0,0 +1,205 @@
+package com.example.gitinfofetcher.cluster;
+
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * This replica's view of the cluster. A lookup first takes a shared result younger than {@code maxAge};
+ * otherwise the replica that gets the lease for the user fetches from GitHub and publishes the complete
+ * result, while replicas asking at the same time wait up to {@code wait} for it instead of fetching too.
+ * Partial results are not shared. When the coordinator cannot be reached, or no result arrives in time,
+ * the replica fetches on its own, so the cluster degrades to independent replicas rather than failing.
+ * <p>
+ * The heartbeat keeps the member count current; {@link #budgetShare()} is this replica's part of the
+ * rate-limit quota.
+ */
+public class ClusterNode implements MeterBinder, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterNode.class);
+
+    private final String nodeId;
+    private final ClusterCoordinator coordinator;
+    private final Duration maxAge;
+    private final Duration lease;
+    private final Duration wait;
+    private final Clock clock;
+    private final Disposable heartbeat;
+    private volatile int members = 1;
+
+    private final AtomicLong sharedHits = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong leads = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public ClusterNode(String nodeId, ClusterCoordinator coordinator, Duration maxAge, Duration lease, Duration wait,
+                       Duration heartbeatInterval, Clock clock) {
+        this.nodeId = nodeId;
+        this.coordinator = coordinator;
+        this.maxAge = maxAge;
+        this.lease = lease;
+        this.wait = wait;
+        this.clock = clock;
+        // A tick that comes while the previous heartbeat is still in flight is skipped.
+        this.heartbeat = coordinator == null ? null : Flux.interval(Duration.ZERO, heartbeatInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> coordinator.heartbeat(nodeId)
+                        .onErrorResume(error -> {
+                            logger.debug("Heartbeat of {} failed, keeping {} members: {}", nodeId, members, error.toString());
+                            return Mono.empty();
+                        }), 0)
+                .subscribe(count -> members = Math.max(1, count));
+    }
+
+    /**
+     * A node that is the whole cluster: every lookup goes straight upstream and gets the full budget.
+     */
+    public static ClusterNode standalone() {
+        return new ClusterNode("standalone", null, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO, Clock.systemUTC());
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public int members() {
+        return members;
+    }
+
+    public double budgetShare() {
+        return 1.0 / members;
+    }
+
+    public Flux<RepositoryBranchesDto> load(String username, Supplier<Flux<RepositoryBranchesDto>> upstream) {
+        if (coordinator == null) {
+            return upstream.get();
+        }
+        return coordinator.get(username)
+                .filter(result -> result.fetchedAt().isAfter(clock.instant().minus(maxAge)))
+                .map(result -> {
+                    sharedHits.incrementAndGet();
+                    return Flux.fromIterable(result.repositories());
+                })
+                .switchIfEmpty(Mono.defer(() -> coordinator.tryLease(username, nodeId, lease)
+                        .map(granted -> granted ? lead(username, upstream) : follow(username, upstream))))
+                .onErrorResume(error -> {
+                    logger.warn("Cluster coordinator unavailable, fetching {} without it: {}", username, error.toString());
+                    fallbacks.incrementAndGet();
+                    return Mono.just(upstream.get());
+                })
+                .flatMapMany(repositories -> repositories);
+    }
+
+    private Flux<RepositoryBranchesDto> lead(String username, Supplier<Flux<RepositoryBranchesDto>> upstream) {
+        leads.incrementAndGet();
+        return Flux.defer(() -> {
+            List<RepositoryBranchesDto> collected = new ArrayList<>();
+            return upstream.get()
+                    .doOnNext(collected::add)
+                    .concatWith(Mono.defer(() -> share(username, collected)).then(Mono.empty()))
+                    .doOnError(error -> release(username).subscribe())
+                    .doOnCancel(() -> release(username).subscribe());
+        });
+    }
+
+    /**
+     * Publishes a complete result and releases the lease, which also wakes the waiting replicas when the
+     * result was partial and is not published.
+     */
+    private Mono<Void> share(String username, List<RepositoryBranchesDto> repositories) {
+        boolean partial = repositories.stream().anyMatch(repository -> repository.error() != null);
+        Mono<Void> publish = partial ? Mono.empty()
+                : coordinator.put(username, new SharedResult(List.copyOf(repositories), clock.instant()));
+        return publish
+                .onErrorResume(error -> {
+                    logger.warn("Could not share the result for {}: {}", username, error.toString());
+                    return Mono.empty();
+                })
+                .then(release(username));
+    }
+
+    private Mono<Void> release(String username) {
+        return coordinator.release(username, nodeId)
+                .onErrorResume(error -> {
+                    logger.debug("Could not release the lease for {}, it expires after {}: {}", username, lease, error.toString());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Waits for the lease holder's result. Any result newer than {@code maxAge} will do: the lookup only
+     * gets here when there was none, so it can only have been published since.
+     */
+    private Flux<RepositoryBranchesDto> follow(String username, Supplier<Flux<RepositoryBranchesDto>> upstream) {
+        return coordinator.await(username, clock.instant().minus(maxAge), wait)
+                .map(result -> {
+                    coalesced.incrementAndGet();
+                    return Flux.fromIterable(result.repositories());
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    logger.debug("No shared result for {} within {}, fetching it here", username, wait);
+                    fallbacks.incrementAndGet();
+                    return upstream.get();
+                }))
+                .flatMapMany(repositories -> repositories);
+    }
+
+    public long sharedHits() {
+        return sharedHits.get();
+    }
+
+    public long coalesced() {
+        return coalesced.get();
+    }
+
+    public long leads() {
+        return leads.get();
+    }
+
+    public long fallbacks() {
+        return fallbacks.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("github.cluster.members", this, ClusterNode::members)
+                .description("Live replicas the rate-limit budget is split between")
+                .register(registry);
+        FunctionCounter.builder("github.cluster.lookups", this, ClusterNode::sharedHits)
+                .description("Lookups by how the cluster answered them")
+                .tag("outcome", "shared")
+                .register(registry);
+        FunctionCounter.builder("github.cluster.lookups", this, ClusterNode::coalesced)
+                .tag("outcome", "coalesced")
+                .register(registry);
+        FunctionCounter.builder("github.cluster.lookups", this, ClusterNode::leads)
+                .tag("outcome", "led")
+                .register(registry);
+        FunctionCounter.builder("github.cluster.lookups", this, ClusterNode::fallbacks)
+                .tag("outcome", "fallback")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        if (heartbeat != null) {
+            heartbeat.dispose();
+        }
+    }
+}
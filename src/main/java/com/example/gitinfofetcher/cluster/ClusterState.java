@@ -0,0 +1,117 @@
+package com.example.gitinfofetcher.cluster;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The coordination state itself, independent of how replicas reach it. Values are opaque: the local
+ * coordinator stores results as objects, the coordinator server as the bytes it received. Results are
+ * bounded by count and evicted least recently used.
+ */
+final class ClusterState<V> {
+
+    private final int maxEntries;
+    private final Duration memberTimeout;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry<V>> results = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, Lease> leases = new HashMap<>();
+    private final Map<String, Instant> members = new HashMap<>();
+    private final Map<String, Sinks.Empty<Void>> changes = new HashMap<>();
+
+    ClusterState(int maxEntries, Duration memberTimeout, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.memberTimeout = memberTimeout;
+        this.clock = clock;
+    }
+
+    synchronized int heartbeat(String nodeId) {
+        Instant now = clock.instant();
+        members.put(nodeId, now);
+        members.values().removeIf(lastSeen -> lastSeen.plus(memberTimeout).isBefore(now));
+        return members.size();
+    }
+
+    synchronized Entry<V> get(String key) {
+        return results.get(key);
+    }
+
+    void put(String key, V value, Instant fetchedAt) {
+        Sinks.Empty<Void> changed;
+        synchronized (this) {
+            Entry<V> current = results.get(key);
+            if (current == null || !current.fetchedAt().isAfter(fetchedAt)) {
+                results.put(key, new Entry<>(value, fetchedAt));
+                if (results.size() > maxEntries) {
+                    results.remove(results.keySet().iterator().next());
+                }
+            }
+            changed = changes.remove(key);
+        }
+        if (changed != null) {
+            changed.tryEmitEmpty();
+        }
+    }
+
+    synchronized boolean tryLease(String key, String nodeId, Duration ttl) {
+        Instant now = clock.instant();
+        Lease lease = leases.get(key);
+        if (lease != null && !lease.nodeId().equals(nodeId) && lease.expiresAt().isAfter(now)) {
+            return false;
+        }
+        leases.put(key, new Lease(nodeId, now.plus(ttl)));
+        return true;
+    }
+
+    void release(String key, String nodeId) {
+        Sinks.Empty<Void> changed = null;
+        synchronized (this) {
+            Lease lease = leases.get(key);
+            if (lease != null && lease.nodeId().equals(nodeId)) {
+                leases.remove(key);
+                changed = changes.remove(key);
+            }
+        }
+        if (changed != null) {
+            changed.tryEmitEmpty();
+        }
+    }
+
+    /**
+     * The entry for {@code key} once it satisfies {@code accept}, checked now and again after the next put
+     * or lease release for the key. Empty if it still does not, or after {@code timeout}.
+     */
+    Mono<Entry<V>> await(String key, Predicate<Entry<V>> accept, Duration timeout) {
+        return Mono.defer(() -> {
+            Sinks.Empty<Void> changed;
+            synchronized (this) {
+                Entry<V> current = results.get(key);
+                if (current != null && accept.test(current)) {
+                    return Mono.just(current);
+                }
+                changed = changes.computeIfAbsent(key, k -> Sinks.empty());
+            }
+            return changed.asMono()
+                    .timeout(timeout, Mono.empty())
+                    .then(Mono.fromCallable(() -> get(key)))
+                    .filter(accept);
+        });
+    }
+
+    synchronized int size() {
+        return results.size();
+    }
+
+    record Entry<V>(V value, Instant fetchedAt) {
+    }
+
+    private record Lease(String nodeId, Instant expiresAt) {
+    }
+}
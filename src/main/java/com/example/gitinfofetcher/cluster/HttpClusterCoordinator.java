@@ -0,0 +1,123 @@
+package com.example.gitinfofetcher.cluster;
+
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Talks to a {@link ClusterCoordinatorServer}. Every call is bounded by {@code requestTimeout}, and an
+ * unreachable server surfaces as an error so the caller can fall back to fetching on its own. Requests
+ * carry the secret the server was started with.
+ */
+public class HttpClusterCoordinator implements ClusterCoordinator {
+
+    private static final TypeReference<List<RepositoryBranchesDto>> REPOSITORIES = new TypeReference<>() {
+    };
+
+    private final WebClient client;
+    private final ObjectMapper objectMapper;
+    private final Duration requestTimeout;
+
+    public HttpClusterCoordinator(String baseUrl, String secret, ObjectMapper objectMapper, Duration requestTimeout) {
+        this.client = WebClient.builder()
+                .baseUrl(baseUrl)
+                .defaultHeader(ClusterCoordinatorServer.SECRET_HEADER, secret)
+                .build();
+        this.objectMapper = objectMapper;
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Override
+    public Mono<Integer> heartbeat(String nodeId) {
+        return client.put().uri("/members/{node}", nodeId)
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(Integer::valueOf)
+                .timeout(requestTimeout);
+    }
+
+    @Override
+    public Mono<SharedResult> get(String key) {
+        return fetch(key, Instant.EPOCH, Duration.ZERO);
+    }
+
+    @Override
+    public Mono<Void> put(String key, SharedResult result) {
+        return Mono.fromCallable(() -> encode(result.repositories()))
+                .flatMap(body -> client.put().uri("/results/{key}", key)
+                        .header(ClusterCoordinatorServer.FETCHED_AT_HEADER, String.valueOf(result.fetchedAt().toEpochMilli()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(body)
+                        .retrieve()
+                        .toBodilessEntity())
+                .timeout(requestTimeout)
+                .then();
+    }
+
+    @Override
+    public Mono<Boolean> tryLease(String key, String nodeId, Duration ttl) {
+        return client.post().uri(uri -> uri.path("/leases/{key}")
+                        .queryParam("node", nodeId)
+                        .queryParam("ttlMs", ttl.toMillis())
+                        .build(key))
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                .flatMap(status -> status.is2xxSuccessful() ? Mono.just(true)
+                        : status.value() == HttpStatus.CONFLICT.value() ? Mono.just(false)
+                        : Mono.error(new IllegalStateException("Coordinator answered " + status + " to a lease request")))
+                .timeout(requestTimeout);
+    }
+
+    @Override
+    public Mono<Void> release(String key, String nodeId) {
+        return client.delete().uri(uri -> uri.path("/leases/{key}").queryParam("node", nodeId).build(key))
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(requestTimeout)
+                .then();
+    }
+
+    @Override
+    public Mono<SharedResult> await(String key, Instant notBefore, Duration timeout) {
+        return fetch(key, notBefore, timeout);
+    }
+
+    private Mono<SharedResult> fetch(String key, Instant notBefore, Duration wait) {
+        return client.get().uri(uri -> uri.path("/results/{key}")
+                        .queryParam("notBefore", notBefore.toEpochMilli())
+                        .queryParam("waitMs", wait.toMillis())
+                        .build(key))
+                .retrieve()
+                .toEntity(byte[].class)
+                .map(entity -> new SharedResult(decode(entity.getBody()),
+                        Instant.ofEpochMilli(Long.parseLong(entity.getHeaders().getFirst(ClusterCoordinatorServer.FETCHED_AT_HEADER)))))
+                .onErrorResume(WebClientResponseException.NotFound.class, notFound -> Mono.empty())
+                .timeout(wait.plus(requestTimeout));
+    }
+
+    private byte[] encode(List<RepositoryBranchesDto> repositories) {
+        try {
+            return objectMapper.writeValueAsBytes(repositories);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<RepositoryBranchesDto> decode(byte[] body) {
+        try {
+            return objectMapper.readValue(body, REPOSITORIES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
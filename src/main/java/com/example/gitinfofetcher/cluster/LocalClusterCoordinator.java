@@ -0,0 +1,67 @@
+package com.example.gitinfofetcher.cluster;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coordinates replicas that run in the same JVM. Application contexts that ask for the same
+ * {@link #named(String, int, Duration) name} share one coordinator, and with it their results, leases and
+ * rate-limit budget.
+ */
+public class LocalClusterCoordinator implements ClusterCoordinator {
+
+    private static final Map<String, LocalClusterCoordinator> NAMED = new ConcurrentHashMap<>();
+
+    private final ClusterState<SharedResult> state;
+
+    public LocalClusterCoordinator(int maxEntries, Duration memberTimeout, Clock clock) {
+        this.state = new ClusterState<>(maxEntries, memberTimeout, clock);
+    }
+
+    /**
+     * The coordinator of this JVM called {@code name}, created by the first context that asks for it. It is
+     * never closed, since other contexts may still be using it.
+     */
+    public static LocalClusterCoordinator named(String name, int maxEntries, Duration memberTimeout) {
+        return NAMED.computeIfAbsent(name, ignored -> new LocalClusterCoordinator(maxEntries, memberTimeout, Clock.systemUTC()));
+    }
+
+    int results() {
+        return state.size();
+    }
+
+    @Override
+    public Mono<Integer> heartbeat(String nodeId) {
+        return Mono.fromCallable(() -> state.heartbeat(nodeId));
+    }
+
+    @Override
+    public Mono<SharedResult> get(String key) {
+        return Mono.fromCallable(() -> state.get(key)).map(ClusterState.Entry::value);
+    }
+
+    @Override
+    public Mono<Void> put(String key, SharedResult result) {
+        return Mono.fromRunnable(() -> state.put(key, result, result.fetchedAt()));
+    }
+
+    @Override
+    public Mono<Boolean> tryLease(String key, String nodeId, Duration ttl) {
+        return Mono.fromCallable(() -> state.tryLease(key, nodeId, ttl));
+    }
+
+    @Override
+    public Mono<Void> release(String key, String nodeId) {
+        return Mono.fromRunnable(() -> state.release(key, nodeId));
+    }
+
+    @Override
+    public Mono<SharedResult> await(String key, Instant notBefore, Duration timeout) {
+        return state.await(key, entry -> !entry.fetchedAt().isBefore(notBefore), timeout).map(ClusterState.Entry::value);
+    }
+}
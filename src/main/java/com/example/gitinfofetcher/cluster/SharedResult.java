@@ -0,0 +1,9 @@
+package com.example.gitinfofetcher.cluster;
+
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record SharedResult(List<RepositoryBranchesDto> repositories, Instant fetchedAt) {
+}
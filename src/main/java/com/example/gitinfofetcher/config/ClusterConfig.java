@@ -0,0 +1,80 @@
+package com.example.gitinfofetcher.config;
+
+import com.example.gitinfofetcher.cluster.ClusterCoordinator;
+import com.example.gitinfofetcher.cluster.ClusterCoordinatorServer;
+import com.example.gitinfofetcher.cluster.ClusterNode;
+import com.example.gitinfofetcher.cluster.HttpClusterCoordinator;
+import com.example.gitinfofetcher.cluster.LocalClusterCoordinator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.UUID;
+
+@Configuration
+public class ClusterConfig {
+
+    /**
+     * Hosts the coordinator in this replica, for deployments without a separate coordinator process. It
+     * listens on loopback unless {@code github.cluster.server.host} says otherwise.
+     */
+    @Bean
+    @ConditionalOnProperty("github.cluster.server.port")
+    public ClusterCoordinatorServer clusterCoordinatorServer(
+            @Value("${github.cluster.server.host:127.0.0.1}") String host,
+            @Value("${github.cluster.server.port}") int port,
+            @Value("${github.cluster.secret:}") String secret,
+            @Value("${github.cluster.server.max-entries:10000}") int maxEntries,
+            @Value("${github.cluster.member-timeout:15s}") Duration memberTimeout) {
+        if (secret.isBlank()) {
+            throw new IllegalStateException("github.cluster.secret is required when github.cluster.server.port is set");
+        }
+        return new ClusterCoordinatorServer(host, port, secret, maxEntries, memberTimeout, Clock.systemUTC());
+    }
+
+    @Bean
+    public ClusterNode clusterNode(
+            @Value("${github.cluster.mode:none}") String mode,
+            @Value("${github.cluster.name:default}") String name,
+            @Value("${github.cluster.url:}") String url,
+            @Value("${github.cluster.secret:}") String secret,
+            @Value("${github.cluster.node-id:}") String nodeId,
+            @Value("${github.cluster.heartbeat:5s}") Duration heartbeat,
+            @Value("${github.cluster.member-timeout:15s}") Duration memberTimeout,
+            @Value("${github.cluster.lease:30s}") Duration lease,
+            @Value("${github.cluster.wait:10s}") Duration wait,
+            @Value("${github.cluster.request-timeout:2s}") Duration requestTimeout,
+            @Value("${github.result-cache.ttl:10m}") Duration ttl,
+            @Value("${github.result-cache.refresh-ahead:0.8}") double refreshAhead,
+            ObjectProvider<ClusterCoordinatorServer> server,
+            ObjectMapper objectMapper) {
+        // Started before the node, so a replica hosting the coordinator can heartbeat to itself right away.
+        server.getIfAvailable();
+        ClusterCoordinator coordinator = switch (mode.trim().toLowerCase(Locale.ROOT)) {
+            case "none" -> null;
+            case "local" -> LocalClusterCoordinator.named(name, 10_000, memberTimeout);
+            case "http" -> {
+                if (url.isBlank()) {
+                    throw new IllegalStateException("github.cluster.url is required when github.cluster.mode=http");
+                }
+                if (secret.isBlank()) {
+                    throw new IllegalStateException("github.cluster.secret is required when github.cluster.mode=http");
+                }
+                yield new HttpClusterCoordinator(url, secret, objectMapper, requestTimeout);
+            }
+            default -> throw new IllegalStateException("github.cluster.mode must be one of: none, local, http");
+        };
+        if (coordinator == null) {
+            return ClusterNode.standalone();
+        }
+        Duration maxAge = Duration.ofMillis((long) (ttl.toMillis() * refreshAhead));
+        return new ClusterNode(nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId, coordinator,
+                maxAge, lease, wait, heartbeat, Clock.systemUTC());
+    }
+}
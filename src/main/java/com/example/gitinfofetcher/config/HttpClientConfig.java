@@ -0,0 +1,61 @@
+package com.example.gitinfofetcher.config;
+
+import com.example.gitinfofetcher.client.GitHubHttpClient;
+import com.example.gitinfofetcher.client.HttpClientSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public HttpClientSettings httpClientSettings(
+            @Value("${github.http.max-connections:64}") int maxConnections,
+            @Value("${github.http.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${github.http.pending-acquire-timeout:10s}") Duration pendingAcquireTimeout,
+            @Value("${github.http.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${github.http.max-life-time:5m}") Duration maxLifeTime,
+            @Value("${github.http.http2:true}") boolean http2,
+            @Value("${github.http.compression:true}") boolean compression,
+            @Value("${github.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${github.http.response-timeout:10s}") Duration responseTimeout,
+            @Value("${github.http.write-timeout:5s}") Duration writeTimeout) {
+        return new HttpClientSettings(maxConnections, pendingAcquireMaxCount, pendingAcquireTimeout, maxIdleTime,
+                maxLifeTime, http2, compression, connectTimeout, responseTimeout, writeTimeout);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider gitHubConnectionProvider(HttpClientSettings settings) {
+        return GitHubHttpClient.connectionProvider(settings);
+    }
+
+    @Bean
+    public HttpClient gitHubHttpClient(ConnectionProvider gitHubConnectionProvider, HttpClientSettings settings,
+                                       @Value("${github.api.base-url}") String githubBaseUrl) {
+        return GitHubHttpClient.create(gitHubConnectionProvider, settings, URI.create(githubBaseUrl));
+    }
+
+    @Bean
+    public ReactorClientHttpConnector gitHubClientHttpConnector(HttpClient gitHubHttpClient) {
+        return new ReactorClientHttpConnector(gitHubHttpClient);
+    }
+
+    /**
+     * Runs before the application reports itself ready, so the first requests find open connections.
+     */
+    @Bean
+    public ApplicationRunner connectionWarmUp(HttpClient gitHubHttpClient, HttpClientSettings settings,
+                                              @Value("${github.api.base-url}") String githubBaseUrl,
+                                              @Value("${github.http.warmup-connections:4}") int warmupConnections) {
+        Duration timeout = settings.connectTimeout().plus(settings.responseTimeout());
+        return args -> GitHubHttpClient.warmUp(gitHubHttpClient, URI.create(githubBaseUrl), warmupConnections, timeout).block();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.gitinfofetcher.config;
+
+import com.example.gitinfofetcher.client.ResilienceFilter;
+import com.example.gitinfofetcher.client.ResilienceSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "github.resilience.enabled", havingValue = "true", matchIfMissing = true)
+public class ResilienceConfig {
+
+    @Bean
+    public ResilienceSettings resilienceSettings(
+            @Value("${github.resilience.max-attempts:3}") int maxAttempts,
+            @Value("${github.resilience.retry-backoff:100ms}") Duration retryBackoff,
+            @Value("${github.resilience.retry-budget-ratio:0.1}") double retryBudgetRatio,
+            @Value("${github.resilience.retry-budget-reserve:10}") int retryBudgetReserve,
+            @Value("${github.resilience.hedge:true}") boolean hedge,
+            @Value("${github.resilience.hedge-min-delay:50ms}") Duration hedgeMinDelay,
+            @Value("${github.resilience.hedge-percentile:0.95}") double hedgePercentile,
+            @Value("${github.resilience.breaker.window:20}") int breakerWindow,
+            @Value("${github.resilience.breaker.failure-rate:0.5}") double breakerFailureRate,
+            @Value("${github.resilience.breaker.open-for:30s}") Duration breakerOpenFor) {
+        return new ResilienceSettings(maxAttempts, retryBackoff, retryBudgetRatio, retryBudgetReserve, hedge,
+                hedgeMinDelay, hedgePercentile, breakerWindow, breakerFailureRate, breakerOpenFor);
+    }
+
+    @Bean
+    public ResilienceFilter resilienceFilter(ResilienceSettings settings) {
+        return new ResilienceFilter(settings, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.gitinfofetcher.config;
+
+import com.example.gitinfofetcher.cache.EncodedResponseCache;
+import com.example.gitinfofetcher.cache.RepositoryResultCache;
+import com.example.gitinfofetcher.controller.ResultSnapshotEndpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class ResultCacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultCacheConfig.class);
+
+    @Bean
+    public RepositoryResultCache repositoryResultCache(
+            @Value("${github.result-cache.max-entries:1000}") int maxEntries,
+            @Value("${github.result-cache.ttl:10m}") Duration ttl,
+            @Value("${github.result-cache.refresh-ahead:0.8}") double refreshAhead,
+            @Value("${github.result-cache.max-stale:1h}") Duration maxStale,
+            @Value("${github.result-cache.disk.path:}") String diskPath,
+            @Value("${github.result-cache.snapshot.path:}") String snapshotPath,
+            @Value("${github.result-cache.snapshot.import-on-startup:true}") boolean importOnStartup,
+            ObjectMapper objectMapper) {
+        RepositoryResultCache cache = new RepositoryResultCache(maxEntries, ttl, refreshAhead, maxStale,
+                diskPath.isBlank() ? null : Path.of(diskPath), objectMapper, Clock.systemUTC());
+        if (importOnStartup && maxEntries > 0 && !snapshotPath.isBlank() && Files.exists(Path.of(snapshotPath))) {
+            try {
+                cache.importSnapshot(Path.of(snapshotPath));
+            } catch (IOException e) {
+                logger.warn("Starting without the result snapshot at {}: {}", snapshotPath, e.toString());
+            }
+        }
+        return cache;
+    }
+
+    @Bean
+    @ConditionalOnExpression("!'${github.result-cache.snapshot.path:}'.isBlank()")
+    public ResultSnapshotEndpoint resultSnapshotEndpoint(RepositoryResultCache repositoryResultCache,
+            @Value("${github.result-cache.snapshot.path}") String snapshotPath) {
+        return new ResultSnapshotEndpoint(repositoryResultCache, Path.of(snapshotPath));
+    }
+
+    @Bean
+    public EncodedResponseCache encodedResponseCache(
+            @Value("${github.response-cache.max-entries:1000}") int maxEntries,
+            @Value("${github.response-cache.max-size:64MB}") DataSize maxSize,
+            ObjectMapper objectMapper) {
+        return new EncodedResponseCache(maxEntries, maxSize.toBytes(), objectMapper);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.gitinfofetcher.config;
+
+import com.example.gitinfofetcher.service.GitHubBackend;
+import com.example.gitinfofetcher.watch.WatchList;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class WatchListConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public WatchList watchList(GitHubBackend backend,
+                               @Value("${github.watch.usernames:}") List<String> usernames,
+                               @Value("${github.watch.interval:5m}") Duration interval,
+                               @Value("${github.watch.change-log-size:10000}") int changeLogSize,
+                               @Value("${github.watch.max-concurrent-users:4}") int concurrency) {
+        return new WatchList(backend, usernames, interval, changeLogSize, concurrency, Clock.systemUTC());
+    }
+}
@@ -1,12 +1,30 @@
 package com.example.gitinfofetcher.config;
 
+import com.example.gitinfofetcher.client.ConditionalRequestCache;
+import com.example.gitinfofetcher.client.GitHubClientObservationConvention;
+import com.example.gitinfofetcher.client.GitHubJsonDecoder;
+import com.example.gitinfofetcher.client.RateLimitScheduler;
+import com.example.gitinfofetcher.client.ResilienceFilter;
+import com.example.gitinfofetcher.client.TokenPool;
+import com.example.gitinfofetcher.cluster.ClusterNode;
+import com.example.gitinfofetcher.diagnostics.UpstreamTimingFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Configuration
 public class WebClientConfig {
 
@@ -14,10 +32,55 @@ public class WebClientConfig {
     private String githubBaseUrl;
 
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder()
+    public ConditionalRequestCache conditionalRequestCache(
+            @Value("${github.cache.max-size:32MB}") DataSize maxSize,
+            @Value("${github.cache.max-entry-size:1MB}") DataSize maxEntrySize,
+            @Value("${github.cache.eviction-policy:LRU}") ConditionalRequestCache.EvictionPolicy evictionPolicy) {
+        return new ConditionalRequestCache(maxSize.toBytes(), maxEntrySize.toBytes(), evictionPolicy);
+    }
+
+    @Bean
+    public RateLimitScheduler rateLimitScheduler(
+            @Value("${github.ratelimit.max-wait:30s}") Duration maxWait,
+            @Value("${github.ratelimit.pacing-threshold:0.1}") double pacingThreshold,
+            ClusterNode clusterNode) {
+        // Replicas sharing the tokens split the quota between them.
+        return new RateLimitScheduler(maxWait, pacingThreshold, Clock.systemUTC(), clusterNode::budgetShare);
+    }
+
+    @Bean
+    public TokenPool tokenPool(@Value("${github.api.token:}") String token,
+                               @Value("${github.api.tokens:}") List<String> tokens) {
+        List<String> configured = Stream.concat(Stream.of(token), tokens.stream())
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .distinct()
+                .toList();
+        return new TokenPool(configured, Clock.systemUTC());
+    }
+
+    @Bean
+    public WebClient webClient(ConditionalRequestCache conditionalRequestCache, RateLimitScheduler rateLimitScheduler,
+                               ObjectMapper objectMapper, ObservationRegistry observationRegistry,
+                               ClientHttpConnector gitHubClientHttpConnector,
+                               TokenPool tokenPool, ObjectProvider<ResilienceFilter> resilienceFilter) {
+        WebClient.Builder builder = WebClient.builder()
                 .baseUrl(githubBaseUrl)
-                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .build();
+                .clientConnector(gitHubClientHttpConnector)
+                .observationRegistry(observationRegistry)
+                .observationConvention(new GitHubClientObservationConvention())
+                .codecs(codecs -> codecs.customCodecs().register(new GitHubJsonDecoder(objectMapper.getFactory())))
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        // Outermost, so every retry and hedge goes through the conditional cache and the rate limiter again.
+        resilienceFilter.ifAvailable(builder::filter);
+        // The token pool goes inside the scheduler, so the scheduler sees the combined quota of all tokens and
+        // a rejected token is replaced before the scheduler decides to wait. The conditional cache goes inside
+        // the pool, so entries are kept per token.
+        builder.filter(rateLimitScheduler)
+                .filter(tokenPool)
+                .filter(conditionalRequestCache)
+                // Times each exchange that actually reaches GitHub, retries with another token included.
+                .filter(new UpstreamTimingFilter());
+        return builder.build();
     }
 }
@@ -1,14 +1,38 @@
 package com.example.gitinfofetcher.controller;
 
+import com.example.gitinfofetcher.cache.EncodedResponse;
+import com.example.gitinfofetcher.dto.BranchChangeDto;
 import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.dto.UserRepositoriesDto;
+import com.example.gitinfofetcher.exceptions.ErrorBodies;
 import com.example.gitinfofetcher.service.GitHubService;
+import com.example.gitinfofetcher.service.RepositoryQuery;
+import com.example.gitinfofetcher.watch.WatchList;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/github")
@@ -16,15 +40,135 @@ public class GitHubController {
 
     private static final Logger logger = LoggerFactory.getLogger(GitHubController.class);
 
+    static final String ERROR_EVENT = "error";
+    static final String OBSERVATION_NAME = "github.api.requests";
+
     private final GitHubService gitHubService;
+    private final WatchList watchList;
+    private final ObservationRegistry observationRegistry;
 
-    public GitHubController(GitHubService gitHubService) {
+    public GitHubController(GitHubService gitHubService, WatchList watchList, ObservationRegistry observationRegistry) {
         this.gitHubService = gitHubService;
+        this.watchList = watchList;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @GetMapping(value = "/users/{username}/repos", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> listUserRepos(@PathVariable String username, RepositoryParams params,
+                                                      ServerWebExchange exchange) {
+        logger.debug("Request received to list repositories with branches for user: {}", username);
+        RepositoryQuery query = params.toQuery();
+        return preEncodedOr(username, query, MediaType.APPLICATION_JSON, exchange,
+                () -> observed("json", gitHubService.listUserRepositoriesWithBranches(username, query)));
+    }
+
+    @GetMapping(value = "/users/{username}/repos", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Object>> streamUserRepos(@PathVariable String username, RepositoryParams params,
+                                                        ServerWebExchange exchange) {
+        logger.debug("Request received to stream repositories with branches as NDJSON for user: {}", username);
+        RepositoryQuery query = params.toQuery();
+        return preEncodedOr(username, query, MediaType.APPLICATION_NDJSON, exchange,
+                () -> observed("ndjson", withTerminalErrorEvent(gitHubService.listUserRepositoriesWithBranches(username, query),
+                        repository -> repository,
+                        error -> Map.of(ERROR_EVENT, ErrorBodies.of(error)))));
+    }
+
+    @GetMapping(value = "/users/{username}/repos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamUserReposAsEvents(@PathVariable String username, RepositoryParams params) {
+        logger.debug("Request received to stream repositories with branches as server-sent events for user: {}", username);
+        RepositoryQuery query = params.toQuery();
+        return observed("sse", withTerminalErrorEvent(gitHubService.listUserRepositoriesWithBranches(username, query),
+                repository -> ServerSentEvent.builder((Object) repository).build(),
+                error -> ServerSentEvent.builder((Object) ErrorBodies.of(error)).event(ERROR_EVENT).build()));
+    }
+
+    /**
+     * Usernames arrive as a JSON array or one JSON string per NDJSON line; both are decoded element by
+     * element so lookups start before the whole list has been received.
+     */
+    @PostMapping(value = "/bulk/repos",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserRepositoriesDto> streamReposOfUsers(@RequestBody Flux<JsonNode> usernames) {
+        logger.debug("Bulk request received to stream repositories with branches for a list of users");
+        return observed("bulk", gitHubService.listRepositoriesWithBranches(usernames.filter(JsonNode::isTextual).map(JsonNode::asText)));
+    }
+
+    /**
+     * Branch changes of watched users after {@code cursor}. Without {@code follow} the response ends with the
+     * latest change; with it the stream stays open and delivers changes as background syncs detect them.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BranchChangeDto> streamChanges(@RequestParam(defaultValue = "0") long cursor,
+                                               @RequestParam(required = false) String username,
+                                               @RequestParam(defaultValue = "false") boolean follow) {
+        logger.debug("Request received to stream branch changes after cursor {} for user: {}", cursor, username);
+        Flux<BranchChangeDto> changes = watchList.changes(cursor, follow);
+        return username == null ? changes : changes.filter(change -> change.username().equalsIgnoreCase(username));
+    }
+
+    /**
+     * Answers from the bytes encoded for an earlier request when the user's repositories are retained in
+     * memory, skipping the object mapper, and with {@code 304 Not Modified} when the client already holds
+     * them. Otherwise, and for filtered queries, the repositories are loaded and encoded as they stream in.
+     */
+    private Mono<ResponseEntity<Object>> preEncodedOr(String username, RepositoryQuery query, MediaType mediaType,
+                                                      ServerWebExchange exchange, Supplier<Flux<?>> response) {
+        return Mono.fromSupplier(() -> {
+            EncodedResponse encoded = query.isUnfiltered() ? gitHubService.encodedRepositories(username, mediaType) : null;
+            if (encoded == null) {
+                return ResponseEntity.ok().body(response.get());
+            }
+            if (exchange.checkNotModified(encoded.eTag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(encoded.eTag()).build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(encoded.mediaType())
+                    .contentLength(encoded.size())
+                    .eTag(encoded.eTag())
+                    .body(encoded.dataBuffer());
+        });
+    }
+
+    /**
+     * Errors raised before the first repository is written still produce a regular error response. Once the
+     * status line has been sent the error can only be reported in-band, so it becomes a final error element.
+     */
+    private static <T> Flux<T> withTerminalErrorEvent(Flux<RepositoryBranchesDto> repositories,
+                                                      Function<RepositoryBranchesDto, T> element,
+                                                      Function<Throwable, T> errorElement) {
+        return Flux.defer(() -> {
+            AtomicBoolean started = new AtomicBoolean();
+            return repositories
+                    .doOnNext(repository -> started.set(true))
+                    .map(element)
+                    .onErrorResume(error -> {
+                        if (!started.get()) {
+                            return Flux.error(error);
+                        }
+                        logger.warn("Ending stream with an error event after upstream failure: {}", error.toString());
+                        return Flux.just(errorElement.apply(error));
+                    });
+        });
     }
 
-    @GetMapping("/users/{username}/repos")
-    public Flux<RepositoryBranchesDto> listUserRepos(@PathVariable String username) {
-        logger.info("Request received to list repositories with branches for user: {}", username);
-        return gitHubService.listUserRepositoriesWithBranches(username);
+    /**
+     * Times a response from subscription until its last element is written, which for streamed responses is
+     * well after the handler returns. The observation is the parent of every upstream call made for the
+     * request, so traces link the client request to its GitHub calls.
+     */
+    private <T> Flux<T> observed(String format, Flux<T> response) {
+        return Flux.deferContextual(context -> {
+            Observation observation = Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                    .contextualName("github " + format)
+                    .lowCardinalityKeyValue("format", format)
+                    .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY, null))
+                    .start();
+            return response
+                    .doOnError(observation::error)
+                    .doOnTerminate(observation::stop)
+                    .doOnCancel(observation::stop)
+                    .contextWrite(ctx -> ctx.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
     }
 }
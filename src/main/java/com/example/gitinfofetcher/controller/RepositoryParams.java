@@ -0,0 +1,16 @@
+package com.example.gitinfofetcher.controller;
+
+import com.example.gitinfofetcher.service.RepositoryQuery;
+
+import java.time.Instant;
+
+/**
+ * Query parameters accepted by the repository endpoints, bound by name from the query string.
+ */
+public record RepositoryParams(String name, Instant pushedAfter, Instant pushedBefore, String sort, Integer maxRepos,
+                               String branch, Boolean defaultBranchOnly) {
+
+    RepositoryQuery toQuery() {
+        return RepositoryQuery.of(name, pushedAfter, pushedBefore, sort, maxRepos, branch, defaultBranchOnly);
+    }
+}
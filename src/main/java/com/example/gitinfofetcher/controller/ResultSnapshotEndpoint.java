@@ -0,0 +1,54 @@
+package com.example.gitinfofetcher.controller;
+
+import com.example.gitinfofetcher.cache.RepositoryResultCache;
+import com.example.gitinfofetcher.cache.SnapshotSummary;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Admin operations on the result snapshot at {@code github.result-cache.snapshot.path}:
+ * {@code POST /actuator/snapshot/export} writes the cached results to it and
+ * {@code POST /actuator/snapshot/import} starts serving the results it holds.
+ */
+@Endpoint(id = "snapshot")
+public class ResultSnapshotEndpoint {
+
+    private final RepositoryResultCache resultCache;
+    private final Path path;
+
+    public ResultSnapshotEndpoint(RepositoryResultCache resultCache, Path path) {
+        this.resultCache = resultCache;
+        this.path = path;
+    }
+
+    @ReadOperation
+    public Map<String, Object> snapshot() {
+        return Map.of("path", path.toString(),
+                "exists", Files.exists(path),
+                "importedUsers", resultCache.snapshotEntries(),
+                "hits", resultCache.snapshotHits());
+    }
+
+    @WriteOperation
+    public SnapshotSummary run(@Selector String action) {
+        try {
+            return switch (action) {
+                case "export" -> resultCache.exportSnapshot(path);
+                case "import" -> resultCache.importSnapshot(path);
+                default -> throw new InvalidEndpointRequestException("Unknown snapshot action " + action,
+                        "Unknown snapshot action, expected export or import");
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
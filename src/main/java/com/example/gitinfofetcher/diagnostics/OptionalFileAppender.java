@@ -0,0 +1,26 @@
+package com.example.gitinfofetcher.diagnostics;
+
+import ch.qos.logback.core.rolling.RollingFileAppender;
+
+/**
+ * Spring Boot's rolling file appender that only starts when {@code logging.file.name} or
+ * {@code logging.file.path} has set {@code LOG_FILE}. It lets {@code logback-spring.xml} keep Boot's file
+ * logging without the Janino dependency that conditional configuration would need.
+ */
+public class OptionalFileAppender<E> extends RollingFileAppender<E> {
+
+    @Override
+    public void start() {
+        String file = getFile();
+        if (file != null && !file.isBlank()) {
+            super.start();
+        }
+    }
+
+    @Override
+    public void doAppend(E event) {
+        if (isStarted()) {
+            super.doAppend(event);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.gitinfofetcher.diagnostics;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link AsyncAppender} that never blocks the logging thread, and reports what it had to drop. An event
+ * that finds the queue full is counted instead of queued, and the next event that finds room is preceded by
+ * a warning with the number of events dropped since the last one. The count can fall short under contention,
+ * because the capacity check and the enqueue are not atomic.
+ */
+public class ReportingAsyncAppender extends AsyncAppender {
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+
+    public ReportingAsyncAppender() {
+        setNeverBlock(true);
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (getRemainingCapacity() < (pending.get() > 0 ? 2 : 1)) {
+            dropped.incrementAndGet();
+            pending.incrementAndGet();
+            return;
+        }
+        long count = pending.getAndSet(0);
+        if (count > 0) {
+            super.append(summary(count));
+        }
+        super.append(event);
+    }
+
+    /**
+     * The number of events dropped because the queue was full since this appender started.
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    private ILoggingEvent summary(long count) {
+        LoggerContext loggerContext = (LoggerContext) getContext();
+        return new LoggingEvent(ReportingAsyncAppender.class.getName(),
+                loggerContext.getLogger(ReportingAsyncAppender.class), Level.WARN,
+                "{} log events were dropped because the log queue of {} was full", null,
+                new Object[]{count, getName()});
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.gitinfofetcher.diagnostics;
+
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects what one lookup of a user's repositories cost and logs it as a single summary event when the
+ * lookup ends, instead of one event per repository or branch. The instance travels in the Reactor context,
+ * so {@link UpstreamTimingFilter} can add the upstream calls made on its behalf; calls shared with a
+ * concurrent identical lookup are counted for the lookup that started them.
+ */
+public final class RequestDiagnostics {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestDiagnostics.class);
+
+    private final String username;
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger repositories = new AtomicInteger();
+    private final AtomicInteger branches = new AtomicInteger();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AtomicLong upstreamNanos = new AtomicLong();
+    private final AtomicLong slowestUpstreamNanos = new AtomicLong();
+
+    private RequestDiagnostics(String username) {
+        this.username = username;
+    }
+
+    /**
+     * Wraps a lookup so that it is summarised when it completes, fails or is cancelled. Nothing is
+     * collected while the summary logger is disabled.
+     */
+    public static Flux<RepositoryBranchesDto> summarized(String username, String query, Flux<RepositoryBranchesDto> repositories) {
+        if (!logger.isInfoEnabled()) {
+            return repositories;
+        }
+        return Flux.defer(() -> {
+            RequestDiagnostics diagnostics = new RequestDiagnostics(username);
+            return repositories
+                    .doOnNext(diagnostics::record)
+                    .doOnComplete(() -> diagnostics.log(query, "complete"))
+                    .doOnError(error -> diagnostics.log(query, "error"))
+                    .doOnCancel(() -> diagnostics.log(query, "cancelled"))
+                    .contextWrite(context -> context.put(RequestDiagnostics.class, diagnostics));
+        });
+    }
+
+    void recordUpstreamCall(long nanos) {
+        upstreamCalls.incrementAndGet();
+        upstreamNanos.addAndGet(nanos);
+        slowestUpstreamNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void record(RepositoryBranchesDto repository) {
+        repositories.incrementAndGet();
+        branches.addAndGet(repository.branches().size());
+    }
+
+    private void log(String query, String outcome) {
+        logger.info("lookup user={} query={} outcome={} repositories={} branches={} upstreamCalls={} upstreamMs={} slowestUpstreamMs={} durationMs={}",
+                username, query, outcome, repositories.get(), branches.get(), upstreamCalls.get(),
+                TimeUnit.NANOSECONDS.toMillis(upstreamNanos.get()), TimeUnit.NANOSECONDS.toMillis(slowestUpstreamNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.gitinfofetcher.diagnostics;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Debug logging for hot paths that emits at most {@code maxPerSecond} events per second. Events beyond that
+ * are counted instead of formatted, and the next event that is logged reports how many were suppressed.
+ * With debug disabled a call costs one level check.
+ */
+public final class SampledLogger {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Logger logger;
+    private final int maxPerSecond;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger inWindow = new AtomicInteger();
+    private final AtomicInteger suppressed = new AtomicInteger();
+
+    public SampledLogger(Logger logger, int maxPerSecond) {
+        this.logger = logger;
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public void debug(String format, Object... arguments) {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= SECOND && windowStart.compareAndSet(start, now)) {
+            inWindow.set(0);
+        }
+        if (inWindow.incrementAndGet() > maxPerSecond) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        int skipped = suppressed.getAndSet(0);
+        if (skipped > 0) {
+            logger.debug(format + " ({} similar events suppressed)", append(arguments, skipped));
+        } else {
+            logger.debug(format, arguments);
+        }
+    }
+
+    /**
+     * Adds {@code value} as the last format argument, ahead of a trailing {@link Throwable} so SLF4J still
+     * logs that as the event's exception.
+     */
+    private static Object[] append(Object[] arguments, Object value) {
+        int at = arguments.length > 0 && arguments[arguments.length - 1] instanceof Throwable
+                ? arguments.length - 1
+                : arguments.length;
+        Object[] all = new Object[arguments.length + 1];
+        System.arraycopy(arguments, 0, all, 0, at);
+        all[at] = value;
+        System.arraycopy(arguments, at, all, at + 1, arguments.length - at);
+        return all;
+    }
+}
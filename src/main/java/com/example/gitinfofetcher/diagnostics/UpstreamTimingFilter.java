@@ -0,0 +1,28 @@
+package com.example.gitinfofetcher.diagnostics;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Adds the duration of every upstream exchange, until the response headers arrive, to the
+ * {@link RequestDiagnostics} of the lookup that made it. Exchanges outside a summarised lookup pass
+ * through untouched.
+ */
+public class UpstreamTimingFilter implements ExchangeFilterFunction {
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            RequestDiagnostics diagnostics = context.getOrDefault(RequestDiagnostics.class, null);
+            if (diagnostics == null) {
+                return next.exchange(request);
+            }
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnTerminate(() -> diagnostics.recordUpstreamCall(System.nanoTime() - start));
+        });
+    }
+}
@@ -1,4 +1,10 @@
 package com.example.gitinfofetcher.domain;
 
-public record GitHubBranch(String name, GitHubCommit commit) {
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A branch and its head commit. {@code commit} is absent when only the branch name is known, as for the
+ * default branch taken from a REST repository payload.
+ */
+public record GitHubBranch(String name, @JsonInclude(JsonInclude.Include.NON_NULL) GitHubCommit commit) {
 }
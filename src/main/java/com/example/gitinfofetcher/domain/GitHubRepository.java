@@ -1,8 +1,17 @@
 package com.example.gitinfofetcher.domain;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
 import java.util.List;
 
-public record GitHubRepository(String name, GitHubUser owner, boolean fork, List<GitHubBranch> branches) {
+public record GitHubRepository(String name, GitHubUser owner, boolean fork, List<GitHubBranch> branches,
+                               @JsonProperty("default_branch") String defaultBranch,
+                               @JsonProperty("pushed_at") Instant pushedAt) {
+
+    public GitHubRepository(String name, GitHubUser owner, boolean fork, List<GitHubBranch> branches) {
+        this(name, owner, fork, branches, null, null);
+    }
 
     @Override
     public String name() {
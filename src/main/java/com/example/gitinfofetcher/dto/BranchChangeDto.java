@@ -0,0 +1,18 @@
+package com.example.gitinfofetcher.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * A branch of a watched user that appeared, disappeared or moved to another commit between two syncs.
+ * {@code cursor} increases with every change and is passed back to resume the feed after this change.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BranchChangeDto(long cursor, String username, String repositoryName, String ownerLogin, String branch,
+                              Type type, String previousSha, String sha, Instant detectedAt) {
+
+    public enum Type {
+        ADDED, REMOVED, MOVED
+    }
+}
@@ -1,10 +1,26 @@
 package com.example.gitinfofetcher.dto;
 
 import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.util.List;
+import java.util.Map;
+
+/**
+ * A repository with its branches. {@code error} is only set in partial-result mode, on a repository whose
+ * branches could not be fetched; its {@code branches} are then empty.
+ */
+public record RepositoryBranchesDto(String repositoryName, String ownerLogin, List<GitHubBranch> branches,
+                                    @JsonInclude(JsonInclude.Include.NON_NULL) Map<String, Object> error) {
+
+    public RepositoryBranchesDto(String repositoryName, String ownerLogin, List<GitHubBranch> branches) {
+        this(repositoryName, ownerLogin, branches, null);
+    }
+
+    public static RepositoryBranchesDto failed(String repositoryName, String ownerLogin, Map<String, Object> error) {
+        return new RepositoryBranchesDto(repositoryName, ownerLogin, List.of(), error);
+    }
 
-public record RepositoryBranchesDto(String repositoryName, String ownerLogin, List<GitHubBranch> branches) {
     @Override
     public String repositoryName() {
         return repositoryName;
@@ -0,0 +1,22 @@
+package com.example.gitinfofetcher.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One user's result in a bulk lookup: either the user's repositories or the error body the single-user
+ * endpoint would have answered with.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserRepositoriesDto(String username, List<RepositoryBranchesDto> repositories, Map<String, Object> error) {
+
+    public static UserRepositoriesDto of(String username, List<RepositoryBranchesDto> repositories) {
+        return new UserRepositoriesDto(username, repositories, null);
+    }
+
+    public static UserRepositoriesDto failed(String username, Map<String, Object> error) {
+        return new UserRepositoriesDto(username, null, error);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.gitinfofetcher.exceptions;
+
+import java.time.Instant;
+
+public class CircuitOpenException extends RuntimeException {
+
+    private final Instant retryAt;
+
+    public CircuitOpenException(String message, Instant retryAt) {
+        super(message);
+        this.retryAt = retryAt;
+    }
+
+    public Instant getRetryAt() {
+        return retryAt;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.gitinfofetcher.exceptions;
+
+public class CursorExpiredException extends RuntimeException {
+
+    public CursorExpiredException(String message) {
+        super(message);
+    }
+}
@@ -1,16 +1,16 @@
 package com.example.gitinfofetcher.exceptions;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
-import java.io.IOException;
-import java.util.HashMap;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 
 @ControllerAdvice
@@ -22,18 +22,44 @@ public class CustomExceptionHandler {
     public ResponseEntity<Map<String, Object>> handleWebClientResponseException(WebClientResponseException ex) {
         logger.error("WebClientResponseException: Status code: {} - Body: {}", ex.getStatusCode().value(), ex.getResponseBodyAsString(), ex);
 
-        Map<String, Object> body = new HashMap<>();
-        String errorMessage = "An error occurred while processing the request.";
-
-        try {
-            Map errorResponse = new ObjectMapper().readValue(ex.getResponseBodyAsString(), Map.class);
-            errorMessage = (String) errorResponse.getOrDefault("message", "No message available");
-        } catch (IOException e) {
-            logger.error(errorMessage, e);
-        }
-        body.put("status", ex.getStatusCode().value());
-        body.put("Message", errorMessage);
+        Map<String, Object> body = ErrorBodies.of(ex);
 
         return new ResponseEntity<>(body, HttpStatus.valueOf(ex.getStatusCode().value()));
     }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimitExceededException(RateLimitExceededException ex) {
+        logger.warn("RateLimitExceededException: {}", ex.getMessage());
+
+        Map<String, Object> body = ErrorBodies.of(ex);
+
+        long retryAfterSeconds = Math.max(0, Duration.between(Instant.now(), ex.getRetryAt()).toSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(body);
+    }
+
+    @ExceptionHandler(CircuitOpenException.class)
+    public ResponseEntity<Map<String, Object>> handleCircuitOpenException(CircuitOpenException ex) {
+        logger.warn("CircuitOpenException: {}", ex.getMessage());
+
+        long retryAfterSeconds = Math.max(0, Duration.between(Instant.now(), ex.getRetryAt()).toSeconds());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(ErrorBodies.of(ex));
+    }
+
+    @ExceptionHandler(CursorExpiredException.class)
+    public ResponseEntity<Map<String, Object>> handleCursorExpiredException(CursorExpiredException ex) {
+        logger.warn("CursorExpiredException: {}", ex.getMessage());
+
+        return new ResponseEntity<>(ErrorBodies.of(ex), HttpStatus.GONE);
+    }
+
+    @ExceptionHandler(InvalidQueryException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidQueryException(InvalidQueryException ex) {
+        logger.warn("InvalidQueryException: {}", ex.getMessage());
+
+        return new ResponseEntity<>(ErrorBodies.of(ex), HttpStatus.BAD_REQUEST);
+    }
 }
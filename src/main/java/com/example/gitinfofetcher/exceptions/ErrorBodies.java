@@ -0,0 +1,63 @@
+package com.example.gitinfofetcher.exceptions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the {@code status}/{@code Message} error body shared by the JSON error responses and the terminal
+ * error event of streamed responses.
+ */
+public final class ErrorBodies {
+
+    private static final Logger logger = LoggerFactory.getLogger(ErrorBodies.class);
+
+    static final String DEFAULT_MESSAGE = "An error occurred while processing the request.";
+    static final String RATE_LIMIT_MESSAGE = "GitHub API rate limit exceeded, retry later";
+    static final String CIRCUIT_OPEN_MESSAGE = "GitHub API is failing, retry later";
+
+    private ErrorBodies() {
+    }
+
+    public static Map<String, Object> of(int status, String message) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", status);
+        body.put("Message", message);
+        return body;
+    }
+
+    public static Map<String, Object> of(Throwable ex) {
+        if (ex instanceof WebClientResponseException responseException) {
+            return of(responseException.getStatusCode().value(), upstreamMessage(responseException));
+        }
+        if (ex instanceof RateLimitExceededException) {
+            return of(HttpStatus.TOO_MANY_REQUESTS.value(), RATE_LIMIT_MESSAGE);
+        }
+        if (ex instanceof CircuitOpenException) {
+            return of(HttpStatus.SERVICE_UNAVAILABLE.value(), CIRCUIT_OPEN_MESSAGE);
+        }
+        if (ex instanceof CursorExpiredException) {
+            return of(HttpStatus.GONE.value(), ex.getMessage());
+        }
+        if (ex instanceof InvalidQueryException) {
+            return of(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+        }
+        return of(HttpStatus.INTERNAL_SERVER_ERROR.value(), DEFAULT_MESSAGE);
+    }
+
+    static String upstreamMessage(WebClientResponseException ex) {
+        try {
+            Map errorResponse = new ObjectMapper().readValue(ex.getResponseBodyAsString(), Map.class);
+            return (String) errorResponse.getOrDefault("message", "No message available");
+        } catch (IOException e) {
+            logger.error(DEFAULT_MESSAGE, e);
+            return DEFAULT_MESSAGE;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.gitinfofetcher.service;
+
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import reactor.core.publisher.Flux;
+
+/**
+ * Source of a user's non-fork repositories and their branches. The implementation is selected with
+ * {@code github.api.backend}.
+ */
+public interface GitHubBackend {
+
+    Flux<RepositoryBranchesDto> fetchRepositoriesWithBranches(String username);
+
+    /**
+     * The repositories selected by {@code query}. Backends override this to filter their repository listing
+     * before branches are fetched; the default filters the complete results.
+     */
+    default Flux<RepositoryBranchesDto> fetchRepositoriesWithBranches(String username, RepositoryQuery query) {
+        Flux<RepositoryBranchesDto> repositories = fetchRepositoriesWithBranches(username);
+        return query.isUnfiltered() ? repositories : query.applyTo(repositories);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.gitinfofetcher.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+public class GitHubPaginator {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitHubPaginator.class);
+    private static final Pattern LINK_PATTERN = Pattern.compile("<([^>]+)>\\s*;\\s*rel=\"([^\"]+)\"");
+
+    private final WebClient webClient;
+    private final int perPage;
+    private final int maxConcurrentPages;
+
+    public GitHubPaginator(WebClient webClient,
+                           @Value("${github.api.per-page:100}") int perPage,
+                           @Value("${github.api.max-concurrent-pages:4}") int maxConcurrentPages) {
+        this.webClient = webClient;
+        this.perPage = perPage;
+        this.maxConcurrentPages = maxConcurrentPages;
+    }
+
+    /**
+     * Streams every element of a paginated GitHub collection. Pages are emitted in order as soon as they
+     * arrive; when the first response advertises a {@code rel="last"} link the remaining pages are
+     * prefetched with at most {@code maxConcurrentPages} requests in flight, otherwise {@code rel="next"}
+     * links are followed one by one.
+     */
+    public <T> Flux<T> fetchAll(String uriTemplate, Class<T> elementType, Object... uriVariables) {
+        Object[] variables = Arrays.copyOf(uriVariables, uriVariables.length + 1);
+        variables[uriVariables.length] = perPage;
+        String separator = uriTemplate.contains("?") ? "&" : "?";
+        return fetchPage(webClient.get().uri(uriTemplate + separator + "per_page={perPage}", variables), elementType)
+                .flatMapMany(first -> Flux.fromIterable(first.items())
+                        .concatWith(remainingPages(first, elementType)));
+    }
+
+    private <T> Flux<T> remainingPages(Page<T> first, Class<T> elementType) {
+        if (first.next() == null) {
+            return Flux.empty();
+        }
+        Integer nextPage = pageNumber(first.next());
+        Integer lastPage = pageNumber(first.last());
+        if (nextPage != null && lastPage != null && lastPage >= nextPage) {
+            logger.debug("Prefetching pages {}..{} of {}", nextPage, lastPage, first.next());
+            return Flux.range(nextPage, lastPage - nextPage + 1)
+                    .flatMapSequential(page -> fetchPage(withPage(first.next(), page), elementType), maxConcurrentPages)
+                    .concatMapIterable(Page::items);
+        }
+        return fetchPage(first.next(), elementType)
+                .expand(page -> page.next() == null ? Mono.empty() : fetchPage(page.next(), elementType))
+                .concatMapIterable(Page::items);
+    }
+
+    private <T> Mono<Page<T>> fetchPage(URI uri, Class<T> elementType) {
+        return fetchPage(webClient.get().uri(uri), elementType);
+    }
+
+    private <T> Mono<Page<T>> fetchPage(WebClient.RequestHeadersSpec<?> request, Class<T> elementType) {
+        return request.retrieve()
+                .toEntityList(elementType)
+                .map(entity -> {
+                    Map<String, URI> links = parseLinks(entity.getHeaders().getFirst(HttpHeaders.LINK));
+                    List<T> items = entity.getBody() != null ? entity.getBody() : List.of();
+                    return new Page<>(items, links.get("next"), links.get("last"));
+                });
+    }
+
+    static Map<String, URI> parseLinks(String linkHeader) {
+        Map<String, URI> links = new HashMap<>();
+        if (linkHeader == null) {
+            return links;
+        }
+        Matcher matcher = LINK_PATTERN.matcher(linkHeader);
+        while (matcher.find()) {
+            links.put(matcher.group(2), URI.create(matcher.group(1)));
+        }
+        return links;
+    }
+
+    private static Integer pageNumber(URI uri) {
+        if (uri == null) {
+            return null;
+        }
+        String page = UriComponentsBuilder.fromUri(uri).build().getQueryParams().getFirst("page");
+        try {
+            return page != null ? Integer.valueOf(page) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static URI withPage(URI uri, int page) {
+        return UriComponentsBuilder.fromUri(uri).replaceQueryParam("page", page).build(true).toUri();
+    }
+
+    private record Page<T>(List<T> items, URI next, URI last) {
+    }
+}
@@ -1,52 +1,151 @@
 package com.example.gitinfofetcher.service;
 
-import com.example.gitinfofetcher.domain.GitHubBranch;
-import com.example.gitinfofetcher.domain.GitHubRepository;
+import com.example.gitinfofetcher.cache.CompactRepository;
+import com.example.gitinfofetcher.cache.EncodedResponse;
+import com.example.gitinfofetcher.cache.EncodedResponseCache;
+import com.example.gitinfofetcher.cache.RepositoryResultCache;
+import com.example.gitinfofetcher.cluster.ClusterNode;
+import com.example.gitinfofetcher.diagnostics.RequestDiagnostics;
 import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.dto.UserRepositoriesDto;
+import com.example.gitinfofetcher.exceptions.ErrorBodies;
+import com.example.gitinfofetcher.watch.WatchList;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
-public class GitHubService {
+public class GitHubService implements MeterBinder {
 
     private static final Logger logger = LoggerFactory.getLogger(GitHubService.class);
-    private final WebClient webClient;
+    private final GitHubBackend backend;
+    private final RepositoryResultCache resultCache;
+    private final EncodedResponseCache encodedResponses;
+    private final WatchList watchList;
+    private final ClusterNode cluster;
+    private final int maxConcurrentUsers;
+    private final CompositeMeterRegistry meters = new CompositeMeterRegistry();
+    private final DistributionSummary repositoriesPerUser;
+    private final DistributionSummary branchesPerRepository;
+
+    public GitHubService(GitHubBackend backend, RepositoryResultCache resultCache, EncodedResponseCache encodedResponses,
+                         WatchList watchList, int maxConcurrentUsers) {
+        this(backend, resultCache, encodedResponses, watchList, ClusterNode.standalone(), maxConcurrentUsers);
+    }
 
-    public GitHubService(WebClient webClient) {
-        this.webClient = webClient;
+    @Autowired
+    public GitHubService(GitHubBackend backend, RepositoryResultCache resultCache, EncodedResponseCache encodedResponses,
+                         WatchList watchList, ClusterNode cluster,
+                         @Value("${github.bulk.max-concurrent-users:8}") int maxConcurrentUsers) {
+        this.backend = backend;
+        this.resultCache = resultCache;
+        this.encodedResponses = encodedResponses;
+        this.watchList = watchList;
+        this.cluster = cluster;
+        this.maxConcurrentUsers = maxConcurrentUsers;
+        this.repositoriesPerUser = DistributionSummary.builder("github.user.repositories")
+                .description("Non-fork repositories per user loaded from GitHub")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(10_000.0)
+                .register(meters);
+        this.branchesPerRepository = DistributionSummary.builder("github.repository.branches")
+                .description("Branches per repository loaded from GitHub")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(10_000.0)
+                .register(meters);
     }
 
     public Flux<RepositoryBranchesDto> listUserRepositoriesWithBranches(String username) {
-        return listUserRepositories(username)
-                .flatMap(repo -> getRepositoryBranches(repo.owner().login(), repo.name())
-                        .collectList()
-                        .map(branches -> new RepositoryBranchesDto(repo.name(), repo.owner().login(), branches))
-                )
-                .doOnComplete(() -> logger.info("Completed fetching repositories with branches for user: {}", username))
+        return RequestDiagnostics.summarized(username, "all", Flux.defer(() -> {
+                    List<RepositoryBranchesDto> watched = watchList.snapshot(username);
+                    return watched != null
+                            ? Flux.fromIterable(watched)
+                            : resultCache.get(username, () -> load(username));
+                }))
                 .doOnError(error -> logger.error("Error occurred while fetching repositories with branches for user: {}", username, error));
     }
 
-    private Flux<GitHubRepository> listUserRepositories(String username) {
-        logger.info("Fetching repositories for user: {}", username);
-        return webClient.get()
-                .uri("/users/{username}/repos", username)
-                .retrieve()
-                .bodyToFlux(GitHubRepository.class)
-                .filter(repo -> !repo.fork())
-                .doOnNext(repo -> logger.debug("Received repo: {}", repo.name()))
-                .doOnError(e -> logger.error("Error fetching repositories for user: {}", username, e));
-    }
-
-    private Flux<GitHubBranch> getRepositoryBranches(String owner, String repoName) {
-        logger.info("Fetching branches for repository: {}/{}", owner, repoName);
-        return webClient.get()
-                .uri("/repos/{owner}/{repo}/branches", owner, repoName)
-                .retrieve()
-                .bodyToFlux(GitHubBranch.class)
-                .doOnNext(branch -> logger.info("Received branch: {} in repo: {}/{}", branch.name(), owner, repoName))
-                .doOnError(e -> logger.error("Error fetching branches for repository: {}/{}", owner, repoName, e));
+    /**
+     * The repositories of a user narrowed by {@code query}. Filtered lookups go to the backend, which
+     * filters the repository listing before fetching branches; only unfiltered results are cached.
+     */
+    public Flux<RepositoryBranchesDto> listUserRepositoriesWithBranches(String username, RepositoryQuery query) {
+        if (query.isUnfiltered()) {
+            return listUserRepositoriesWithBranches(username);
+        }
+        return RequestDiagnostics.summarized(username, "filtered", backend.fetchRepositoriesWithBranches(username, query))
+                .doOnError(error -> logger.error("Error occurred while fetching filtered repositories with branches for user: {}", username, error));
+    }
+
+    /**
+     * The repositories of a user as final response bytes, when they can be answered from a watched-user
+     * snapshot or the in-memory result cache without calling GitHub; {@code null} otherwise.
+     */
+    public EncodedResponse encodedRepositories(String username, MediaType mediaType) {
+        List<CompactRepository> retained = watchList.retained(username);
+        if (retained == null) {
+            retained = resultCache.peek(username, () -> load(username));
+        }
+        return retained != null ? encodedResponses.get(username, mediaType, retained) : null;
+    }
+
+    /**
+     * Looks up many users at once. At most {@code maxConcurrentUsers} users are in flight; their branch calls
+     * share the backend's fan-out limiter and all requests share the rate-limit scheduler, so a large batch
+     * is paced like any other traffic. Results are emitted as each user completes, and a failed user becomes
+     * an error record instead of ending the stream.
+     */
+    public Flux<UserRepositoriesDto> listRepositoriesWithBranches(Flux<String> usernames) {
+        return usernames
+                .map(String::trim)
+                .filter(username -> !username.isEmpty())
+                .flatMap(username -> listUserRepositoriesWithBranches(username)
+                                .collectList()
+                                .map(repositories -> UserRepositoriesDto.of(username, repositories))
+                                .onErrorResume(error -> Mono.just(UserRepositoriesDto.failed(username, ErrorBodies.of(error)))),
+                        maxConcurrentUsers);
+    }
+
+    /**
+     * Loads a user through the cluster, which answers from another replica's result when it has one and
+     * otherwise fetches from the backend.
+     */
+    private Flux<RepositoryBranchesDto> load(String username) {
+        return cluster.load(username, () -> recordShape(backend.fetchRepositoriesWithBranches(username)));
+    }
+
+    /**
+     * Records the size distributions on upstream loads only, so results served from the cache are not
+     * counted again.
+     */
+    private Flux<RepositoryBranchesDto> recordShape(Flux<RepositoryBranchesDto> repositories) {
+        return Flux.defer(() -> {
+            AtomicInteger count = new AtomicInteger();
+            return repositories
+                    .doOnNext(repository -> {
+                        count.incrementAndGet();
+                        branchesPerRepository.record(repository.branches().size());
+                    })
+                    .doOnComplete(() -> repositoriesPerUser.record(count.get()));
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meters.add(registry);
     }
 }
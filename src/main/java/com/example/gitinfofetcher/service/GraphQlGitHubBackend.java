@@ -0,0 +1,250 @@
+package com.example.gitinfofetcher.service;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.domain.GitHubRepository;
+import com.example.gitinfofetcher.domain.GitHubUser;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fetches repositories, their branches and head commit SHAs with one paginated GraphQL query instead of
+ * one REST call per repository. Repositories with more branches than fit in a page get follow-up queries
+ * for the remaining refs only.
+ */
+@Component
+@ConditionalOnProperty(name = "github.api.backend", havingValue = "graphql")
+public class GraphQlGitHubBackend implements GitHubBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphQlGitHubBackend.class);
+
+    static final String REPOSITORIES_QUERY = """
+            query($login: String!, $cursor: String, $pageSize: Int!, $refsPageSize: Int!,
+                  $orderField: RepositoryOrderField!, $orderDirection: OrderDirection!) {
+              repositoryOwner(login: $login) {
+                repositories(first: $pageSize, after: $cursor, isFork: false, ownerAffiliations: OWNER,
+                             orderBy: {field: $orderField, direction: $orderDirection}) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes {
+                    name
+                    owner { login }
+                    pushedAt
+                    defaultBranchRef { name target { oid } }
+                    refs(refPrefix: "refs/heads/", first: $refsPageSize) {
+                      pageInfo { hasNextPage endCursor }
+                      nodes { name target { oid } }
+                    }
+                  }
+                }
+              }
+            }""";
+
+    static final String REFS_QUERY = """
+            query($owner: String!, $name: String!, $cursor: String, $refsPageSize: Int!) {
+              repository(owner: $owner, name: $name) {
+                refs(refPrefix: "refs/heads/", first: $refsPageSize, after: $cursor) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes { name target { oid } }
+                }
+              }
+            }""";
+
+    private final WebClient webClient;
+    private final String graphQlPath;
+    private final int pageSize;
+    private final int refsPageSize;
+    private final SingleFlight<String, RepositoryBranchesDto> userCalls = new SingleFlight<>();
+
+    public GraphQlGitHubBackend(WebClient webClient,
+                                @Value("${github.graphql.path:/graphql}") String graphQlPath,
+                                @Value("${github.graphql.page-size:50}") int pageSize,
+                                @Value("${github.graphql.refs-page-size:100}") int refsPageSize) {
+        this.webClient = webClient;
+        this.graphQlPath = graphQlPath;
+        this.pageSize = pageSize;
+        this.refsPageSize = refsPageSize;
+    }
+
+    @Override
+    public Flux<RepositoryBranchesDto> fetchRepositoriesWithBranches(String username) {
+        return userCalls.execute(username, () -> fetchUser(username, RepositoryQuery.ALL));
+    }
+
+    /**
+     * Filtered queries are not coalesced with other callers. Repositories are filtered as their pages
+     * arrive, so excluded repositories never get follow-up refs queries, and paging stops once the limit is
+     * reached or, in push order, the window has been passed. The default branch and its head commit are part
+     * of the repositories query.
+     */
+    @Override
+    public Flux<RepositoryBranchesDto> fetchRepositoriesWithBranches(String username, RepositoryQuery query) {
+        return query.isUnfiltered() ? fetchRepositoriesWithBranches(username) : fetchUser(username, query);
+    }
+
+    private Flux<RepositoryBranchesDto> fetchUser(String username, RepositoryQuery query) {
+        logger.debug("Fetching repositories with branches over GraphQL for user: {}", username);
+        boolean pushedOrder = query.sort() == RepositoryQuery.Sort.PUSHED;
+        Flux<RepositoryNode> repositories = fetchRepositoriesPage(username, null, pushedOrder)
+                .expand(page -> page.pageInfo().hasNextPage()
+                        ? fetchRepositoriesPage(username, page.pageInfo().endCursor(), pushedOrder)
+                        : Mono.empty())
+                .concatMapIterable(Connection::nodes);
+        if (!query.isUnfiltered()) {
+            repositories = repositories
+                    .takeWhile(repository -> query.mayBeFollowedByMatches(repository.toRepository()))
+                    .filter(repository -> query.includes(repository.toRepository()));
+            if (query.maxRepos() > 0) {
+                repositories = repositories.take(query.maxRepos());
+            }
+        }
+        return repositories
+                .concatMap(repository -> query.defaultBranchOnly() ? Mono.just(defaultBranchOf(repository, query)) : toDto(repository, query))
+                .doOnError(e -> logger.error("Error fetching repositories over GraphQL for user: {}", username, e));
+    }
+
+    private Mono<Connection<RepositoryNode>> fetchRepositoriesPage(String username, String cursor, boolean pushedOrder) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("login", username);
+        variables.put("cursor", cursor);
+        variables.put("pageSize", pageSize);
+        variables.put("refsPageSize", refsPageSize);
+        variables.put("orderField", pushedOrder ? "PUSHED_AT" : "FULL_NAME");
+        variables.put("orderDirection", pushedOrder ? "DESC" : "ASC");
+        return execute(REPOSITORIES_QUERY, variables)
+                .flatMap(data -> data.repositoryOwner() == null
+                        ? Mono.error(notFound(username))
+                        : Mono.just(data.repositoryOwner().repositories()));
+    }
+
+    private static RepositoryBranchesDto defaultBranchOf(RepositoryNode repository, RepositoryQuery query) {
+        RefNode ref = repository.defaultBranchRef();
+        List<GitHubBranch> branches = ref != null ? List.of(toBranch(ref)) : List.of();
+        return new RepositoryBranchesDto(repository.name(), repository.owner().login(), query.selectBranches(branches));
+    }
+
+    private Mono<RepositoryBranchesDto> toDto(RepositoryNode repository, RepositoryQuery query) {
+        String owner = repository.owner().login();
+        Connection<RefNode> refs = repository.refs();
+        if (refs == null) {
+            return Mono.just(new RepositoryBranchesDto(repository.name(), owner, List.of()));
+        }
+        Flux<RefNode> remainingRefs = refs.pageInfo().hasNextPage()
+                ? fetchRefsPage(owner, repository.name(), refs.pageInfo().endCursor())
+                .expand(page -> page.pageInfo().hasNextPage()
+                        ? fetchRefsPage(owner, repository.name(), page.pageInfo().endCursor())
+                        : Mono.empty())
+                .concatMapIterable(Connection::nodes)
+                : Flux.empty();
+        return Flux.fromIterable(refs.nodes())
+                .concatWith(remainingRefs)
+                .map(GraphQlGitHubBackend::toBranch)
+                .collectList()
+                .map(branches -> new RepositoryBranchesDto(repository.name(), owner, query.selectBranches(branches)));
+    }
+
+    private static GitHubBranch toBranch(RefNode ref) {
+        return new GitHubBranch(ref.name(), new GitHubCommit(ref.target() != null ? ref.target().oid() : null));
+    }
+
+    private Mono<Connection<RefNode>> fetchRefsPage(String owner, String name, String cursor) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("owner", owner);
+        variables.put("name", name);
+        variables.put("cursor", cursor);
+        variables.put("refsPageSize", refsPageSize);
+        return execute(REFS_QUERY, variables)
+                .map(data -> data.repository() != null ? data.repository().refs() : new Connection<>(new PageInfo(false, null), List.of()));
+    }
+
+    private Mono<Data> execute(String query, Map<String, Object> variables) {
+        return webClient.post()
+                .uri(graphQlPath)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("query", query, "variables", variables))
+                .retrieve()
+                .bodyToMono(GraphQlResponse.class)
+                .flatMap(response -> {
+                    if (response.errors() != null && !response.errors().isEmpty() && response.data() == null) {
+                        return Mono.error(new IllegalStateException("GraphQL query failed: " + response.errors().get(0).message()));
+                    }
+                    return Mono.justOrEmpty(response.data());
+                });
+    }
+
+    private static WebClientResponseException notFound(String username) {
+        logger.debug("GraphQL returned no repository owner for {}", username);
+        byte[] body = "{\"message\":\"Not Found\"}".getBytes(StandardCharsets.UTF_8);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return WebClientResponseException.create(HttpStatus.NOT_FOUND.value(), "Not Found", headers, body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Registered by the application rather than through this bean, which ahead-of-time processing skips
+     * when the image is built for the REST backend.
+     */
+    public static class BindingHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), GraphQlResponse.class);
+        }
+    }
+
+    record GraphQlResponse(Data data, List<GraphQlError> errors) {
+    }
+
+    record GraphQlError(String type, String message) {
+    }
+
+    record Data(RepositoryOwner repositoryOwner, RefsOwner repository) {
+    }
+
+    record RepositoryOwner(Connection<RepositoryNode> repositories) {
+    }
+
+    record RefsOwner(Connection<RefNode> refs) {
+    }
+
+    record Connection<T>(PageInfo pageInfo, List<T> nodes) {
+        Connection {
+            nodes = nodes != null ? nodes : List.of();
+        }
+    }
+
+    record PageInfo(boolean hasNextPage, String endCursor) {
+    }
+
+    record RepositoryNode(String name, GitHubUser owner, Instant pushedAt, RefNode defaultBranchRef, Connection<RefNode> refs) {
+
+        GitHubRepository toRepository() {
+            return new GitHubRepository(name, owner, false, null, defaultBranchRef != null ? defaultBranchRef.name() : null, pushedAt);
+        }
+    }
+
+    record RefNode(String name, Target target) {
+    }
+
+    record Target(String oid) {
+    }
+}
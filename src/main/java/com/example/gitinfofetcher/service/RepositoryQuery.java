@@ -0,0 +1,151 @@
+package com.example.gitinfofetcher.service;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubRepository;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.exceptions.InvalidQueryException;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Narrows the repositories returned for a user. The repository filters and the limit are evaluated against
+ * the repository listing, before any branches are fetched, so excluded repositories never cost an upstream
+ * call. {@code name} and {@code branch} are comma-separated globs ({@code *} and {@code ?}); repository
+ * names match case-insensitively, as on GitHub, branch names exactly.
+ */
+public record RepositoryQuery(Pattern name, Instant pushedAfter, Instant pushedBefore, Sort sort, int maxRepos,
+                              Pattern branch, boolean defaultBranchOnly) {
+
+    public static final RepositoryQuery ALL = new RepositoryQuery(null, null, null, Sort.NONE, 0, null, false);
+
+    public enum Sort {
+        /** The backend's listing order, repositories are emitted as their branches arrive. */
+        NONE,
+        /** By name, case-insensitive. */
+        NAME,
+        /** Most recently pushed first. */
+        PUSHED
+    }
+
+    public static RepositoryQuery of(String name, Instant pushedAfter, Instant pushedBefore, String sort,
+                                     Integer maxRepos, String branch, Boolean defaultBranchOnly) {
+        if (maxRepos != null && maxRepos < 1) {
+            throw new InvalidQueryException("maxRepos must be at least 1");
+        }
+        if (pushedAfter != null && pushedBefore != null && pushedAfter.isAfter(pushedBefore)) {
+            throw new InvalidQueryException("pushedAfter must not be later than pushedBefore");
+        }
+        return new RepositoryQuery(glob(name, true), pushedAfter, pushedBefore, sort(sort),
+                maxRepos != null ? maxRepos : 0, glob(branch, false), Boolean.TRUE.equals(defaultBranchOnly));
+    }
+
+    public boolean isUnfiltered() {
+        return name == null && pushedAfter == null && pushedBefore == null && sort == Sort.NONE && maxRepos == 0
+                && branch == null && !defaultBranchOnly;
+    }
+
+    /**
+     * Whether results have to be emitted in listing order instead of as their branches arrive.
+     */
+    public boolean ordered() {
+        return sort != Sort.NONE;
+    }
+
+    public boolean includes(GitHubRepository repository) {
+        return includesName(repository.name()) && pushedWithinWindow(repository.pushedAt());
+    }
+
+    /**
+     * Whether a listing sorted by push time may still contain matching repositories after this one. Once a
+     * repository was pushed before {@code pushedAfter}, every later one was too, and paging can stop.
+     */
+    public boolean mayBeFollowedByMatches(GitHubRepository repository) {
+        return sort != Sort.PUSHED || pushedAfter == null || repository.pushedAt() == null
+                || !repository.pushedAt().isBefore(pushedAfter);
+    }
+
+    public List<GitHubBranch> selectBranches(List<GitHubBranch> branches) {
+        return branch == null ? branches : branches.stream().filter(b -> branch.matcher(b.name()).matches()).toList();
+    }
+
+    /**
+     * Applies the query to already assembled results, for backends that cannot filter their listing. Push
+     * times and default branches are not part of the results, so queries using them are rejected.
+     */
+    Flux<RepositoryBranchesDto> applyTo(Flux<RepositoryBranchesDto> repositories) {
+        if (pushedAfter != null || pushedBefore != null || sort == Sort.PUSHED || defaultBranchOnly) {
+            return Flux.error(new InvalidQueryException("This backend supports only name, branch, sort=name and maxRepos"));
+        }
+        Flux<RepositoryBranchesDto> selected = repositories
+                .filter(repository -> includesName(repository.repositoryName()))
+                .map(repository -> new RepositoryBranchesDto(repository.repositoryName(), repository.ownerLogin(),
+                        selectBranches(repository.branches()), repository.error()));
+        if (sort == Sort.NAME) {
+            selected = selected.sort(Comparator.comparing(RepositoryBranchesDto::repositoryName, String.CASE_INSENSITIVE_ORDER));
+        }
+        return maxRepos > 0 ? selected.take(maxRepos) : selected;
+    }
+
+    private boolean includesName(String repositoryName) {
+        return name == null || repositoryName != null && name.matcher(repositoryName).matches();
+    }
+
+    private boolean pushedWithinWindow(Instant pushedAt) {
+        if (pushedAfter == null && pushedBefore == null) {
+            return true;
+        }
+        return pushedAt != null
+                && (pushedAfter == null || !pushedAt.isBefore(pushedAfter))
+                && (pushedBefore == null || pushedAt.isBefore(pushedBefore));
+    }
+
+    private static Sort sort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.NONE;
+        }
+        return switch (sort.trim().toLowerCase(Locale.ROOT)) {
+            case "name" -> Sort.NAME;
+            case "pushed" -> Sort.PUSHED;
+            default -> throw new InvalidQueryException("sort must be one of: name, pushed");
+        };
+    }
+
+    static Pattern glob(String globs, boolean caseInsensitive) {
+        if (globs == null || globs.isBlank()) {
+            return null;
+        }
+        StringBuilder regex = new StringBuilder();
+        for (String glob : globs.split(",")) {
+            if (glob.isBlank()) {
+                continue;
+            }
+            if (!regex.isEmpty()) {
+                regex.append('|');
+            }
+            StringBuilder literal = new StringBuilder();
+            for (char c : glob.trim().toCharArray()) {
+                if (c == '*' || c == '?') {
+                    if (!literal.isEmpty()) {
+                        regex.append(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    regex.append(c == '*' ? ".*" : ".");
+                } else {
+                    literal.append(c);
+                }
+            }
+            if (!literal.isEmpty()) {
+                regex.append(Pattern.quote(literal.toString()));
+            }
+        }
+        if (regex.isEmpty()) {
+            return null;
+        }
+        return Pattern.compile(regex.toString(), caseInsensitive ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0);
+    }
+}
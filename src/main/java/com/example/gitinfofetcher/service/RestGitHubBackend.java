@@ -0,0 +1,94 @@
+package com.example.gitinfofetcher.service;
+
+import com.example.gitinfofetcher.client.AdaptiveConcurrencyLimiter;
+import com.example.gitinfofetcher.diagnostics.SampledLogger;
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubRepository;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.exceptions.ErrorBodies;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+@ConditionalOnProperty(name = "github.api.backend", havingValue = "rest", matchIfMissing = true)
+public class RestGitHubBackend implements GitHubBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestGitHubBackend.class);
+    // Per-repository events: a large account produces thousands per request, so at most a sample is logged.
+    private static final SampledLogger detailLogger = new SampledLogger(logger, 20);
+    private final GitHubPaginator paginator;
+    private final AdaptiveConcurrencyLimiter branchFanOutLimiter;
+    private final boolean partialResults;
+    private final SingleFlight<String, GitHubRepository> repositoryCalls = new SingleFlight<>();
+    private final SingleFlight<String, List<GitHubBranch>> branchCalls = new SingleFlight<>();
+
+    public RestGitHubBackend(GitHubPaginator paginator, AdaptiveConcurrencyLimiter branchFanOutLimiter,
+                             @Value("${github.resilience.partial-results:false}") boolean partialResults) {
+        this.paginator = paginator;
+        this.branchFanOutLimiter = branchFanOutLimiter;
+        this.partialResults = partialResults;
+    }
+
+    @Override
+    public Flux<RepositoryBranchesDto> fetchRepositoriesWithBranches(String username) {
+        return fetchRepositoriesWithBranches(username, RepositoryQuery.ALL);
+    }
+
+    /**
+     * Filters and limits the repository listing before the branch fan-out. With {@code sort=pushed} the
+     * listing is requested in push order, so paging stops at the first repository pushed before the window.
+     * In default-branch mode the branch comes from the repository payload and {@code /branches} is not
+     * called; GitHub does not include its head commit there.
+     */
+    @Override
+    public Flux<RepositoryBranchesDto> fetchRepositoriesWithBranches(String username, RepositoryQuery query) {
+        Flux<GitHubRepository> repositories = listUserRepositories(username, query.sort() == RepositoryQuery.Sort.PUSHED);
+        if (!query.isUnfiltered()) {
+            repositories = repositories
+                    .takeWhile(query::mayBeFollowedByMatches)
+                    .filter(query::includes);
+            if (query.maxRepos() > 0) {
+                repositories = repositories.take(query.maxRepos());
+            }
+        }
+        if (query.defaultBranchOnly()) {
+            return repositories.map(repo -> new RepositoryBranchesDto(repo.name(), repo.owner().login(),
+                    query.selectBranches(repo.defaultBranch() != null ? List.of(new GitHubBranch(repo.defaultBranch(), null)) : List.of())));
+        }
+        Function<GitHubRepository, Mono<RepositoryBranchesDto>> withBranches = repo -> branchCalls
+                .execute(repo.owner().login() + "/" + repo.name(), () -> branchFanOutLimiter
+                        .execute(getRepositoryBranches(repo.owner().login(), repo.name()).collectList())
+                        .flux())
+                .next()
+                .map(branches -> new RepositoryBranchesDto(repo.name(), repo.owner().login(), query.selectBranches(branches)))
+                .onErrorResume(error -> partialResults, error -> Mono.just(
+                        RepositoryBranchesDto.failed(repo.name(), repo.owner().login(), ErrorBodies.of(error))));
+        return query.ordered()
+                ? repositories.flatMapSequential(withBranches, branchFanOutLimiter.maxLimit())
+                : repositories.flatMap(withBranches, branchFanOutLimiter.maxLimit());
+    }
+
+    private Flux<GitHubRepository> listUserRepositories(String username, boolean pushedOrder) {
+        String uriTemplate = pushedOrder ? "/users/{username}/repos?sort=pushed&direction=desc" : "/users/{username}/repos";
+        return repositoryCalls.execute(pushedOrder ? username + "?sort=pushed" : username, () -> {
+            logger.debug("Fetching repositories for user: {}", username);
+            return paginator.fetchAll(uriTemplate, GitHubRepository.class, username)
+                    .filter(repo -> !repo.fork())
+                    .doOnError(e -> logger.error("Error fetching repositories for user: {}", username, e));
+        });
+    }
+
+    private Flux<GitHubBranch> getRepositoryBranches(String owner, String repoName) {
+        detailLogger.debug("Fetching branches for repository: {}/{}", owner, repoName);
+        return paginator.fetchAll("/repos/{owner}/{repo}/branches", GitHubBranch.class, owner, repoName)
+                .doOnError(e -> logger.error("Error fetching branches for repository: {}/{}", owner, repoName, e));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.gitinfofetcher.service;
+
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent upstream calls with the same key. The first caller starts the call, callers that
+ * arrive while it is in flight subscribe to the same shared publisher and receive everything it has emitted
+ * so far, and the entry is dropped as soon as the call terminates. A subscriber that cancels only detaches
+ * itself; the upstream call is cancelled once the last subscriber has gone.
+ */
+class SingleFlight<K, T> {
+
+    private final ConcurrentMap<K, Flux<T>> inFlight = new ConcurrentHashMap<>();
+
+    Flux<T> execute(K key, Supplier<Flux<T>> call) {
+        return Flux.defer(() -> inFlight.computeIfAbsent(key, k -> share(k, call)));
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Flux<T> share(K key, Supplier<Flux<T>> call) {
+        Flux<T>[] entry = new Flux[1];
+        entry[0] = Flux.defer(call)
+                .doFinally(signal -> inFlight.remove(key, entry[0]))
+                .replay()
+                .refCount();
+        return entry[0];
+    }
+}
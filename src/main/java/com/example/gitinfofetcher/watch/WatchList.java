@@ -0,0 +1,265 @@
+package com.example.gitinfofetcher.watch;
+
+import com.example.gitinfofetcher.cache.CompactRepository;
+import com.example.gitinfofetcher.cache.NameInterner;
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.dto.BranchChangeDto;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.exceptions.CursorExpiredException;
+import com.example.gitinfofetcher.service.GitHubBackend;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the latest repositories of a fixed set of users in memory and re-syncs them every {@code interval}.
+ * Syncs go through the same WebClient as live requests, so an unchanged listing is revalidated with a
+ * conditional request that GitHub answers with {@code 304} without charging the rate limit. Each sync is
+ * diffed against the previous snapshot and the added, removed and moved branches are appended to a bounded
+ * change log, addressed by a cursor that increases with every change. The first sync of a user reports all of
+ * its branches as added, so replaying the log from the start rebuilds the snapshot.
+ */
+public class WatchList implements MeterBinder, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchList.class);
+    private static final int MAX_INTERNED_NAMES = 100_000;
+
+    private final GitHubBackend backend;
+    private final Set<String> usernames;
+    private final Duration interval;
+    private final int changeLogSize;
+    private final int concurrency;
+    private final Clock clock;
+
+    private final NameInterner names = new NameInterner(MAX_INTERNED_NAMES);
+    private final Map<String, List<CompactRepository>> snapshots = new ConcurrentHashMap<>();
+    private final Deque<BranchChangeDto> changeLog = new ArrayDeque<>();
+    private final Sinks.Many<BranchChangeDto> liveChanges = Sinks.many().multicast().directBestEffort();
+    private final AtomicLong syncs = new AtomicLong();
+    private final AtomicLong failedSyncs = new AtomicLong();
+    private long lastCursor;
+    private Disposable schedule;
+
+    public WatchList(GitHubBackend backend, Collection<String> usernames, Duration interval, int changeLogSize,
+                     int concurrency, Clock clock) {
+        this.backend = backend;
+        this.usernames = usernames.stream()
+                .map(String::trim)
+                .filter(username -> !username.isEmpty())
+                .map(WatchList::key)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        this.interval = interval;
+        this.changeLogSize = changeLogSize;
+        this.concurrency = concurrency;
+        this.clock = clock;
+    }
+
+    public static WatchList disabled() {
+        return new WatchList(null, List.of(), Duration.ZERO, 0, 1, Clock.systemUTC());
+    }
+
+    public synchronized void start() {
+        if (usernames.isEmpty() || schedule != null) {
+            return;
+        }
+        logger.info("Syncing {} watched users every {}", usernames.size(), interval);
+        schedule = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> sync())
+                .subscribe();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (schedule != null) {
+            schedule.dispose();
+            schedule = null;
+        }
+    }
+
+    public boolean isWatched(String username) {
+        return usernames.contains(key(username));
+    }
+
+    /**
+     * The repositories of a watched user as of the last successful sync, or {@code null} if the user is not
+     * watched or has not been synced yet.
+     */
+    public List<RepositoryBranchesDto> snapshot(String username) {
+        List<CompactRepository> snapshot = snapshots.get(key(username));
+        return snapshot != null ? CompactRepository.toDtos(snapshot) : null;
+    }
+
+    /**
+     * The compact form of {@link #snapshot}. The same list is returned until the next sync replaces it.
+     */
+    public List<CompactRepository> retained(String username) {
+        return snapshots.get(key(username));
+    }
+
+    /**
+     * Syncs every watched user once. A failed user keeps its previous snapshot.
+     */
+    public Mono<Void> sync() {
+        return Flux.fromIterable(usernames)
+                .flatMap(username -> backend.fetchRepositoriesWithBranches(username)
+                        .collectList()
+                        .flatMap(repositories -> repositories.stream().anyMatch(repository -> repository.error() != null)
+                                ? Mono.error(new IllegalStateException("partial result"))
+                                : Mono.just(repositories))
+                        .doOnNext(repositories -> update(username, repositories))
+                        .onErrorResume(error -> {
+                            failedSyncs.incrementAndGet();
+                            logger.warn("Sync of watched user {} failed, keeping the previous snapshot: {}", username, error.toString());
+                            return Mono.empty();
+                        }), concurrency)
+                .then();
+    }
+
+    /**
+     * Changes after {@code cursor}, oldest first. With {@code follow} the stream stays open and emits new
+     * changes as later syncs detect them.
+     */
+    public Flux<BranchChangeDto> changes(long cursor, boolean follow) {
+        if (!follow) {
+            return Flux.defer(() -> Flux.fromIterable(changesSince(cursor)));
+        }
+        return Flux.create(sink -> {
+            // the backlog is read and the live subscription made under the lock that appends changes, so
+            // no change is missed or delivered twice
+            synchronized (this) {
+                changesSince(cursor).forEach(sink::next);
+                sink.onDispose(liveChanges.asFlux().subscribe(sink::next));
+            }
+        });
+    }
+
+    private synchronized List<BranchChangeDto> changesSince(long cursor) {
+        BranchChangeDto oldest = changeLog.peekFirst();
+        if (oldest != null && cursor < oldest.cursor() - 1) {
+            throw new CursorExpiredException("Cursor " + cursor + " is older than the retained change log, which starts after "
+                    + (oldest.cursor() - 1));
+        }
+        return changeLog.stream().filter(change -> change.cursor() > cursor).toList();
+    }
+
+    private void update(String username, List<RepositoryBranchesDto> repositories) {
+        syncs.incrementAndGet();
+        List<CompactRepository> previous = snapshots.put(username, CompactRepository.of(repositories, names));
+        Map<String, Head> before = heads(previous != null ? CompactRepository.toDtos(previous) : List.of());
+        Map<String, Head> after = heads(repositories);
+        Instant now = clock.instant();
+        List<Change> changed = new ArrayList<>();
+        after.forEach((key, head) -> {
+            Head old = before.get(key);
+            if (old == null || !Objects.equals(old.sha(), head.sha())) {
+                changed.add(new Change(old, head));
+            }
+        });
+        before.forEach((key, head) -> {
+            if (!after.containsKey(key)) {
+                changed.add(new Change(head, null));
+            }
+        });
+        if (changed.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            for (Change change : changed) {
+                append(username, change.before(), change.after(), now);
+            }
+        }
+        logger.info("Sync of watched user {} found {} branch changes", username, changed.size());
+    }
+
+    private void append(String username, Head before, Head after, Instant now) {
+        Head head = after != null ? after : before;
+        BranchChangeDto.Type type = before == null ? BranchChangeDto.Type.ADDED
+                : after == null ? BranchChangeDto.Type.REMOVED : BranchChangeDto.Type.MOVED;
+        BranchChangeDto change = new BranchChangeDto(++lastCursor, username, head.repositoryName(), head.ownerLogin(),
+                head.branch(), type, before != null ? before.sha() : null, after != null ? after.sha() : null, now);
+        changeLog.addLast(change);
+        while (changeLog.size() > changeLogSize) {
+            changeLog.removeFirst();
+        }
+        liveChanges.tryEmitNext(change);
+    }
+
+    private static Map<String, Head> heads(List<RepositoryBranchesDto> repositories) {
+        Map<String, Head> heads = new LinkedHashMap<>();
+        for (RepositoryBranchesDto repository : repositories) {
+            for (GitHubBranch branch : repository.branches()) {
+                String sha = branch.commit() != null ? branch.commit().getSha() : null;
+                heads.put(repository.ownerLogin() + "/" + repository.repositoryName() + ":" + branch.name(),
+                        new Head(repository.repositoryName(), repository.ownerLogin(), branch.name(), sha));
+            }
+        }
+        return heads;
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    public int watchedUsers() {
+        return usernames.size();
+    }
+
+    public synchronized long lastCursor() {
+        return lastCursor;
+    }
+
+    public long syncs() {
+        return syncs.get();
+    }
+
+    public long failedSyncs() {
+        return failedSyncs.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("github.watch.users", this, WatchList::watchedUsers)
+                .register(registry);
+        FunctionCounter.builder("github.watch.syncs", this, WatchList::syncs)
+                .description("Successful syncs of watched users")
+                .register(registry);
+        FunctionCounter.builder("github.watch.syncs.failed", this, WatchList::failedSyncs)
+                .register(registry);
+        FunctionCounter.builder("github.watch.changes", this, WatchList::lastCursor)
+                .description("Branch changes detected in watched users")
+                .register(registry);
+    }
+
+    private record Head(String repositoryName, String ownerLogin, String branch, String sha) {
+    }
+
+    private record Change(Head before, Head after) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.gitinfofetcher.blocking;
+
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.dto.UserRepositoriesDto;
+import com.example.gitinfofetcher.exceptions.ErrorBodies;
+import com.example.gitinfofetcher.service.GitHubService;
+import org.springframework.http.HttpStatus;
+import reactor.core.Exceptions;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Synchronous access to {@link GitHubService} for blocking callers such as Spring MVC controllers and batch
+ * jobs. Every user lookup runs on its own virtual thread inside a {@link StructuredTaskScope}, so ten
+ * thousand concurrent callers cost ten thousand cheap threads rather than a platform thread pool sized for
+ * them. Each call has a deadline; when it passes, or the caller is interrupted, the scope interrupts the
+ * lookups still running, and interrupting a blocked lookup cancels its upstream requests.
+ * <p>
+ * Lookups go through the regular service, so they share its caches, request coalescing, branch fan-out
+ * limit and rate-limit scheduling with reactive callers.
+ */
+public class BlockingGitHubService {
+
+    private final GitHubService service;
+    private final Duration timeout;
+
+    public BlockingGitHubService(GitHubService service, Duration timeout) {
+        this.service = service;
+        this.timeout = timeout;
+    }
+
+    /**
+     * The repositories of one user. Errors from GitHub are rethrown as they are raised by the reactive
+     * service; a lookup that misses the deadline fails with {@link LookupTimeoutException}.
+     */
+    public List<RepositoryBranchesDto> listUserRepositoriesWithBranches(String username) {
+        try (StructuredTaskScope.ShutdownOnFailure scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            Subtask<List<RepositoryBranchesDto>> lookup = scope.fork(() -> lookup(username));
+            scope.joinUntil(Instant.now().plus(timeout));
+            scope.throwIfFailed(BlockingGitHubService::rethrow);
+            return lookup.get();
+        } catch (TimeoutException e) {
+            throw new LookupTimeoutException("Lookup of user " + username + " did not finish within " + timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while looking up user " + username);
+        }
+    }
+
+    /**
+     * Looks up many users concurrently, one virtual thread each, under a single deadline for the whole
+     * batch. As with the bulk endpoint a failed user becomes an error record instead of failing the others;
+     * users still running at the deadline are cancelled and reported with status 504.
+     */
+    public List<UserRepositoriesDto> listRepositoriesWithBranches(Collection<String> usernames) {
+        Map<String, Subtask<List<RepositoryBranchesDto>>> lookups = new LinkedHashMap<>();
+        try (StructuredTaskScope<List<RepositoryBranchesDto>> scope = new StructuredTaskScope<>()) {
+            for (String username : usernames) {
+                String trimmed = username.trim();
+                if (!trimmed.isEmpty() && !lookups.containsKey(trimmed)) {
+                    lookups.put(trimmed, scope.fork(() -> lookup(trimmed)));
+                }
+            }
+            try {
+                scope.joinUntil(Instant.now().plus(timeout));
+            } catch (TimeoutException e) {
+                scope.shutdown();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while looking up " + lookups.size() + " users");
+        }
+        List<UserRepositoriesDto> results = new ArrayList<>(lookups.size());
+        lookups.forEach((username, lookup) -> results.add(switch (lookup.state()) {
+            case SUCCESS -> UserRepositoriesDto.of(username, lookup.get());
+            case FAILED -> UserRepositoriesDto.failed(username, ErrorBodies.of(Exceptions.unwrap(lookup.exception())));
+            case UNAVAILABLE -> UserRepositoriesDto.failed(username, ErrorBodies.of(HttpStatus.GATEWAY_TIMEOUT.value(),
+                    "Lookup did not finish within " + timeout));
+        }));
+        return results;
+    }
+
+    private List<RepositoryBranchesDto> lookup(String username) {
+        return service.listUserRepositoriesWithBranches(username).collectList().block();
+    }
+
+    private static RuntimeException rethrow(Throwable error) {
+        Throwable unwrapped = Exceptions.unwrap(error);
+        return unwrapped instanceof RuntimeException runtime ? runtime : new IllegalStateException(unwrapped);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.gitinfofetcher.blocking;
+
+public class LookupTimeoutException extends RuntimeException {
+
+    public LookupTimeoutException(String message) {
+        super(message);
+    }
+}
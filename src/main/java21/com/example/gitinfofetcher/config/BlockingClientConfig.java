@@ -0,0 +1,19 @@
+package com.example.gitinfofetcher.config;
+
+import com.example.gitinfofetcher.blocking.BlockingGitHubService;
+import com.example.gitinfofetcher.service.GitHubService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class BlockingClientConfig {
+
+    @Bean
+    public BlockingGitHubService blockingGitHubService(GitHubService gitHubService,
+                                                       @Value("${github.blocking.timeout:30s}") Duration timeout) {
+        return new BlockingGitHubService(gitHubService, timeout);
+    }
+}
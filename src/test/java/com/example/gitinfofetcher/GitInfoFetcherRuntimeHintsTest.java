@@ -0,0 +1,35 @@
+package com.example.gitinfofetcher;
+
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.domain.GitHubRepository;
+import com.example.gitinfofetcher.dto.BranchChangeDto;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.service.GraphQlGitHubBackend;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GitInfoFetcherRuntimeHintsTest {
+
+    @Test
+    void shouldRegisterBindingHintsForJacksonBoundTypes() throws NoSuchMethodException {
+        RuntimeHints hints = new RuntimeHints();
+        new GitInfoFetcherRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(RepositoryBranchesDto.class.getMethod("repositoryName")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(GitHubRepository.class.getDeclaredConstructors()[0]).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(GitHubCommit.class.getMethod("getSha")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(BranchChangeDto.Type.class).test(hints));
+    }
+
+    @Test
+    void shouldRegisterBindingHintsForGraphQlResponses() throws ClassNotFoundException {
+        RuntimeHints hints = new RuntimeHints();
+        new GraphQlGitHubBackend.BindingHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(Class.forName(GraphQlGitHubBackend.class.getName() + "$RepositoryNode")).test(hints));
+    }
+}
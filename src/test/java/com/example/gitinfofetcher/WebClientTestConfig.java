@@ -1,13 +1,37 @@
 package com.example.gitinfofetcher;
 
+import com.example.gitinfofetcher.client.GitHubClientObservationConvention;
+import com.example.gitinfofetcher.client.GitHubJsonDecoder;
+import com.example.gitinfofetcher.client.RateLimitScheduler;
+import com.example.gitinfofetcher.diagnostics.UpstreamTimingFilter;
+import com.fasterxml.jackson.core.JsonFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Clock;
+import java.time.Duration;
+
 @TestConfiguration
 public class WebClientTestConfig {
 
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public ObservationRegistry observationRegistry(MeterRegistry meterRegistry) {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        return registry;
+    }
+
     @Bean
     @Primary
     public WebClient.Builder webClientBuilder() {
@@ -16,7 +40,13 @@ public class WebClientTestConfig {
 
     @Bean
     @Primary
-    public WebClient webClient(WebClient.Builder builder) {
-        return builder.baseUrl("http://localhost:8089").build();
+    public WebClient webClient(WebClient.Builder builder, ObservationRegistry observationRegistry) {
+        return builder.baseUrl("http://localhost:8089")
+                .observationRegistry(observationRegistry)
+                .observationConvention(new GitHubClientObservationConvention())
+                .codecs(codecs -> codecs.customCodecs().register(new GitHubJsonDecoder(new JsonFactory())))
+                .filter(new RateLimitScheduler(Duration.ofSeconds(1), 0.1, Clock.systemUTC()))
+                .filter(new UpstreamTimingFilter())
+                .build();
     }
 }
@@ -0,0 +1,76 @@
+package com.example.gitinfofetcher.cache;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the heap retained by a million cached branches as decoded DTOs and as {@link CompactRepository}.
+ * Names are fresh strings per branch, as the decoder produces them, and most repositories share a few
+ * common branch names.
+ */
+public class CompactRepositoryMemoryBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompactRepositoryMemoryBenchmarkTest.class);
+
+    private static final int REPOSITORIES = 20_000;
+    private static final int BRANCHES_PER_REPOSITORY = 50;
+    private static final String[] COMMON_NAMES = {"main", "master", "develop", "gh-pages", "release"};
+
+    @Test
+    void compactLayoutRetainsFarLessHeapThanDtos() {
+        long baseline = usedHeapAfterGc();
+        List<RepositoryBranchesDto> dtos = dataset();
+        long dtoBytes = usedHeapAfterGc() - baseline;
+
+        List<CompactRepository> compact = CompactRepository.of(dtos, new NameInterner(100_000));
+        long branches = dtos.stream().mapToLong(repository -> repository.branches().size()).sum();
+        dtos = null;
+        long compactBytes = usedHeapAfterGc() - baseline;
+
+        logger.info("{} branches: DTOs {} MB ({} bytes/branch), compact {} MB ({} bytes/branch)",
+                branches, dtoBytes >> 20, dtoBytes / branches, compactBytes >> 20, compactBytes / branches);
+        assertEquals((long) REPOSITORIES * BRANCHES_PER_REPOSITORY, branches);
+        assertEquals(REPOSITORIES, compact.size());
+        assertTrue(compactBytes * 3 < dtoBytes,
+                "compact layout should retain under a third of the heap (" + compactBytes + " vs " + dtoBytes + " bytes)");
+    }
+
+    private static List<RepositoryBranchesDto> dataset() {
+        Random random = new Random(42);
+        HexFormat hex = HexFormat.of();
+        byte[] sha = new byte[CompactRepository.SHA_BYTES];
+        List<RepositoryBranchesDto> repositories = new ArrayList<>(REPOSITORIES);
+        for (int r = 0; r < REPOSITORIES; r++) {
+            List<GitHubBranch> branches = new ArrayList<>(BRANCHES_PER_REPOSITORY);
+            for (int b = 0; b < BRANCHES_PER_REPOSITORY; b++) {
+                String name = b < COMMON_NAMES.length ? COMMON_NAMES[b] : (random.nextInt(10) < 7 ? "feature-" + random.nextInt(50) : "topic-" + r + "-" + b);
+                random.nextBytes(sha);
+                branches.add(new GitHubBranch(new String(name), new GitHubCommit(hex.formatHex(sha))));
+            }
+            repositories.add(new RepositoryBranchesDto("repo-" + r, new String("user-" + (r / 30)), branches));
+        }
+        return repositories;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
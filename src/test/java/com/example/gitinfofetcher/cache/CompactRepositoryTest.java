@@ -0,0 +1,65 @@
+package com.example.gitinfofetcher.cache;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class CompactRepositoryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldSerializeExactlyLikeTheOriginalDto() throws JsonProcessingException {
+        RepositoryBranchesDto repository = new RepositoryBranchesDto("Hello-World", "octocat", List.of(
+                new GitHubBranch("master", new GitHubCommit("7fd1a60b01f91b314f59955a4e4d4e80d8edf11d")),
+                new GitHubBranch("upper", new GitHubCommit("7FD1A60B01F91B314F59955A4E4D4E80D8EDF11D")),
+                new GitHubBranch("short", new GitHubCommit("7fd1a60")),
+                new GitHubBranch("no-sha", new GitHubCommit(null)),
+                new GitHubBranch("no-commit", null)));
+
+        CompactRepository compact = CompactRepository.of(repository, new NameInterner(100));
+
+        assertEquals(objectMapper.writeValueAsString(repository), objectMapper.writeValueAsString(compact.toDto()));
+        assertEquals(5, compact.branchCount());
+        assertEquals("7fd1a60b01f91b314f59955a4e4d4e80d8edf11d", compact.sha(0));
+        assertEquals("7fd1a60", compact.sha(2));
+        assertNull(compact.sha(3));
+        assertNull(compact.toDto().branches().get(4).commit());
+    }
+
+    @Test
+    void shouldShareBranchNamesAcrossRepositories() {
+        NameInterner names = new NameInterner(100);
+        CompactRepository first = CompactRepository.of(repository("repo-1", new String("main")), names);
+        CompactRepository second = CompactRepository.of(repository("repo-2", new String("main")), names);
+
+        assertSame(first.branchName(0), second.branchName(0));
+        assertSame(first.ownerLogin(), second.ownerLogin());
+        assertEquals(4, names.size());
+    }
+
+    @Test
+    void shouldStopInterningOnceTheTableIsFull() {
+        NameInterner names = new NameInterner(1);
+        String main = names.intern(new String("main"));
+
+        String develop = new String("develop");
+        assertSame(develop, names.intern(develop));
+        assertSame(main, names.intern(new String("main")));
+        assertEquals(1, names.size());
+    }
+
+    private static RepositoryBranchesDto repository(String name, String branch) {
+        return new RepositoryBranchesDto(name, new String("octocat"), List.of(
+                new GitHubBranch(branch, new GitHubCommit("553c2077f0edc3d5dc5d17262f6aa498e69d6f8e"))));
+    }
+}
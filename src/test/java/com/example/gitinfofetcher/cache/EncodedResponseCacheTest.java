@@ -0,0 +1,65 @@
+package com.example.gitinfofetcher.cache;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EncodedResponseCacheTest {
+
+    private final NameInterner names = new NameInterner(100);
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntriesBeyondTheByteBudget() {
+        List<CompactRepository> octocat = repositories("octocat", 1);
+        List<CompactRepository> torvalds = repositories("torvalds", 1);
+        List<CompactRepository> gaearon = repositories("gaearon", 1);
+        int size = new EncodedResponseCache(10, Long.MAX_VALUE, new ObjectMapper())
+                .get("octocat", MediaType.APPLICATION_JSON, octocat).size();
+        EncodedResponseCache cache = new EncodedResponseCache(10, 2L * size + size / 2, new ObjectMapper());
+
+        EncodedResponse first = cache.get("octocat", MediaType.APPLICATION_JSON, octocat);
+        cache.get("torvalds", MediaType.APPLICATION_JSON, torvalds);
+        assertSame(first, cache.get("octocat", MediaType.APPLICATION_JSON, octocat));
+        cache.get("gaearon", MediaType.APPLICATION_JSON, gaearon);
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.bytes() <= 2L * size + size / 2);
+        assertSame(first, cache.get("octocat", MediaType.APPLICATION_JSON, octocat));
+        assertEquals(3, cache.encodes());
+        cache.get("torvalds", MediaType.APPLICATION_JSON, torvalds);
+        assertEquals(4, cache.encodes(), "torvalds was the least recently used and had been evicted");
+    }
+
+    @Test
+    void shouldNotKeepResponsesLargerThanTheByteBudget() {
+        EncodedResponseCache cache = new EncodedResponseCache(10, 64, new ObjectMapper());
+        List<CompactRepository> large = repositories("octocat", 20);
+
+        EncodedResponse response = cache.get("octocat", MediaType.APPLICATION_JSON, large);
+
+        assertTrue(response.size() > 64);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.bytes());
+        assertFalse(response.content().isDirect());
+    }
+
+    private List<CompactRepository> repositories(String owner, int count) {
+        List<RepositoryBranchesDto> repositories = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            repositories.add(new RepositoryBranchesDto("repo-" + i, owner, List.of(
+                    new GitHubBranch("main", new GitHubCommit("7fd1a60b01f91b314f59955a4e4d4e80d8edf11d")))));
+        }
+        return CompactRepository.of(repositories, names);
+    }
+}
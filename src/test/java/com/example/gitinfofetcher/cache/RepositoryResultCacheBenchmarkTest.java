@@ -0,0 +1,122 @@
+package com.example.gitinfofetcher.cache;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures time to the first answer after a restart and per-lookup latency for a memory-only cache and for
+ * one backed by the disk tier. Upstream is simulated with a fixed {@link #UPSTREAM_LATENCY}.
+ */
+public class RepositoryResultCacheBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryResultCacheBenchmarkTest.class);
+
+    private static final int USERS = 2_000;
+    private static final int REPOSITORIES_PER_USER = 30;
+    private static final int LOOKUPS = 20_000;
+    private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(500);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void diskTierAnswersFirstRequestAfterRestartWithoutUpstream() throws IOException {
+        Path file = tempDir.resolve("results.log");
+        try (RepositoryResultCache warm = cache(USERS, file)) {
+            for (int user = 0; user < USERS; user++) {
+                warm.get("user-" + user, upstream(user, Duration.ZERO)).blockLast();
+            }
+            while (warm.diskEntries() < USERS) {
+                Thread.onSpinWait();
+            }
+        }
+        logger.info("disk tier: {} users, {} KB", USERS, Files.size(file) / 1024);
+
+        long memoryOnlyStart = System.nanoTime();
+        RepositoryResultCache memoryOnly = cache(USERS, null);
+        memoryOnly.get("user-42", upstream(42, UPSTREAM_LATENCY)).blockLast();
+        double memoryOnlyFirstMillis = (System.nanoTime() - memoryOnlyStart) / 1e6;
+
+        long diskStart = System.nanoTime();
+        RepositoryResultCache withDisk = cache(USERS, file);
+        double constructMillis = (System.nanoTime() - diskStart) / 1e6;
+        long first = withDisk.get("user-42", upstream(42, UPSTREAM_LATENCY)).count().block();
+        double diskFirstMillis = (System.nanoTime() - diskStart) / 1e6;
+
+        logger.info("first response after restart: memory only {} ms (upstream), with disk tier {} ms (construction {} ms)",
+                format(memoryOnlyFirstMillis), format(diskFirstMillis), format(constructMillis));
+        assertEquals(REPOSITORIES_PER_USER, first);
+        assertEquals(1, withDisk.diskHits());
+        assertTrue(diskFirstMillis < memoryOnlyFirstMillis,
+                "disk tier should answer before upstream (" + diskFirstMillis + " vs " + memoryOnlyFirstMillis + " ms)");
+
+        double[] memoryHits = measure(memoryOnly, i -> "user-42");
+        RepositoryResultCache diskOnlyHits = cache(1, file);
+        double[] diskHits = measure(diskOnlyHits, i -> "user-" + (i % USERS));
+        logger.info("memory hit latency: p50 {} us, p99 {} us", format(percentile(memoryHits, 0.5)), format(percentile(memoryHits, 0.99)));
+        logger.info("disk hit latency:   p50 {} us, p99 {} us", format(percentile(diskHits, 0.5)), format(percentile(diskHits, 0.99)));
+        assertEquals(0, diskOnlyHits.misses());
+        assertTrue(percentile(memoryHits, 0.5) < percentile(diskHits, 0.5));
+
+        memoryOnly.close();
+        withDisk.close();
+        diskOnlyHits.close();
+    }
+
+    private static double[] measure(RepositoryResultCache cache, IntFunction<String> user) {
+        for (int i = 0; i < LOOKUPS / 10; i++) {
+            cache.get(user.apply(i), () -> Flux.error(new AssertionError("unexpected upstream call"))).blockLast();
+        }
+        double[] micros = new double[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            long start = System.nanoTime();
+            cache.get(user.apply(i), () -> Flux.error(new AssertionError("unexpected upstream call"))).blockLast();
+            micros[i] = (System.nanoTime() - start) / 1e3;
+        }
+        Arrays.sort(micros);
+        return micros;
+    }
+
+    private static RepositoryResultCache cache(int maxEntries, Path diskPath) {
+        return new RepositoryResultCache(maxEntries, Duration.ofHours(1), 0.8, Duration.ofHours(1),
+                diskPath, new ObjectMapper(), Clock.systemUTC());
+    }
+
+    private static Supplier<Flux<RepositoryBranchesDto>> upstream(int user, Duration latency) {
+        List<RepositoryBranchesDto> repositories = IntStream.range(0, REPOSITORIES_PER_USER)
+                .mapToObj(i -> new RepositoryBranchesDto("repo-" + i, "user-" + user, List.of(
+                        new GitHubBranch("main", new GitHubCommit("7fd1a60b01f91b314f59955a4e4d4e80d8edf11d")),
+                        new GitHubBranch("develop", new GitHubCommit("553c2077f0edc3d5dc5d17262f6aa498e69d6f8e")))))
+                .toList();
+        return () -> Flux.fromIterable(repositories).delaySubscription(latency);
+    }
+
+    private static double percentile(double[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static String format(double value) {
+        return String.format("%.1f", value);
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.gitinfofetcher.cache;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RepositoryResultCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final Duration MAX_STALE = Duration.ofHours(1);
+
+    @TempDir
+    Path tempDir;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void shouldServeFreshEntryFromMemoryWithoutCallingUpstream() {
+        RepositoryResultCache cache = cache(10, null);
+
+        assertEquals(List.of("v1"), fetch(cache, loader("v1")));
+        assertEquals(List.of("v1"), fetch(cache, loader("v2")));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.memoryHits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void shouldRefreshAheadInBackgroundWhileServingCachedEntry() {
+        RepositoryResultCache cache = cache(10, null);
+        fetch(cache, loader("v1"));
+
+        clock.advance(Duration.ofMinutes(9));
+        assertEquals(List.of("v1"), fetch(cache, loader("v2")));
+        assertEquals(List.of("v2"), fetch(cache, loader("v3")));
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.refreshes());
+    }
+
+    @Test
+    void shouldServeStaleEntryWhileRevalidatingAndKeepItWhenRevalidationFails() {
+        RepositoryResultCache cache = cache(10, null);
+        fetch(cache, loader("v1"));
+
+        clock.advance(TTL.plusMinutes(5));
+        Supplier<Flux<RepositoryBranchesDto>> failing = () -> {
+            loads.incrementAndGet();
+            return Flux.error(new IllegalStateException("GitHub unavailable"));
+        };
+        assertEquals(List.of("v1"), fetch(cache, failing));
+        assertEquals(List.of("v1"), fetch(cache, failing));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void shouldLoadSynchronouslyOnceEntryIsPastMaxStale() {
+        RepositoryResultCache cache = cache(10, null);
+        fetch(cache, loader("v1"));
+
+        clock.advance(TTL.plus(MAX_STALE));
+        assertEquals(List.of("v2"), fetch(cache, loader("v2")));
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void shouldNotCacheFailedLoads() {
+        RepositoryResultCache cache = cache(10, null);
+
+        StepVerifier.create(cache.get("octocat", () -> Flux.error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertEquals(List.of("v1"), fetch(cache, loader("v1")));
+        assertEquals(0, cache.memoryHits());
+    }
+
+    @Test
+    void shouldFallBackToDiskForEntriesEvictedFromMemory() {
+        RepositoryResultCache cache = cache(1, tempDir.resolve("results.log"));
+        fetch(cache, "octocat", loader("octocat-v1"));
+        fetch(cache, "torvalds", loader("torvalds-v1"));
+        awaitDiskEntries(cache, 2);
+
+        assertEquals(List.of("octocat-v1"), fetch(cache, "octocat", loader("octocat-v2")));
+        assertEquals(1, cache.diskHits());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldServeEntriesPersistedBeforeRestart() throws IOException {
+        Path file = tempDir.resolve("results.log");
+        RepositoryResultCache beforeRestart = cache(10, file);
+        fetch(beforeRestart, loader("v1"));
+        awaitDiskEntries(beforeRestart, 1);
+        beforeRestart.close();
+
+        RepositoryResultCache afterRestart = cache(10, file);
+        assertEquals(List.of("v1"), fetch(afterRestart, loader("v2")));
+        assertEquals(1, afterRestart.diskHits());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldIgnoreRecordTruncatedByCrash() throws IOException {
+        Path file = tempDir.resolve("results.log");
+        RepositoryResultCache beforeCrash = cache(10, file);
+        fetch(beforeCrash, loader("v1"));
+        awaitDiskEntries(beforeCrash, 1);
+        beforeCrash.close();
+        Files.write(file, new byte[]{0, 0, 1, 0, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        RepositoryResultCache afterCrash = cache(10, file);
+        assertEquals(List.of("v1"), fetch(afterCrash, loader("v2")));
+        fetch(afterCrash, "torvalds", loader("torvalds-v1"));
+        awaitDiskEntries(afterCrash, 2);
+        afterCrash.close();
+
+        try (DiskResultStore store = new DiskResultStore(file, new ObjectMapper(), new NameInterner(100))) {
+            assertEquals("torvalds-v1", store.read("torvalds").repositories().get(0).repositoryName());
+            assertEquals(2, store.entries());
+        }
+    }
+
+    @Test
+    void shouldCompactSupersededRecords() throws IOException {
+        Path file = tempDir.resolve("results.log");
+        NameInterner names = new NameInterner(100);
+        try (DiskResultStore store = new DiskResultStore(file, new ObjectMapper(), names, 4096)) {
+            for (int i = 0; i < 200; i++) {
+                store.append("octocat", new CachedResult(CompactRepository.of(List.of(repository("octocat-v" + i)), names), clock.instant()));
+                store.append("torvalds", new CachedResult(CompactRepository.of(List.of(repository("torvalds-v1")), names), clock.instant()));
+            }
+
+            assertTrue(store.compactions() > 0);
+            assertTrue(store.size() < 4096, "file should have been compacted, was " + store.size() + " bytes");
+            assertEquals("octocat-v199", store.read("octocat").repositories().get(0).repositoryName());
+        }
+        assertFalse(Files.exists(tempDir.resolve("results.log.compact")));
+        try (DiskResultStore reopened = new DiskResultStore(file, new ObjectMapper(), names)) {
+            assertEquals("octocat-v199", reopened.read("octocat").repositories().get(0).repositoryName());
+            assertEquals("torvalds-v1", reopened.read("torvalds").repositories().get(0).repositoryName());
+            assertEquals(2, reopened.entries());
+        }
+    }
+
+    @Test
+    void shouldSeedAnotherInstanceFromAnExportedSnapshot() throws IOException {
+        Path file = tempDir.resolve("results.snapshot");
+        RepositoryResultCache exporting = cache(1, tempDir.resolve("results.log"));
+        fetch(exporting, "octocat", loader("octocat-v1"));
+        fetch(exporting, "torvalds", loader("torvalds-v1"));
+        awaitDiskEntries(exporting, 2);
+
+        SnapshotSummary exported = exporting.exportSnapshot(file);
+
+        assertEquals(2, exported.users());
+        RepositoryResultCache seeded = cache(10, null);
+        assertEquals(2, seeded.importSnapshot(file).users());
+        assertEquals(List.of("octocat-v1"), fetch(seeded, "octocat", loader("octocat-v2")));
+        assertEquals(List.of("torvalds-v1"), fetch(seeded, "torvalds", loader("torvalds-v2")));
+        assertEquals(List.of("torvalds-v1"), fetch(seeded, "torvalds", loader("torvalds-v2")));
+        assertEquals(2, seeded.snapshotHits());
+        assertEquals(1, seeded.memoryHits());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldNotServeSnapshotEntriesPastMaxStale() throws IOException {
+        Path file = tempDir.resolve("results.snapshot");
+        RepositoryResultCache exporting = cache(10, null);
+        fetch(exporting, loader("v1"));
+        exporting.exportSnapshot(file);
+
+        clock.advance(TTL.plus(MAX_STALE));
+        RepositoryResultCache seeded = cache(10, null);
+        seeded.importSnapshot(file);
+
+        assertEquals(List.of("v2"), fetch(seeded, loader("v2")));
+        assertEquals(0, seeded.snapshotHits());
+        assertEquals(1, seeded.misses());
+    }
+
+    private RepositoryResultCache cache(int maxEntries, Path diskPath) {
+        return new RepositoryResultCache(maxEntries, TTL, 0.8, MAX_STALE, diskPath, new ObjectMapper(), clock);
+    }
+
+    private Supplier<Flux<RepositoryBranchesDto>> loader(String version) {
+        return () -> {
+            loads.incrementAndGet();
+            return Flux.just(repository(version));
+        };
+    }
+
+    private static List<String> fetch(RepositoryResultCache cache, Supplier<Flux<RepositoryBranchesDto>> loader) {
+        return fetch(cache, "octocat", loader);
+    }
+
+    private static List<String> fetch(RepositoryResultCache cache, String username, Supplier<Flux<RepositoryBranchesDto>> loader) {
+        return cache.get(username, loader).map(RepositoryBranchesDto::repositoryName).collectList().block(Duration.ofSeconds(5));
+    }
+
+    private static RepositoryBranchesDto repository(String name) {
+        return new RepositoryBranchesDto(name, "octocat",
+                List.of(new GitHubBranch("main", new GitHubCommit("7fd1a60b01f91b314f59955a4e4d4e80d8edf11d"))));
+    }
+
+    private static void awaitDiskEntries(RepositoryResultCache cache, int expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (cache.diskEntries() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("expected " + expected + " records on disk");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.gitinfofetcher.cache;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResultSnapshotTest {
+
+    private static final Instant FETCHED_AT = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant CREATED_AT = Instant.parse("2024-01-01T00:05:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldRoundTripEveryResultExactly() throws IOException {
+        List<RepositoryBranchesDto> octocat = List.of(
+                new RepositoryBranchesDto("Hello-World", "octocat", List.of(
+                        new GitHubBranch("master", new GitHubCommit("7fd1a60b01f91b314f59955a4e4d4e80d8edf11d")),
+                        new GitHubBranch("upper", new GitHubCommit("7FD1A60B01F91B314F59955A4E4D4E80D8EDF11D")),
+                        new GitHubBranch("short", new GitHubCommit("7fd1a60")),
+                        new GitHubBranch("no-sha", new GitHubCommit(null)),
+                        new GitHubBranch("no-commit", null),
+                        new GitHubBranch("fix/ünïcödé-🚀", new GitHubCommit("553c2077f0edc3d5dc5d17262f6aa498e69d6f8e")))),
+                new RepositoryBranchesDto("empty", "octocat", List.of()),
+                RepositoryBranchesDto.failed("broken", "octocat", Map.of("status", 500, "message", "Server Error")));
+        List<RepositoryBranchesDto> torvalds = List.of(new RepositoryBranchesDto("linux", "torvalds",
+                List.of(new GitHubBranch("master", new GitHubCommit("0000000000000000000000000000000000000000")))));
+        Path file = tempDir.resolve("results.snapshot");
+
+        long bytes = write(file, Map.of("octocat", octocat, "torvalds", torvalds));
+
+        assertEquals(Files.size(file), bytes);
+        assertFalse(Files.exists(tempDir.resolve("results.snapshot.tmp")));
+        try (ResultSnapshot snapshot = ResultSnapshot.open(file, objectMapper, new NameInterner(100))) {
+            assertEquals(2, snapshot.users());
+            assertEquals(CREATED_AT, snapshot.createdAt());
+            CachedResult read = snapshot.read("octocat");
+            assertEquals(FETCHED_AT, read.fetchedAt());
+            assertEquals(objectMapper.writeValueAsString(octocat), objectMapper.writeValueAsString(CompactRepository.toDtos(read.repositories())));
+            assertEquals(objectMapper.writeValueAsString(torvalds),
+                    objectMapper.writeValueAsString(CompactRepository.toDtos(snapshot.read("torvalds").repositories())));
+            assertNull(snapshot.read("unknown"));
+        }
+    }
+
+    @Test
+    void shouldStoreEachNameOnceAndEachShaAsRawBytes() throws IOException {
+        List<RepositoryBranchesDto> repositories = IntStream.range(0, 100)
+                .mapToObj(i -> new RepositoryBranchesDto("repo-" + i, "octocat", List.of(
+                        new GitHubBranch("main", new GitHubCommit("7fd1a60b01f91b314f59955a4e4d4e80d8edf11d")),
+                        new GitHubBranch("develop", new GitHubCommit("553c2077f0edc3d5dc5d17262f6aa498e69d6f8e")))))
+                .toList();
+        Path file = tempDir.resolve("results.snapshot");
+
+        long bytes = write(file, Map.of("octocat", repositories));
+
+        String json = objectMapper.writeValueAsString(repositories);
+        assertTrue(bytes * 2 < json.length(), bytes + " bytes for " + json.length() + " bytes of JSON");
+        NameInterner names = new NameInterner(100);
+        try (ResultSnapshot snapshot = ResultSnapshot.open(file, objectMapper, names)) {
+            List<CompactRepository> read = snapshot.read("octocat").repositories();
+            assertSame(read.get(0).branchName(0), read.get(99).branchName(0));
+            assertSame(names.intern("main"), read.get(0).branchName(0));
+        }
+    }
+
+    @Test
+    void shouldRejectFilesThatAreNotSnapshotsOfThisVersion() throws IOException {
+        Path file = tempDir.resolve("results.snapshot");
+        write(file, Map.of("octocat", List.of()));
+        byte[] valid = Files.readAllBytes(file);
+
+        byte[] newerVersion = valid.clone();
+        newerVersion[5] = 2;
+        Files.write(file, newerVersion);
+        IOException unsupported = assertThrows(IOException.class, () -> ResultSnapshot.open(file, objectMapper, new NameInterner(100)));
+        assertTrue(unsupported.getMessage().contains("version 2"), unsupported.getMessage());
+
+        Files.writeString(file, "[{\"repositoryName\":\"Hello-World\"}]");
+        assertThrows(IOException.class, () -> ResultSnapshot.open(file, objectMapper, new NameInterner(100)));
+
+        Files.write(file, Arrays.copyOf(valid, valid.length - 3), StandardOpenOption.TRUNCATE_EXISTING);
+        assertThrows(IOException.class, () -> ResultSnapshot.open(file, objectMapper, new NameInterner(100)));
+    }
+
+    private long write(Path file, Map<String, List<RepositoryBranchesDto>> users) throws IOException {
+        NameInterner names = new NameInterner(100);
+        try (ResultSnapshot.Writer writer = new ResultSnapshot.Writer(file, objectMapper, Clock.fixed(CREATED_AT, ZoneOffset.UTC))) {
+            for (Map.Entry<String, List<RepositoryBranchesDto>> user : users.entrySet()) {
+                writer.add(user.getKey(), new CachedResult(CompactRepository.of(user.getValue(), names), FETCHED_AT));
+            }
+            return writer.finish();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.gitinfofetcher.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.util.RaceTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void shouldNeverExceedCurrentLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 4, 4, Duration.ofSeconds(2));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        Mono<Integer> task = Mono.defer(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    return Mono.delay(Duration.ofMillis(10)).thenReturn(1);
+                })
+                .doOnTerminate(running::decrementAndGet);
+
+        StepVerifier.create(Flux.range(0, 50).flatMap(i -> limiter.execute(task), 64))
+                .expectNextCount(50)
+                .verifyComplete();
+
+        assertEquals(4, maxRunning.get());
+        assertEquals(0, limiter.inFlight());
+        assertEquals(0, limiter.queued());
+    }
+
+    @Test
+    void shouldGrowLimitWhileCallsSucceedQuickly() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 16, Duration.ofSeconds(2));
+
+        StepVerifier.create(Flux.range(0, 200)
+                        .flatMap(i -> limiter.execute(Mono.delay(Duration.ofMillis(1)).thenReturn(i)), 64))
+                .expectNextCount(200)
+                .verifyComplete();
+
+        assertTrue(limiter.limit() > 2, "limit should have grown, was " + limiter.limit());
+    }
+
+    @Test
+    void shouldShrinkLimitAndRequeueOnSecondaryRateLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 1, 16, Duration.ofSeconds(2));
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> task = Mono.defer(() -> attempts.incrementAndGet() == 1
+                ? Mono.error(WebClientResponseException.create(429, "Too Many Requests", retryAfter(), null, null))
+                : Mono.just("ok"));
+
+        StepVerifier.create(limiter.execute(task))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertEquals(2, attempts.get());
+        assertEquals(8, limiter.limit());
+        assertEquals(1, limiter.rejected());
+    }
+
+    @Test
+    void shouldNotRetryOtherErrors() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 1, 16, Duration.ofSeconds(2));
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> task = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(WebClientResponseException.create(404, "Not Found", null, null, null));
+        });
+
+        StepVerifier.create(limiter.execute(task))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify();
+
+        assertEquals(1, attempts.get());
+        assertEquals(16, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void shouldNotRetryPermissionErrors() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 1, 16, Duration.ofSeconds(2));
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> task = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(WebClientResponseException.create(403, "Forbidden", new HttpHeaders(), null, null));
+        });
+
+        StepVerifier.create(limiter.execute(task))
+                .expectError(WebClientResponseException.Forbidden.class)
+                .verify();
+
+        assertEquals(1, attempts.get());
+        assertEquals(16, limiter.limit());
+        assertEquals(0, limiter.rejected());
+    }
+
+    @Test
+    void shouldReleasePermitWhenCancelled() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, Duration.ofSeconds(2));
+
+        StepVerifier.create(limiter.execute(Mono.never()))
+                .thenAwait(Duration.ofMillis(10))
+                .thenCancel()
+                .verify();
+
+        assertEquals(0, limiter.inFlight());
+        StepVerifier.create(limiter.execute(Mono.just("next")))
+                .expectNext("next")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotLosePermitsWhenCancelRacesGrant() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, Duration.ofSeconds(2));
+
+        for (int i = 0; i < 10_000; i++) {
+            Disposable holder = limiter.execute(Mono.never()).subscribe();
+            Disposable waiter = limiter.execute(Mono.never()).subscribe();
+            RaceTestUtils.race(holder::dispose, waiter::dispose);
+            assertEquals(0, limiter.inFlight(), "permit lost in iteration " + i);
+        }
+        assertEquals(0, limiter.queued());
+    }
+
+    private static HttpHeaders retryAfter() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return headers;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.gitinfofetcher.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CircuitBreakerTest {
+
+    @Test
+    void shouldOpenOnceTheWindowFailureRateIsReached() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 0.5, Duration.ofSeconds(30), Clock.systemUTC());
+
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state(), "should wait for a full window");
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void shouldForgetOutcomesThatLeftTheWindow() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 0.5, Duration.ofSeconds(30), Clock.systemUTC());
+
+        breaker.onFailure();
+        for (int i = 0; i < 10; i++) {
+            breaker.onSuccess();
+        }
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void shouldLetASingleProbeThroughAfterOpenFor() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        CircuitBreaker breaker = new CircuitBreaker(2, 0.5, Duration.ofSeconds(30), clock);
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(clock.instant().plusSeconds(30), breaker.retryAt());
+
+        clock.advance(Duration.ofSeconds(30));
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(), "only one probe at a time");
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        clock.advance(Duration.ofSeconds(30));
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void shouldCapRetriesAtTheBudgetRatio() {
+        RetryBudget budget = new RetryBudget(0.25, 2);
+
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw(), "reserve is spent");
+
+        for (int i = 0; i < 4; i++) {
+            budget.deposit();
+        }
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+        assertEquals(2.0, budget.tokens(), 0.001);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
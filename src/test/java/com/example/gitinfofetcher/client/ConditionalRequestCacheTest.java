@@ -0,0 +1,168 @@
+package com.example.gitinfofetcher.client;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@WireMockTest
+public class ConditionalRequestCacheTest {
+
+    @Test
+    void shouldServeCachedBodyOnNotModified(WireMockRuntimeInfo wireMock) {
+        stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                .withHeader("If-None-Match", absent())
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"v1\"")
+                        .withHeader("Link", "<http://example/next>; rel=\"next\"")
+                        .withBody("[{\"name\":\"Hello-World\"}]")));
+        stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse()
+                        .withStatus(304)
+                        .withHeader("ETag", "\"v1\"")
+                        .withHeader("X-RateLimit-Remaining", "4999")));
+
+        ConditionalRequestCache cache = new ConditionalRequestCache(1024 * 1024, ConditionalRequestCache.EvictionPolicy.LRU);
+        WebClient webClient = webClient(wireMock, cache);
+
+        StepVerifier.create(fetch(webClient, "/users/octocat/repos"))
+                .assertNext(response -> assertEquals("[{\"name\":\"Hello-World\"}]", response.getBody()))
+                .verifyComplete();
+        StepVerifier.create(fetch(webClient, "/users/octocat/repos"))
+                .assertNext(response -> {
+                    assertEquals(200, response.getStatusCode().value());
+                    assertEquals("[{\"name\":\"Hello-World\"}]", response.getBody());
+                    assertEquals("<http://example/next>; rel=\"next\"", response.getHeaders().getFirst("Link"));
+                    assertEquals("4999", response.getHeaders().getFirst("X-RateLimit-Remaining"));
+                })
+                .verifyComplete();
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/octocat/repos")).withHeader("If-None-Match", equalTo("\"v1\"")));
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.revalidations());
+    }
+
+    @Test
+    void shouldReplaceEntryWhenContentChanged(WireMockRuntimeInfo wireMock) {
+        stubFor(get(urlPathEqualTo("/repos/octocat/Hello-World/branches"))
+                .withHeader("If-None-Match", absent())
+                .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"v1\"").withBody("old")));
+        stubFor(get(urlPathEqualTo("/repos/octocat/Hello-World/branches"))
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"v2\"").withBody("new")));
+        stubFor(get(urlPathEqualTo("/repos/octocat/Hello-World/branches"))
+                .withHeader("If-None-Match", equalTo("\"v2\""))
+                .willReturn(aResponse().withStatus(304)));
+
+        ConditionalRequestCache cache = new ConditionalRequestCache(1024, ConditionalRequestCache.EvictionPolicy.LRU);
+        WebClient webClient = webClient(wireMock, cache);
+
+        assertEquals("old", fetch(webClient, "/repos/octocat/Hello-World/branches").block().getBody());
+        assertEquals("new", fetch(webClient, "/repos/octocat/Hello-World/branches").block().getBody());
+        assertEquals("new", fetch(webClient, "/repos/octocat/Hello-World/branches").block().getBody());
+
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(3, cache.sizeInBytes());
+    }
+
+    @Test
+    void shouldEvictAccordingToPolicyWhenOverBudget(WireMockRuntimeInfo wireMock) {
+        for (String path : new String[]{"/a", "/b", "/c"}) {
+            stubFor(get(urlPathEqualTo(path))
+                    .withHeader("If-None-Match", absent())
+                    .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"" + path + "\"").withBody("0123456789")));
+            stubFor(get(urlPathEqualTo(path))
+                    .withHeader("If-None-Match", equalTo("\"" + path + "\""))
+                    .willReturn(aResponse().withStatus(304)));
+        }
+
+        ConditionalRequestCache lru = new ConditionalRequestCache(20, ConditionalRequestCache.EvictionPolicy.LRU);
+        WebClient lruClient = webClient(wireMock, lru);
+        fetch(lruClient, "/a").block();
+        fetch(lruClient, "/b").block();
+        fetch(lruClient, "/a").block();
+        fetch(lruClient, "/c").block();
+        fetch(lruClient, "/a").block();
+        assertEquals(2, lru.hits(), "LRU keeps the recently used /a and evicts /b");
+
+        ConditionalRequestCache fifo = new ConditionalRequestCache(20, ConditionalRequestCache.EvictionPolicy.FIFO);
+        WebClient fifoClient = webClient(wireMock, fifo);
+        fetch(fifoClient, "/a").block();
+        fetch(fifoClient, "/b").block();
+        fetch(fifoClient, "/a").block();
+        fetch(fifoClient, "/c").block();
+        fetch(fifoClient, "/a").block();
+        assertEquals(1, fifo.hits(), "FIFO evicts /a as the oldest insertion");
+        assertEquals(2, fifo.evictions());
+    }
+
+    @Test
+    void shouldKeepEntriesPerToken(WireMockRuntimeInfo wireMock) {
+        stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                .withHeader("If-None-Match", absent())
+                .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"v1\"").withBody("visible")));
+        stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(304)));
+
+        ConditionalRequestCache cache = new ConditionalRequestCache(1024, ConditionalRequestCache.EvictionPolicy.LRU);
+        WebClient webClient = webClient(wireMock, cache);
+
+        fetch(webClient, "/users/octocat/repos", "Bearer token-a").block();
+        fetch(webClient, "/users/octocat/repos", "Bearer token-b").block();
+        fetch(webClient, "/users/octocat/repos", "Bearer token-a").block();
+
+        verify(2, getRequestedFor(urlPathEqualTo("/users/octocat/repos")).withHeader("If-None-Match", absent()));
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void shouldPassOnBodiesLargerThanTheEntryLimitWithoutKeepingThem(WireMockRuntimeInfo wireMock) {
+        stubFor(get(urlPathEqualTo("/large"))
+                .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"v1\"").withBody("0123456789")));
+        stubFor(get(urlPathEqualTo("/chunked"))
+                .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"v1\"")
+                        .withHeader("Transfer-Encoding", "chunked").withBody("0123456789")));
+
+        ConditionalRequestCache cache = new ConditionalRequestCache(1024, 5, ConditionalRequestCache.EvictionPolicy.LRU);
+        WebClient webClient = webClient(wireMock, cache);
+
+        assertEquals("0123456789", fetch(webClient, "/large").block().getBody());
+        assertEquals("0123456789", fetch(webClient, "/chunked").block().getBody());
+        fetch(webClient, "/large").block();
+
+        verify(0, getRequestedFor(urlPathEqualTo("/large")).withHeader("If-None-Match", equalTo("\"v1\"")));
+        assertEquals(0, cache.sizeInBytes());
+    }
+
+    private static WebClient webClient(WireMockRuntimeInfo wireMock, ConditionalRequestCache cache) {
+        return WebClient.builder().baseUrl(wireMock.getHttpBaseUrl()).filter(cache).build();
+    }
+
+    private static Mono<ResponseEntity<String>> fetch(WebClient webClient, String path) {
+        return webClient.get().uri(path).retrieve().toEntity(String.class);
+    }
+
+    private static Mono<ResponseEntity<String>> fetch(WebClient webClient, String path, String authorization) {
+        return webClient.get().uri(path).header("Authorization", authorization).retrieve().toEntity(String.class);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.gitinfofetcher.client;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.ClientRequestObservationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@WireMockTest
+public class GitHubClientObservationConventionTest {
+
+    @Test
+    void shouldMapRequestPathsToGitHubEndpoints() {
+        assertEquals("/users/{username}/repos", GitHubClientObservationConvention.endpoint("/users/octocat/repos"));
+        assertEquals("/users/{username}/repos", GitHubClientObservationConvention.endpoint("/api/v3/users/octocat/repos"));
+        assertEquals("/repos/{owner}/{repo}/branches", GitHubClientObservationConvention.endpoint("/repos/octocat/Hello-World/branches"));
+        assertEquals("/graphql", GitHubClientObservationConvention.endpoint("/graphql"));
+        assertEquals("none", GitHubClientObservationConvention.endpoint("/rate_limit"));
+        assertEquals("none", GitHubClientObservationConvention.endpoint(null));
+    }
+
+    @Test
+    void shouldTagPagesWithEndpointAndParentThemToTheCallerObservation(WireMockRuntimeInfo wireMock) {
+        stubFor(get(urlPathMatching("/users/octocat/repos")).willReturn(aResponse().withStatus(200).withBody("[]")));
+        List<ClientRequestObservationContext> upstreamCalls = new CopyOnWriteArrayList<>();
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<ClientRequestObservationContext>() {
+            @Override
+            public void onStop(ClientRequestObservationContext context) {
+                upstreamCalls.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return context instanceof ClientRequestObservationContext;
+            }
+        });
+        WebClient webClient = WebClient.builder()
+                .observationRegistry(registry)
+                .observationConvention(new GitHubClientObservationConvention())
+                .build();
+        Observation parent = Observation.start("github.api.requests", registry);
+
+        webClient.get().uri(wireMock.getHttpBaseUrl() + "/users/octocat/repos?page=2")
+                .retrieve()
+                .toBodilessEntity()
+                .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, parent))
+                .block();
+        parent.stop();
+
+        assertEquals(1, upstreamCalls.size());
+        ClientRequestObservationContext call = upstreamCalls.get(0);
+        assertSame(parent, call.getParentObservation());
+        assertEquals("GET /users/{username}/repos", call.getContextualName());
+        assertEquals("/users/{username}/repos", call.getLowCardinalityKeyValue("uri").getValue());
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.gitinfofetcher.client;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires a burst of branch requests, as the fan-out does for a large account, at a stub with a fixed
+ * latency, once through a WebClient with Reactor Netty's default pool and once through the tuned client.
+ */
+public class GitHubHttpClientLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitHubHttpClientLoadTest.class);
+
+    private static final int REQUESTS = 1500;
+    private static final int CONCURRENCY = 128;
+    private static final int UPSTREAM_LATENCY_MILLIS = 20;
+
+    private static final HttpClientSettings TUNED = new HttpClientSettings(64, 1000, Duration.ofSeconds(10),
+            Duration.ofSeconds(30), Duration.ofMinutes(5), true, true, Duration.ofSeconds(2), Duration.ofSeconds(10),
+            Duration.ofSeconds(5));
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort().containerThreads(CONCURRENCY + 20))
+            .build();
+
+    @BeforeEach
+    void stubUpstream() {
+        wireMock.stubFor(get(urlPathMatching("/repos/octocat/.+/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(UPSTREAM_LATENCY_MILLIS)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"7fd1a60b01f91b314f59955a4e4d4e80d8edf11d\"}}]")));
+        wireMock.stubFor(get(urlPathEqualTo("/rate_limit"))
+                .willReturn(aResponse().withStatus(200).withBody("{}")));
+    }
+
+    @Test
+    void tunedClientSustainsHigherThroughputUnderFanOutBurst() {
+        WebClient defaults = WebClient.builder().baseUrl(wireMock.baseUrl()).build();
+        ConnectionProvider provider = GitHubHttpClient.connectionProvider(TUNED);
+        HttpClient httpClient = GitHubHttpClient.create(provider, TUNED, URI.create(wireMock.baseUrl()));
+        WebClient tuned = WebClient.builder()
+                .baseUrl(wireMock.baseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        try {
+            run(defaults, 200);
+            long warmed = GitHubHttpClient.warmUp(httpClient, URI.create(wireMock.baseUrl()), 8, Duration.ofSeconds(5)).block();
+            assertEquals(8, warmed);
+            run(tuned, 200);
+
+            Result defaultResult = run(defaults, REQUESTS);
+            Result tunedResult = run(tuned, REQUESTS);
+            logger.info("default pool: {}", defaultResult);
+            logger.info("tuned pool:   {}", tunedResult);
+
+            assertEquals(0, tunedResult.failed(), "tuned client should complete every request");
+            assertTrue(tunedResult.throughput() > defaultResult.throughput(),
+                    "tuned client should complete more requests per second (" + tunedResult + " vs " + defaultResult + ")");
+        } finally {
+            provider.dispose();
+        }
+    }
+
+    private static Result run(WebClient webClient, int requests) {
+        long[] latencies = new long[requests];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        long start = System.nanoTime();
+        Flux.range(0, requests)
+                .flatMap(i -> Mono.defer(() -> {
+                    long requestStart = System.nanoTime();
+                    return webClient.get()
+                            .uri("/repos/octocat/repo-{i}/branches", i)
+                            .retrieve()
+                            .toBodilessEntity()
+                            .doOnSuccess(response -> latencies[completed.getAndIncrement()] = System.nanoTime() - requestStart)
+                            .onErrorResume(e -> {
+                                failed.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }), CONCURRENCY)
+                .blockLast(Duration.ofMinutes(2));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long[] sorted = Arrays.copyOf(latencies, completed.get());
+        Arrays.sort(sorted);
+        long p99 = sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.99) - 1)];
+        return new Result(completed.get(), failed.get(), completed.get() / seconds, Duration.ofNanos(p99));
+    }
+
+    private record Result(int completed, int failed, double throughput, Duration p99) {
+        @Override
+        public String toString() {
+            return String.format("%d completed, %d failed, %.0f req/s, p99 %d ms", completed, failed, throughput, p99.toMillis());
+        }
+    }
+}
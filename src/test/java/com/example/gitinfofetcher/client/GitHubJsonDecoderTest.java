@@ -0,0 +1,127 @@
+package com.example.gitinfofetcher.client;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GitHubJsonDecoderTest {
+
+    private static final String REPOSITORIES = """
+            [
+              {"id":1296269,"name":"Hello-World","full_name":"octocat/Hello-World",
+               "owner":{"login":"octocat","id":1,"name":"ignored","plan":{"name":"pro","space":976562499}},
+               "license":{"key":"mit","name":"MIT License"},"topics":["octocat",{"name":"nested"}],
+               "description":"Say \\"hi\\" \\u2764","fork":false,"homepage":null,
+               "pushed_at":"2024-01-22T05:53:17Z","default_branch":"master"},
+              {"name":"Spoon-Knife","fork":true,"owner":{"login":"octo\\u0063at"},"parent":{"name":"other","fork":false}},
+              {"name":"no-owner","size":0,"permissions":{"admin":false}}
+            ]""";
+
+    private static final String BRANCHES = """
+            [
+              {"name":"main","commit":{"sha":"7fd1a60b01f91b314f59955a4e4d4e80d8edf11d","url":"https://api.github.com/x",
+               "commit":{"sha":"ignored"}},"protected":true,"protection":{"enabled":true,"required_status_checks":{"contexts":[]}}},
+              {"name":"feature/x","commit":{"sha":"553c2077f0edc3d5dc5d17262f6aa498e69d6f8e"},"protected":false}
+            ]""";
+
+    private final GitHubJsonDecoder decoder = new GitHubJsonDecoder(new JsonFactory());
+
+    @Test
+    void shouldReadOnlyUsedRepositoryFieldsAndSkipEverythingElse() {
+        List<GitHubRepository> repositories = decode(REPOSITORIES, GitHubRepository.class, REPOSITORIES.length());
+
+        assertEquals(3, repositories.size());
+        assertEquals("Hello-World", repositories.get(0).name());
+        assertEquals("octocat", repositories.get(0).owner().login());
+        assertFalse(repositories.get(0).fork());
+        assertEquals("master", repositories.get(0).defaultBranch());
+        assertEquals(Instant.parse("2024-01-22T05:53:17Z"), repositories.get(0).pushedAt());
+        assertEquals("Spoon-Knife", repositories.get(1).name());
+        assertEquals("octocat", repositories.get(1).owner().login());
+        assertTrue(repositories.get(1).fork());
+        assertNull(repositories.get(2).owner());
+    }
+
+    @Test
+    void shouldReadBranchNameAndHeadShaOnly() {
+        List<GitHubBranch> branches = decode(BRANCHES, GitHubBranch.class, BRANCHES.length());
+
+        assertEquals(List.of("main", "feature/x"), branches.stream().map(GitHubBranch::name).toList());
+        assertEquals("7fd1a60b01f91b314f59955a4e4d4e80d8edf11d", branches.get(0).commit().getSha());
+        assertEquals("553c2077f0edc3d5dc5d17262f6aa498e69d6f8e", branches.get(1).commit().getSha());
+    }
+
+    @Test
+    void shouldDecodeSameResultWhateverTheChunkBoundaries() {
+        for (int chunkSize : new int[]{1, 3, 7, 64}) {
+            List<GitHubRepository> repositories = decode(REPOSITORIES, GitHubRepository.class, chunkSize);
+            assertEquals(List.of("Hello-World", "Spoon-Knife", "no-owner"), repositories.stream().map(GitHubRepository::name).toList());
+            assertEquals("octocat", repositories.get(1).owner().login());
+        }
+    }
+
+    @Test
+    void shouldEmitElementsBeforeTheArrayIsComplete() {
+        String first = "[{\"name\":\"main\",\"commit\":{\"sha\":\"a\"}},";
+        StepVerifier.create(decoder.decode(Flux.just(buffer(first)).concatWith(Flux.never()),
+                        ResolvableType.forClass(GitHubBranch.class), MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .assertNext(branch -> assertEquals("main", ((GitHubBranch) branch).name()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void shouldFailOnTruncatedOrMalformedInput() {
+        StepVerifier.create(decoder.decode(Flux.just(buffer("[{\"name\":\"main\"")), ResolvableType.forClass(GitHubBranch.class),
+                        MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .expectError(DecodingException.class)
+                .verify();
+        StepVerifier.create(decoder.decode(Flux.just(buffer("[{\"name\" \"main\"}]")), ResolvableType.forClass(GitHubBranch.class),
+                        MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .expectError(DecodingException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldOnlyHandleGitHubListElementTypes() {
+        assertTrue(decoder.canDecode(ResolvableType.forClass(GitHubRepository.class), MediaType.APPLICATION_JSON));
+        assertTrue(decoder.canDecode(ResolvableType.forClass(GitHubBranch.class), null));
+        assertFalse(decoder.canDecode(ResolvableType.forClass(GitHubBranch.class), MediaType.APPLICATION_XML));
+        assertFalse(decoder.canDecode(ResolvableType.forClass(String.class), MediaType.APPLICATION_JSON));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> decode(String json, Class<T> type, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        Flux<DataBuffer> chunks = Flux.fromStream(IntStream.iterate(0, i -> i < bytes.length, i -> i + chunkSize)
+                .mapToObj(i -> DefaultDataBufferFactory.sharedInstance.wrap(
+                        Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + chunkSize)))));
+        return (List<T>) decoder.decode(chunks, ResolvableType.forClass(type), MediaType.APPLICATION_JSON, Collections.emptyMap())
+                .collectList()
+                .block();
+    }
+
+    private static DataBuffer buffer(String json) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.gitinfofetcher.client;
+
+import com.example.gitinfofetcher.exceptions.RateLimitExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimitSchedulerTest {
+
+    private static final ClientRequest REQUEST = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/users/octocat/repos")).build();
+
+    @Test
+    void shouldTrackRemainingQuotaFromResponses() {
+        RateLimitScheduler scheduler = new RateLimitScheduler(Duration.ofSeconds(1), 0.1, Clock.systemUTC());
+        ExchangeFunction upstream = request -> Mono.just(response(HttpStatus.OK, 60, 42, Instant.now().plusSeconds(3600), null));
+
+        StepVerifier.create(scheduler.filter(REQUEST, upstream))
+                .expectNextMatches(response -> response.statusCode().is2xxSuccessful())
+                .verifyComplete();
+
+        assertEquals(42, scheduler.remaining());
+        assertEquals(0.7, scheduler.headroom(), 0.001);
+        assertEquals(0, scheduler.queueDepth());
+    }
+
+    @Test
+    void shouldFailFastWhenQuotaIsExhaustedBeyondMaxWait() {
+        RateLimitScheduler scheduler = new RateLimitScheduler(Duration.ofSeconds(1), 0.1, Clock.systemUTC());
+        AtomicInteger exchanges = new AtomicInteger();
+        ExchangeFunction upstream = request -> {
+            exchanges.incrementAndGet();
+            return Mono.just(response(HttpStatus.OK, 60, 0, Instant.now().plusSeconds(3600), null));
+        };
+
+        scheduler.filter(REQUEST, upstream).block();
+
+        StepVerifier.create(scheduler.filter(REQUEST, upstream))
+                .expectError(RateLimitExceededException.class)
+                .verify();
+        assertEquals(1, exchanges.get());
+    }
+
+    @Test
+    void shouldScheduleAgainstItsShareOfTheQuota() {
+        RateLimitScheduler scheduler = new RateLimitScheduler(Duration.ofSeconds(1), 0.1, Clock.systemUTC(), () -> 0.5);
+        AtomicInteger exchanges = new AtomicInteger();
+        ExchangeFunction upstream = request -> {
+            exchanges.incrementAndGet();
+            return Mono.just(response(HttpStatus.OK, 60, 1, Instant.now().plusSeconds(3600), null));
+        };
+
+        scheduler.filter(REQUEST, upstream).block();
+
+        StepVerifier.create(scheduler.filter(REQUEST, upstream))
+                .expectError(RateLimitExceededException.class)
+                .verify();
+        assertEquals(1, exchanges.get());
+        assertEquals(0.5, scheduler.share());
+    }
+
+    @Test
+    void shouldResendAfterRetryAfterWhenRateLimited() {
+        RateLimitScheduler scheduler = new RateLimitScheduler(Duration.ofSeconds(5), 0.1, Clock.systemUTC());
+        Deque<ClientResponse> responses = new ArrayDeque<>();
+        responses.add(response(HttpStatus.TOO_MANY_REQUESTS, 5000, 4000, Instant.now().plusSeconds(3600), 1));
+        responses.add(response(HttpStatus.OK, 5000, 3999, Instant.now().plusSeconds(3600), null));
+        ExchangeFunction upstream = request -> Mono.just(responses.poll());
+
+        long start = System.nanoTime();
+        StepVerifier.create(scheduler.filter(REQUEST, upstream))
+                .expectNextMatches(response -> response.statusCode().value() == 200)
+                .verifyComplete();
+
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(900).toNanos(), "should have waited for Retry-After");
+        assertTrue(responses.isEmpty());
+    }
+
+    @Test
+    void shouldQueueRequestsWhenQuotaIsBelowPacingThreshold() {
+        RateLimitScheduler scheduler = new RateLimitScheduler(Duration.ofSeconds(5), 0.1, Clock.systemUTC());
+        Instant reset = Instant.now().plusSeconds(2);
+        ExchangeFunction upstream = request -> Mono.just(response(HttpStatus.OK, 100, 5, reset, null));
+        scheduler.filter(REQUEST, upstream).block();
+
+        Mono<ClientResponse> first = scheduler.filter(REQUEST, upstream);
+        Mono<ClientResponse> second = scheduler.filter(REQUEST, upstream);
+
+        StepVerifier.create(first.then(second))
+                .then(() -> assertEquals(1, scheduler.queueDepth()))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(0, scheduler.queueDepth());
+    }
+
+    @Test
+    void shouldPredictExhaustionFromObservedConsumption() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        RateLimitScheduler scheduler = new RateLimitScheduler(Duration.ofSeconds(1), 0.1, clock);
+        Instant reset = clock.instant().plusSeconds(3600);
+        Deque<Integer> remaining = new ArrayDeque<>(List.of(5000, 4000));
+        ExchangeFunction upstream = request -> Mono.just(response(HttpStatus.OK, 5000, remaining.poll(), reset, null));
+
+        scheduler.filter(REQUEST, upstream).block();
+        clock.advance(Duration.ofSeconds(60));
+        scheduler.filter(REQUEST, upstream).block();
+
+        assertEquals(240.0, scheduler.secondsUntilPredictedExhaustion(), 0.001);
+    }
+
+    private static ClientResponse response(HttpStatus status, int limit, int remaining, Instant reset, Integer retryAfter) {
+        ClientResponse.Builder builder = ClientResponse.create(status)
+                .header(RateLimitScheduler.LIMIT_HEADER, String.valueOf(limit))
+                .header(RateLimitScheduler.REMAINING_HEADER, String.valueOf(remaining))
+                .header(RateLimitScheduler.RESET_HEADER, String.valueOf(reset.getEpochSecond()));
+        if (retryAfter != null) {
+            builder.header("Retry-After", String.valueOf(retryAfter));
+        }
+        return builder.build();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.gitinfofetcher.client;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.exceptions.CircuitOpenException;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResilienceFilterTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceFilterTest.class);
+
+    private static final ClientRequest GET_BRANCHES = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/repos/octocat/hello/branches")).build();
+    private static final ClientRequest POST_GRAPHQL = ClientRequest.create(HttpMethod.POST, URI.create("http://localhost/graphql")).build();
+
+    private static final int REQUESTS = 600;
+    private static final int CONCURRENCY = 8;
+    private static final FaultInjector faults = new FaultInjector();
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort().containerThreads(64).extensions(faults))
+            .build();
+
+    @BeforeEach
+    void stubUpstream() {
+        wireMock.stubFor(get(urlPathMatching("/repos/octocat/.+/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(10)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"7fd1a60b01f91b314f59955a4e4d4e80d8edf11d\"}}]")));
+        faults.reset();
+    }
+
+    @Test
+    void shouldRetryIdempotentRequestsThatFailedWithA5xx() {
+        ResilienceFilter filter = new ResilienceFilter(settings(false), Clock.systemUTC());
+        Deque<HttpStatus> statuses = new ArrayDeque<>(List.of(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.BAD_GATEWAY, HttpStatus.OK));
+        ExchangeFunction upstream = request -> Mono.just(ClientResponse.create(statuses.poll()).build());
+
+        StepVerifier.create(filter.filter(GET_BRANCHES, upstream))
+                .expectNextMatches(response -> response.statusCode().value() == 200)
+                .verifyComplete();
+
+        assertEquals(2, filter.retries());
+        assertTrue(statuses.isEmpty());
+    }
+
+    @Test
+    void shouldNotRetryNonIdempotentRequests() {
+        ResilienceFilter filter = new ResilienceFilter(settings(false), Clock.systemUTC());
+        AtomicInteger exchanges = new AtomicInteger();
+        ExchangeFunction upstream = request -> {
+            exchanges.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+        };
+
+        StepVerifier.create(filter.filter(POST_GRAPHQL, upstream))
+                .expectNextMatches(response -> response.statusCode().value() == 503)
+                .verifyComplete();
+
+        assertEquals(1, exchanges.get());
+    }
+
+    @Test
+    void shouldStopRetryingOnceTheBudgetIsSpent() {
+        ResilienceSettings settings = new ResilienceSettings(3, Duration.ofMillis(1), 0.0, 2, false,
+                Duration.ofMillis(50), 0.95, 1000, 0.5, Duration.ofSeconds(30));
+        ResilienceFilter filter = new ResilienceFilter(settings, Clock.systemUTC());
+        AtomicInteger exchanges = new AtomicInteger();
+        ExchangeFunction upstream = request -> {
+            exchanges.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        };
+
+        for (int i = 0; i < 3; i++) {
+            filter.filter(GET_BRANCHES, upstream).block();
+        }
+
+        assertEquals(5, exchanges.get(), "two retries for the first request, none afterwards");
+        assertEquals(2, filter.budgetExhausted());
+    }
+
+    @Test
+    void shouldRejectCallsWhileTheEndpointCircuitIsOpen() {
+        ResilienceFilter filter = new ResilienceFilter(settings(false), Clock.systemUTC());
+        AtomicInteger exchanges = new AtomicInteger();
+        ExchangeFunction upstream = request -> {
+            exchanges.incrementAndGet();
+            return Mono.error(new IllegalStateException("never reached"));
+        };
+        ExchangeFunction failing = request -> {
+            exchanges.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.BAD_GATEWAY).build());
+        };
+        for (int i = 0; i < 4; i++) {
+            filter.filter(POST_GRAPHQL, failing).block();
+        }
+        exchanges.set(0);
+
+        StepVerifier.create(filter.filter(POST_GRAPHQL, upstream))
+                .expectError(CircuitOpenException.class)
+                .verify();
+        assertEquals(0, exchanges.get());
+        assertTrue(filter.isOpen(GitHubClientObservationConvention.GRAPHQL));
+        assertTrue(!filter.isOpen(GitHubClientObservationConvention.BRANCHES), "breakers are per endpoint");
+    }
+
+    /**
+     * Serves branch listings where every 25th request stalls for a second and every 40th fails with a 500,
+     * once through a plain WebClient and once through the resilience filter.
+     */
+    @Test
+    void shouldCutTailLatencyAndHideFailuresUnderInjectedFaults() {
+        WebClient plain = WebClient.builder().baseUrl(wireMock.baseUrl()).build();
+        ResilienceFilter filter = new ResilienceFilter(settings(true), Clock.systemUTC());
+        WebClient resilient = WebClient.builder().baseUrl(wireMock.baseUrl()).filter(filter).build();
+        run(plain, 100);
+        run(resilient, 100);
+
+        faults.reset();
+        Result baseline = run(plain, REQUESTS);
+        faults.reset();
+        Result guarded = run(resilient, REQUESTS);
+        logger.info("plain client:      {}", baseline);
+        logger.info("resilience filter: {}, {} retries, {} hedges ({} won)", guarded, filter.retries(), filter.hedges(), filter.hedgeWins());
+
+        assertTrue(baseline.failures() > 0, "faults should reach the plain client");
+        assertEquals(0, guarded.failures());
+        assertTrue(guarded.p99Millis() * 3 < baseline.p99Millis(),
+                "p99 should drop well below the injected stall (" + guarded.p99Millis() + " vs " + baseline.p99Millis() + " ms)");
+    }
+
+    private static Result run(WebClient client, int requests) {
+        AtomicInteger failures = new AtomicInteger();
+        long[] latencies = Flux.range(0, requests)
+                .flatMap(i -> Mono.defer(() -> {
+                            long start = System.nanoTime();
+                            return client.get()
+                                    .uri("/repos/octocat/repo-{i}/branches", i)
+                                    .retrieve()
+                                    .bodyToFlux(GitHubBranch.class)
+                                    .then(Mono.fromCallable(() -> System.nanoTime() - start));
+                        })
+                        .onErrorResume(e -> {
+                            failures.incrementAndGet();
+                            return Mono.empty();
+                        }), CONCURRENCY)
+                .collectList()
+                .block(Duration.ofMinutes(2))
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        Arrays.sort(latencies);
+        long p99 = latencies.length == 0 ? 0 : latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1_000_000;
+        return new Result(failures.get(), p99);
+    }
+
+    private static ResilienceSettings settings(boolean hedge) {
+        return new ResilienceSettings(3, Duration.ofMillis(10), 0.1, 10, hedge, Duration.ofMillis(50), 0.95,
+                4, 0.5, Duration.ofSeconds(30));
+    }
+
+    private record Result(int failures, long p99Millis) {
+        @Override
+        public String toString() {
+            return failures + " failed, p99 " + p99Millis + " ms";
+        }
+    }
+
+    static class FaultInjector implements ResponseDefinitionTransformerV2 {
+
+        private final AtomicInteger requests = new AtomicInteger();
+
+        @Override
+        public ResponseDefinition transform(ServeEvent serveEvent) {
+            int n = requests.incrementAndGet();
+            if (n % 40 == 0) {
+                return aResponse().withStatus(500).withBody("{\"message\":\"Server Error\"}").build();
+            }
+            if (n % 25 == 0) {
+                return ResponseDefinitionBuilder.like(serveEvent.getResponseDefinition()).withFixedDelay(1000).build();
+            }
+            return serveEvent.getResponseDefinition();
+        }
+
+        void reset() {
+            requests.set(0);
+        }
+
+        @Override
+        public boolean applyGlobally() {
+            return true;
+        }
+
+        @Override
+        public String getName() {
+            return "fault-injector";
+        }
+    }
+}
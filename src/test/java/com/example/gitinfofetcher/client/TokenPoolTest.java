@@ -0,0 +1,170 @@
+package com.example.gitinfofetcher.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenPoolTest {
+
+    private static final ClientRequest REQUEST = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/users/octocat/repos")).build();
+
+    @Test
+    void shouldSendWithoutAuthorizationWhenNoTokenIsConfigured() {
+        TokenPool pool = new TokenPool(List.of(), Clock.systemUTC());
+        GitHubStub github = new GitHubStub(Map.of());
+
+        ClientResponse response = pool.filter(REQUEST, github).block();
+
+        assertEquals(200, response.statusCode().value());
+        assertNull(github.lastAuthorization);
+    }
+
+    @Test
+    void shouldPickTheTokenWithTheMostRemainingQuota() {
+        TokenPool pool = new TokenPool(List.of("small", "large"), Clock.systemUTC());
+        GitHubStub github = new GitHubStub(Map.of("small", 10, "large", 100));
+
+        pool.filter(REQUEST, github).block();
+        pool.filter(REQUEST, github).block();
+        pool.filter(REQUEST, github).block();
+
+        assertEquals(9, pool.remaining(0));
+        assertEquals(98, pool.remaining(1));
+        assertEquals("Bearer large", github.lastAuthorization);
+    }
+
+    @Test
+    void shouldServeEveryRequestWhileThePoolHasQuota() {
+        TokenPool pool = new TokenPool(List.of("a", "b", "c"), Clock.systemUTC());
+        GitHubStub github = new GitHubStub(Map.of("a", 5, "b", 20, "c", 50));
+
+        List<Integer> statuses = Flux.range(0, 75)
+                .concatMap(i -> pool.filter(REQUEST, github).map(response -> response.statusCode().value()))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertTrue(statuses.stream().allMatch(status -> status == 200), statuses.toString());
+        assertEquals(Map.of("a", 5, "b", 20, "c", 50), github.used);
+    }
+
+    @Test
+    void shouldCoolDownAnExhaustedTokenAndRetryWithAnother() {
+        TokenPool pool = new TokenPool(List.of("a", "b"), Clock.systemUTC());
+        GitHubStub github = new GitHubStub(Map.of("a", 1, "b", 3));
+        github.exhaust("a");
+
+        ClientResponse response = pool.filter(REQUEST, github).block();
+
+        assertEquals(200, response.statusCode().value());
+        assertEquals("Bearer b", github.lastAuthorization);
+        assertTrue(pool.coolingDown(0));
+        assertFalse(pool.coolingDown(1));
+        assertEquals(2, pool.requests(0) + pool.requests(1));
+    }
+
+    @Test
+    void shouldReportTheCombinedQuotaOfThePool() {
+        TokenPool pool = new TokenPool(List.of("a", "b"), Clock.systemUTC());
+        GitHubStub github = new GitHubStub(Map.of("a", 10, "b", 30));
+
+        pool.filter(REQUEST, github).block();
+        ClientResponse response = pool.filter(REQUEST, github).block();
+
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        assertEquals(String.valueOf(10 + 30), headers.getFirst(RateLimitScheduler.LIMIT_HEADER));
+        assertEquals(String.valueOf(10 + 30 - 2), headers.getFirst(RateLimitScheduler.REMAINING_HEADER));
+    }
+
+    @Test
+    void shouldPassTheRejectionOnOnceEveryTokenIsCoolingDown() {
+        TokenPool pool = new TokenPool(List.of("a", "b"), Clock.systemUTC());
+        GitHubStub github = new GitHubStub(Map.of("a", 1, "b", 1));
+
+        pool.filter(REQUEST, github).block();
+        pool.filter(REQUEST, github).block();
+        ClientResponse response = pool.filter(REQUEST, github).block();
+
+        assertEquals(403, response.statusCode().value());
+        assertEquals("0", response.headers().asHttpHeaders().getFirst(RateLimitScheduler.REMAINING_HEADER));
+        assertEquals(String.valueOf(github.resetAt.getEpochSecond()), response.headers().asHttpHeaders().getFirst(RateLimitScheduler.RESET_HEADER));
+        assertTrue(pool.coolingDown(0));
+        assertTrue(pool.coolingDown(1));
+    }
+
+    @Test
+    void shouldPublishPerTokenMetrics() {
+        TokenPool pool = new TokenPool(List.of("a", "b"), Clock.systemUTC());
+        GitHubStub github = new GitHubStub(Map.of("a", 1, "b", 5));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        pool.bindTo(registry);
+
+        pool.filter(REQUEST, github).block();
+        pool.filter(REQUEST, github).block();
+
+        assertEquals(2, registry.get("github.tokens.requests").functionCounters().stream().mapToDouble(counter -> counter.count()).sum());
+        assertEquals(5, registry.get("github.tokens.limit").tag("token", "token-1").gauge().value());
+        assertFalse(registry.get("github.tokens.cooldown").tag("token", "token-1").gauge().value() > 0);
+    }
+
+    /**
+     * Answers like GitHub for several tokens, each with its own hourly quota: every response carries the
+     * token's {@code X-RateLimit-*} headers, and a token without quota left gets {@code 403}.
+     */
+    private static final class GitHubStub implements ExchangeFunction {
+
+        private final Map<String, Integer> limits;
+        private final Map<String, Integer> used = new HashMap<>();
+        private final Instant resetAt = Instant.now().plusSeconds(3600);
+        private String lastAuthorization;
+
+        private GitHubStub(Map<String, Integer> limits) {
+            this.limits = limits;
+        }
+
+        void exhaust(String token) {
+            used.put(token, limits.get(token));
+        }
+
+        @Override
+        public synchronized Mono<ClientResponse> exchange(ClientRequest request) {
+            lastAuthorization = request.headers().getFirst(HttpHeaders.AUTHORIZATION);
+            if (lastAuthorization == null) {
+                return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+            }
+            String token = lastAuthorization.substring("Bearer ".length());
+            int limit = limits.get(token);
+            int count = used.getOrDefault(token, 0);
+            HttpStatus status = HttpStatus.OK;
+            if (count < limit) {
+                used.put(token, ++count);
+            } else {
+                status = HttpStatus.FORBIDDEN;
+            }
+            return Mono.just(ClientResponse.create(status)
+                    .header(RateLimitScheduler.LIMIT_HEADER, String.valueOf(limit))
+                    .header(RateLimitScheduler.REMAINING_HEADER, String.valueOf(limit - count))
+                    .header(RateLimitScheduler.RESET_HEADER, String.valueOf(resetAt.getEpochSecond()))
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.gitinfofetcher.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ClusterCoordinatorServerTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final ClusterCoordinatorServer server =
+            new ClusterCoordinatorServer("127.0.0.1", 0, SECRET, 100, Duration.ofSeconds(5), Clock.systemUTC());
+    private final WebClient client = WebClient.create("http://127.0.0.1:" + server.port());
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void shouldRefuseRequestsWithoutTheSecret() {
+        assertEquals(401, status(client.put().uri("/results/octocat")
+                .header(ClusterCoordinatorServer.FETCHED_AT_HEADER, "1")
+                .bodyValue("[]")));
+        assertEquals(401, status(client.post().uri("/leases/octocat?node=a&ttlMs=1000")
+                .header(ClusterCoordinatorServer.SECRET_HEADER, "wrong")));
+        assertEquals(401, status(client.delete().uri("/leases/octocat?node=a")));
+        assertEquals(0, server.results());
+    }
+
+    @Test
+    void shouldAnswerBadRequestToMissingOrInvalidParameters() {
+        assertEquals(400, status(client.put().uri("/results/octocat")
+                .header(ClusterCoordinatorServer.SECRET_HEADER, SECRET)
+                .bodyValue("[]")));
+        assertEquals(400, status(client.post().uri("/leases/octocat?node=a")
+                .header(ClusterCoordinatorServer.SECRET_HEADER, SECRET)));
+        assertEquals(400, status(client.post().uri("/leases/octocat?ttlMs=1000")
+                .header(ClusterCoordinatorServer.SECRET_HEADER, SECRET)));
+        assertEquals(400, status(client.get().uri("/results/octocat?waitMs=soon")
+                .header(ClusterCoordinatorServer.SECRET_HEADER, SECRET)));
+        assertEquals(200, status(client.post().uri("/leases/octocat?node=a&ttlMs=1000")
+                .header(ClusterCoordinatorServer.SECRET_HEADER, SECRET)));
+    }
+
+    private static int status(WebClient.RequestHeadersSpec<?> request) {
+        return request.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                .map(HttpStatusCode::value)
+                .block(Duration.ofSeconds(5));
+    }
+}
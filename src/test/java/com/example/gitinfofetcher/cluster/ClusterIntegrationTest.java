@@ -0,0 +1,142 @@
+package com.example.gitinfofetcher.cluster;
+
+import com.example.gitinfofetcher.GitInfoFetcherApplication;
+import com.example.gitinfofetcher.client.RateLimitScheduler;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs several replicas of the application in one JVM, all pointed at the same GitHub stand-in. In
+ * {@code http} mode they share one {@link ClusterCoordinatorServer}, the way separate processes would; in
+ * {@code local} mode they share the in-process coordinator of their cluster name.
+ */
+public class ClusterIntegrationTest {
+
+    private static final int REPLICAS = 3;
+    private static final int REPOSITORIES = 5;
+    private static final String SECRET = "test-secret";
+
+    @RegisterExtension
+    static WireMockExtension github = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    private ClusterCoordinatorServer coordinator;
+    private LocalClusterCoordinator local;
+    private final List<ConfigurableApplicationContext> replicas = new ArrayList<>();
+
+    private void startCluster(String mode) {
+        String name = "cluster-" + UUID.randomUUID();
+        coordinator = new ClusterCoordinatorServer("127.0.0.1", 0, SECRET, 100, Duration.ofSeconds(5), Clock.systemUTC());
+        local = LocalClusterCoordinator.named(name, 100, Duration.ofSeconds(5));
+        for (int i = 0; i < REPLICAS; i++) {
+            replicas.add(new SpringApplicationBuilder(GitInfoFetcherApplication.class).run(
+                    "--server.port=0",
+                    "--github.api.base-url=" + github.baseUrl(),
+                    "--github.http.warmup-connections=0",
+                    "--github.result-cache.disk.path=",
+                    "--github.result-cache.snapshot.path=",
+                    "--github.cluster.mode=" + mode,
+                    "--github.cluster.name=" + name,
+                    "--github.cluster.url=http://localhost:" + coordinator.port(),
+                    "--github.cluster.secret=" + SECRET,
+                    "--github.cluster.node-id=replica-" + i,
+                    "--github.cluster.heartbeat=100ms"));
+        }
+    }
+
+    @AfterEach
+    void stopCluster() {
+        replicas.forEach(ConfigurableApplicationContext::close);
+        coordinator.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "local"})
+    void replicasFetchAUserOnceAndServeTheSharedResult(String mode) {
+        startCluster(mode);
+        stubGitHub();
+
+        List<Integer> repositoriesPerReplica = Flux.fromIterable(replicas)
+                .flatMap(replica -> client(replica).get().uri("/api/github/users/octocat/repos")
+                        .retrieve()
+                        .bodyToFlux(Object.class)
+                        .count()
+                        .map(Long::intValue))
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertEquals(List.of(REPOSITORIES, REPOSITORIES, REPOSITORIES), repositoriesPerReplica);
+        assertEquals(1, github.findAll(getRequestedFor(urlPathEqualTo("/users/octocat/repos"))).size());
+        assertEquals(REPOSITORIES, github.findAll(getRequestedFor(urlPathMatching("/repos/octocat/.+/branches"))).size());
+        assertEquals(1, replicas.stream().mapToLong(replica -> replica.getBean(ClusterNode.class).leads()).sum());
+        assertEquals(1, mode.equals("http") ? coordinator.results() : local.results());
+        assertEquals(0, mode.equals("http") ? local.results() : coordinator.results());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http", "local"})
+    void replicasSplitTheRateLimitBudget(String mode) {
+        startCluster(mode);
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!replicas.stream().allMatch(replica -> replica.getBean(ClusterNode.class).members() == REPLICAS)) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("replicas did not see each other");
+            }
+            Thread.onSpinWait();
+        }
+
+        for (ConfigurableApplicationContext replica : replicas) {
+            assertEquals(1.0 / REPLICAS, replica.getBean(RateLimitScheduler.class).share(), 1e-9);
+        }
+        assertTrue(replicas.get(0).getBean(ClusterNode.class).nodeId().startsWith("replica-"));
+    }
+
+    private static WebClient client(ConfigurableApplicationContext replica) {
+        int port = ((WebServerApplicationContext) replica).getWebServer().getPort();
+        return WebClient.create("http://localhost:" + port);
+    }
+
+    private static void stubGitHub() {
+        String repos = IntStream.range(0, REPOSITORIES)
+                .mapToObj(i -> "{\"name\":\"repo-" + i + "\",\"owner\":{\"login\":\"octocat\"},\"fork\":false}")
+                .collect(Collectors.joining(",", "[", "]"));
+        github.stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(repos)));
+        github.stubFor(get(urlPathMatching("/repos/octocat/.+/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"7fd1a60b01f91b314f59955a4e4d4e80d8edf11d\"}}]")));
+    }
+}
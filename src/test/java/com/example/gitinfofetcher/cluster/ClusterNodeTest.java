@@ -0,0 +1,166 @@
+package com.example.gitinfofetcher.cluster;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ClusterNodeTest {
+
+    private static final List<RepositoryBranchesDto> REPOSITORIES = List.of(repository("repo-a"), repository("repo-b"));
+
+    private final List<ClusterNode> nodes = new ArrayList<>();
+
+    @AfterEach
+    void closeNodes() {
+        nodes.forEach(ClusterNode::close);
+    }
+
+    @Test
+    void shouldFetchOnceAcrossNodesAndShareTheResult() {
+        LocalClusterCoordinator coordinator = new LocalClusterCoordinator(100, Duration.ofSeconds(10), Clock.systemUTC());
+        ClusterNode a = node("a", coordinator);
+        ClusterNode b = node("b", coordinator);
+        AtomicInteger fetches = new AtomicInteger();
+        Supplier<Flux<RepositoryBranchesDto>> upstream = slowUpstream(fetches, REPOSITORIES);
+
+        List<List<RepositoryBranchesDto>> results = Flux.merge(a.load("octocat", upstream).collectList(), b.load("octocat", upstream).collectList())
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        List<RepositoryBranchesDto> later = b.load("octocat", upstream).collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(REPOSITORIES, REPOSITORIES), results);
+        assertEquals(REPOSITORIES, later);
+        assertEquals(1, fetches.get());
+        assertEquals(1, a.leads() + b.leads());
+        assertEquals(1, a.coalesced() + b.coalesced());
+        assertEquals(1, b.sharedHits());
+    }
+
+    @Test
+    void shouldNotSharePartialResults() {
+        LocalClusterCoordinator coordinator = new LocalClusterCoordinator(100, Duration.ofSeconds(10), Clock.systemUTC());
+        ClusterNode a = node("a", coordinator);
+        ClusterNode b = node("b", coordinator);
+        AtomicInteger fetches = new AtomicInteger();
+        Supplier<Flux<RepositoryBranchesDto>> upstream = slowUpstream(fetches,
+                List.of(repository("repo-a"), RepositoryBranchesDto.failed("repo-b", "octocat", Map.of("status", 502))));
+
+        Flux.merge(a.load("octocat", upstream).collectList(), b.load("octocat", upstream).collectList())
+                .blockLast(Duration.ofSeconds(5));
+
+        assertEquals(2, fetches.get());
+        assertEquals(1, a.fallbacks() + b.fallbacks());
+        assertNull(coordinator.get("octocat").block());
+    }
+
+    @Test
+    void shouldFetchUpstreamWhenTheCoordinatorIsUnavailable() {
+        ClusterNode a = node("a", new UnavailableCoordinator());
+        AtomicInteger fetches = new AtomicInteger();
+
+        List<RepositoryBranchesDto> result = a.load("octocat", slowUpstream(fetches, REPOSITORIES)).collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(REPOSITORIES, result);
+        assertEquals(1, fetches.get());
+        assertEquals(1, a.fallbacks());
+        assertEquals(1.0, a.budgetShare());
+    }
+
+    @Test
+    void shouldSplitTheBudgetBetweenLiveMembers() {
+        LocalClusterCoordinator coordinator = new LocalClusterCoordinator(100, Duration.ofMillis(300), Clock.systemUTC());
+        ClusterNode a = node("a", coordinator);
+        node("b", coordinator);
+        ClusterNode c = node("c", coordinator);
+
+        awaitMembers(a::members, 3);
+        assertEquals(1.0 / 3, a.budgetShare(), 1e-9);
+
+        c.close();
+        awaitMembers(a::members, 2);
+        assertEquals(0.5, a.budgetShare(), 1e-9);
+    }
+
+    private ClusterNode node(String id, ClusterCoordinator coordinator) {
+        ClusterNode node = new ClusterNode(id, coordinator, Duration.ofMinutes(8), Duration.ofSeconds(5),
+                Duration.ofSeconds(2), Duration.ofMillis(50), Clock.systemUTC());
+        nodes.add(node);
+        return node;
+    }
+
+    private static Supplier<Flux<RepositoryBranchesDto>> slowUpstream(AtomicInteger fetches, List<RepositoryBranchesDto> repositories) {
+        return () -> Flux.defer(() -> {
+            fetches.incrementAndGet();
+            return Flux.fromIterable(repositories).delayElements(Duration.ofMillis(100));
+        });
+    }
+
+    private static void awaitMembers(IntSupplier members, int expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (members.getAsInt() != expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("expected " + expected + " members, saw " + members.getAsInt());
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static RepositoryBranchesDto repository(String name) {
+        return new RepositoryBranchesDto(name, "octocat",
+                List.of(new GitHubBranch("main", new GitHubCommit("7fd1a60b01f91b314f59955a4e4d4e80d8edf11d"))));
+    }
+
+    private static final class UnavailableCoordinator implements ClusterCoordinator {
+
+        private static <T> Mono<T> unavailable() {
+            return Mono.error(new IllegalStateException("coordinator unavailable"));
+        }
+
+        @Override
+        public Mono<Integer> heartbeat(String nodeId) {
+            return unavailable();
+        }
+
+        @Override
+        public Mono<SharedResult> get(String key) {
+            return unavailable();
+        }
+
+        @Override
+        public Mono<Void> put(String key, SharedResult result) {
+            return unavailable();
+        }
+
+        @Override
+        public Mono<Boolean> tryLease(String key, String nodeId, Duration ttl) {
+            return unavailable();
+        }
+
+        @Override
+        public Mono<Void> release(String key, String nodeId) {
+            return unavailable();
+        }
+
+        @Override
+        public Mono<SharedResult> await(String key, Instant notBefore, Duration timeout) {
+            return unavailable();
+        }
+    }
+}
@@ -1,21 +1,43 @@
 package com.example.gitinfofetcher.controller;
 
 import com.example.gitinfofetcher.WebClientTestConfig;
+import com.example.gitinfofetcher.client.AdaptiveConcurrencyLimiter;
+import com.example.gitinfofetcher.config.ClusterConfig;
+import com.example.gitinfofetcher.config.ResultCacheConfig;
+import com.example.gitinfofetcher.config.WatchListConfig;
 import com.example.gitinfofetcher.config.WebFluxErrorHandlingConfig;
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.dto.BranchChangeDto;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.dto.UserRepositoriesDto;
+import com.example.gitinfofetcher.service.GitHubPaginator;
 import com.example.gitinfofetcher.service.GitHubService;
+import com.example.gitinfofetcher.service.RestGitHubBackend;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
@@ -25,15 +47,21 @@ import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @WebFluxTest(controllers = GitHubController.class)
-@Import({GitHubService.class, WebClientTestConfig.class, WebFluxErrorHandlingConfig.class})
+@Import({GitHubService.class, RestGitHubBackend.class, GitHubPaginator.class, AdaptiveConcurrencyLimiter.class, ClusterConfig.class, ResultCacheConfig.class, WatchListConfig.class, WebClientTestConfig.class, WebFluxErrorHandlingConfig.class})
+@TestPropertySource(properties = "github.result-cache.max-entries=0")
 @WireMockTest(httpPort = 8089)
 public class GitHubControllerIntegrationTest {
 
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     public void shouldReturnNotFoundForNonExistentUserRepositories() {
         stubForWhenUserDoesNotExist();
@@ -96,6 +124,96 @@ public class GitHubControllerIntegrationTest {
     }
 
 
+    @Test
+    public void shouldOnlyFetchBranchesOfRepositoriesMatchingTheNameFilter() {
+        stubForRepositoryBranches("hello-worId", "hello-worId.json");
+        stubForRepositoryBranches("Hello-World", "Hello-World.json");
+        stubForUserRepos();
+
+        Map<String, List<String>> branches = repositories("/api/github/users/octocat/repos?name=hello-*&branch=m*,test").stream()
+                .collect(Collectors.toMap(RepositoryBranchesDto::repositoryName,
+                        repository -> repository.branches().stream().map(GitHubBranch::name).toList()));
+
+        assertEquals(Map.of("hello-worId", List.of("master"), "Hello-World", List.of("master", "test")), branches);
+
+        verify(2, getRequestedFor(urlPathMatching("/repos/octocat/.+/branches")));
+    }
+
+    @Test
+    public void shouldStopAtMaxReposInListingOrder() {
+        stubForRepositoryBranches("git-consortium", "git-consortium.json");
+        stubForRepositoryBranches("hello-worId", "hello-worId.json");
+        stubForUserRepos();
+
+        assertEquals(List.of("git-consortium", "hello-worId"),
+                repositories("/api/github/users/octocat/repos?maxRepos=2&sort=name").stream().map(RepositoryBranchesDto::repositoryName).toList());
+
+        verify(2, getRequestedFor(urlPathMatching("/repos/octocat/.+/branches")));
+    }
+
+    @Test
+    public void shouldAnswerDefaultBranchOnlyWithoutCallingBranches() {
+        stubForUserRepos();
+
+        webTestClient.get().uri("/api/github/users/octocat/repos?defaultBranchOnly=true&name=Spoon-Knife,test-repo1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .json("""
+                        [{"repositoryName":"Spoon-Knife","ownerLogin":"octocat","branches":[{"name":"main"}]},
+                         {"repositoryName":"test-repo1","ownerLogin":"octocat","branches":[{"name":"gh-pages"}]}]""")
+                .jsonPath("$[0].branches[0].commit").doesNotExist();
+
+        verify(0, getRequestedFor(urlPathMatching("/repos/octocat/.+/branches")));
+    }
+
+    @Test
+    public void shouldListInPushOrderAndStopAtTheEndOfThePushWindow() {
+        stubForRepositoryBranches("Spoon-Knife", "Spoon-Knife.json");
+        stubForRepositoryBranches("Hello-World", "Hello-World.json");
+        stubFor(WireMock.get(WireMock.urlPathMatching("/users/octocat/repos"))
+                .withQueryParam("sort", equalTo("pushed"))
+                .withQueryParam("direction", equalTo("desc"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                [{"name":"Spoon-Knife","owner":{"login":"octocat"},"fork":false,"pushed_at":"2024-01-24T22:05:14Z"},
+                                 {"name":"Hello-World","owner":{"login":"octocat"},"fork":false,"pushed_at":"2024-01-22T05:53:17Z"},
+                                 {"name":"test-repo1","owner":{"login":"octocat"},"fork":false,"pushed_at":"2023-07-14T15:39:03Z"},
+                                 {"name":"git-consortium","owner":{"login":"octocat"},"fork":false,"pushed_at":"2023-11-17T10:31:38Z"}]""")));
+
+        assertEquals(List.of("Spoon-Knife", "Hello-World"),
+                repositories("/api/github/users/octocat/repos?sort=pushed&pushedAfter=2024-01-01T00:00:00Z").stream()
+                        .map(RepositoryBranchesDto::repositoryName).toList());
+
+        verify(2, getRequestedFor(urlPathMatching("/repos/octocat/.+/branches")));
+    }
+
+    private List<RepositoryBranchesDto> repositories(String uri) {
+        return webTestClient.get().uri(uri)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(RepositoryBranchesDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    public void shouldRejectInvalidQueryParameters() {
+        webTestClient.get().uri("/api/github/users/octocat/repos?maxRepos=0")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.Message").isEqualTo("maxRepos must be at least 1");
+
+        verify(0, anyRequestedFor(urlPathMatching("/users/.+/repos")));
+    }
+
     @Test
     public void shouldReturnNotAcceptableForXmlHeaderRequest() {
         stubForRequestWithXmlHeader();
@@ -120,6 +238,230 @@ public class GitHubControllerIntegrationTest {
                         .withBodyFile("json/error/xml-error.json")));
     }
 
+    @Test
+    @DirtiesContext
+    public void shouldReturnTooManyRequestsWhenGitHubRateLimitIsExhausted() {
+        stubFor(WireMock.get(WireMock.urlPathMatching("/users/limited-user/repos"))
+                .willReturn(aResponse()
+                        .withStatus(403)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("X-RateLimit-Limit", "60")
+                        .withHeader("X-RateLimit-Remaining", "0")
+                        .withHeader("X-RateLimit-Reset", String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond()))
+                        .withBody("{ \"message\": \"API rate limit exceeded\" }")));
+
+        webTestClient.get().uri("/api/github/users/limited-user/repos")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().exists("Retry-After")
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(429)
+                .jsonPath("$.Message").isEqualTo("GitHub API rate limit exceeded, retry later");
+
+        verify(1, getRequestedFor(urlPathMatching("/users/limited-user/repos")));
+    }
+
+    @Test
+    public void shouldStreamOneRepositoryPerLineAsNdjson() {
+        String[] repositories = {"git-consortium", "hello-worId", "Hello-World", "octocat.github.io",
+                "Spoon-Knife", "test-repo1"};
+        for (String repo : repositories) {
+            stubForRepositoryBranches(repo, repo + ".json");
+        }
+        stubForUserRepos();
+
+        webTestClient.get().uri("/api/github/users/octocat/repos")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(RepositoryBranchesDto.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNextCount(repositories.length)
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldStreamRepositoriesAsServerSentEvents() {
+        stubForRepositoryBranches("Hello-World", "Hello-World.json");
+        stubFor(WireMock.get(WireMock.urlPathMatching("/users/sse-user/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"Hello-World\",\"owner\":{\"login\":\"octocat\"},\"fork\":false}]")));
+
+        webTestClient.get().uri("/api/github/users/sse-user/repos")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<RepositoryBranchesDto>>() {
+                })
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .assertNext(event -> {
+                    assertNull(event.event());
+                    assertEquals("Hello-World", event.data().repositoryName());
+                    assertEquals(3, event.data().branches().size());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldEndStreamWithErrorEventWhenUpstreamFailsMidStream() {
+        stubForRepositoryBranches("Hello-World", "Hello-World.json");
+        stubFor(WireMock.get(WireMock.urlPathMatching("/repos/octocat/broken/branches"))
+                .willReturn(aResponse()
+                        .withStatus(500)
+                        .withFixedDelay(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{ \"message\": \"Server Error\" }")));
+        stubFor(WireMock.get(WireMock.urlPathMatching("/users/flaky-user/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"Hello-World\",\"owner\":{\"login\":\"octocat\"},\"fork\":false},"
+                                + "{\"name\":\"broken\",\"owner\":{\"login\":\"octocat\"},\"fork\":false}]")));
+
+        webTestClient.get().uri("/api/github/users/flaky-user/repos")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>>() {
+                })
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .assertNext(event -> assertEquals("Hello-World", event.data().get("repositoryName")))
+                .assertNext(event -> {
+                    assertEquals("error", event.event());
+                    assertEquals(500, event.data().get("status"));
+                    assertEquals("Server Error", event.data().get("Message"));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldReturnNotFoundStatusWhenStreamFailsBeforeFirstRepository() {
+        stubForWhenUserDoesNotExist();
+
+        webTestClient.get().uri("/api/github/users/nonexistentuser/repos")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void shouldStreamOneRecordPerUserForBulkRequest() {
+        stubForRepositoryBranches("Hello-World", "Hello-World.json");
+        stubFor(WireMock.get(WireMock.urlPathMatching("/users/bulk-user/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"Hello-World\",\"owner\":{\"login\":\"octocat\"},\"fork\":false}]")));
+        stubForWhenUserDoesNotExist();
+        stubForUserWithNoRepos();
+
+        Map<String, UserRepositoriesDto> records = webTestClient.post().uri("/api/github/bulk/repos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(List.of("bulk-user", "nonexistentuser", "some-user"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(UserRepositoriesDto.class)
+                .getResponseBody()
+                .collectMap(UserRepositoriesDto::username)
+                .block();
+
+        assertEquals(3, records.size());
+        assertEquals("Hello-World", records.get("bulk-user").repositories().get(0).repositoryName());
+        assertEquals(3, records.get("bulk-user").repositories().get(0).branches().size());
+        assertNull(records.get("nonexistentuser").repositories());
+        assertEquals(404, records.get("nonexistentuser").error().get("status"));
+        assertEquals("Not Found", records.get("nonexistentuser").error().get("Message"));
+        assertEquals(List.of(), records.get("some-user").repositories());
+        assertNull(records.get("some-user").error());
+    }
+
+    @Test
+    public void shouldAcceptNdjsonStreamOfUsernamesForBulkRequest() {
+        stubForUserWithNoRepos();
+
+        webTestClient.post().uri("/api/github/bulk/repos")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("\"some-user\"\n\"some-user\"\n")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(UserRepositoriesDto.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNextMatches(record -> record.username().equals("some-user") && record.repositories().isEmpty())
+                .expectNextMatches(record -> record.username().equals("some-user") && record.repositories().isEmpty())
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldRecordUpstreamCallsPerEndpointAndRequestTiming() {
+        stubForRepositoryBranches("Hello-World", "Hello-World.json");
+        stubFor(WireMock.get(WireMock.urlPathMatching("/users/metrics-user/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"Hello-World\",\"owner\":{\"login\":\"octocat\"},\"fork\":false}]")));
+        long repositoryCalls = timerCount("http.client.requests", "uri", "/users/{username}/repos");
+        long branchCalls = timerCount("http.client.requests", "uri", "/repos/{owner}/{repo}/branches");
+        long jsonRequests = timerCount(GitHubController.OBSERVATION_NAME, "format", "json");
+
+        webTestClient.get().uri("/api/github/users/metrics-user/repos")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk();
+
+        awaitTimerCount("http.client.requests", "uri", "/users/{username}/repos", repositoryCalls + 1);
+        awaitTimerCount("http.client.requests", "uri", "/repos/{owner}/{repo}/branches", branchCalls + 1);
+        awaitTimerCount(GitHubController.OBSERVATION_NAME, "format", "json", jsonRequests + 1);
+    }
+
+    // Client observations are stopped on the event loop once the upstream body has been released, which can
+    // be just after the test client has read the response.
+    private void awaitTimerCount(String name, String tag, String value, long expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (timerCount(name, tag, value) < expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(expected, timerCount(name, tag, value), name + " " + value);
+    }
+
+    private long timerCount(String name, String tag, String value) {
+        return meterRegistry.find(name).tag(tag, value).timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    @Test
+    public void shouldStreamEmptyChangeFeedWhenNoUserIsWatched() {
+        webTestClient.get().uri("/api/github/changes?cursor=0")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(BranchChangeDto.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldDefaultToJsonArrayWithoutAcceptHeader() {
+        stubForUserWithNoRepos();
+
+        webTestClient.get().uri("/api/github/users/some-user/repos")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json("[]");
+    }
+
     @Test
     public void userExistsButHasNoRepositoriesTest() {
         stubForUserWithNoRepos();
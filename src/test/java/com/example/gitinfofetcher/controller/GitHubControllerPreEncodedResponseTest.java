@@ -0,0 +1,116 @@
+package com.example.gitinfofetcher.controller;
+
+import com.example.gitinfofetcher.cache.EncodedResponseCache;
+import com.example.gitinfofetcher.cache.RepositoryResultCache;
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.service.GitHubBackend;
+import com.example.gitinfofetcher.service.GitHubService;
+import com.example.gitinfofetcher.watch.WatchList;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class GitHubControllerPreEncodedResponseTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private EncodedResponseCache encodedResponses;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        GitHubBackend backend = username -> Flux.defer(() -> {
+            loads.incrementAndGet();
+            return Flux.just(
+                    new RepositoryBranchesDto("Hello-World", username, List.of(
+                            new GitHubBranch("master", new GitHubCommit("7fd1a60b01f91b314f59955a4e4d4e80d8edf11d")))),
+                    new RepositoryBranchesDto("Spoon-Knife", username, List.of(
+                            new GitHubBranch("main", new GitHubCommit("d0dd1f61b33d64e29d8bc1372a94ef6a2fee76a9")),
+                            new GitHubBranch("test-branch", new GitHubCommit("58060701b538587e8b4ab127253e6ed6fbdc53d1")))));
+        });
+        RepositoryResultCache resultCache = new RepositoryResultCache(10, Duration.ofHours(1), 0.8, Duration.ofHours(1),
+                null, objectMapper, Clock.systemUTC());
+        encodedResponses = new EncodedResponseCache(10, 1 << 20, objectMapper);
+        GitHubService service = new GitHubService(backend, resultCache, encodedResponses, WatchList.disabled(), 8);
+        webTestClient = WebTestClient.bindToController(new GitHubController(service, WatchList.disabled(), ObservationRegistry.NOOP))
+                .build();
+    }
+
+    @Test
+    void shouldServeRepeatRequestsFromEncodedBytesWithAnETag() {
+        EntityExchangeResult<byte[]> first = get(MediaType.APPLICATION_JSON);
+        EntityExchangeResult<byte[]> second = get(MediaType.APPLICATION_JSON);
+        EntityExchangeResult<byte[]> third = get(MediaType.APPLICATION_JSON);
+
+        assertNull(first.getResponseHeaders().getETag(), "the first response streams as it loads");
+        assertNotNull(second.getResponseHeaders().getETag());
+        assertEquals(second.getResponseHeaders().getETag(), third.getResponseHeaders().getETag());
+        assertArrayEquals(first.getResponseBodyContent(), second.getResponseBodyContent());
+        assertArrayEquals(first.getResponseBodyContent(), third.getResponseBodyContent());
+        assertEquals(MediaType.APPLICATION_JSON, second.getResponseHeaders().getContentType());
+        assertEquals(1, loads.get());
+        assertEquals(1, encodedResponses.encodes());
+        assertEquals(1, encodedResponses.hits());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWhenTheClientHoldsTheCurrentBody() {
+        get(MediaType.APPLICATION_JSON);
+        String eTag = get(MediaType.APPLICATION_JSON).getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/api/github/users/octocat/repos")
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectBody().isEmpty();
+
+        webTestClient.get().uri("/api/github/users/octocat/repos")
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stale\"")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void shouldEncodeEachMediaTypeSeparately() {
+        byte[] streamed = get(MediaType.APPLICATION_NDJSON).getResponseBodyContent();
+        EntityExchangeResult<byte[]> ndjson = get(MediaType.APPLICATION_NDJSON);
+        EntityExchangeResult<byte[]> json = get(MediaType.APPLICATION_JSON);
+
+        assertArrayEquals(streamed, ndjson.getResponseBodyContent());
+        assertEquals(MediaType.APPLICATION_NDJSON, ndjson.getResponseHeaders().getContentType());
+        assertNotEquals(ndjson.getResponseHeaders().getETag(), json.getResponseHeaders().getETag());
+        assertEquals(2, encodedResponses.size());
+    }
+
+    private EntityExchangeResult<byte[]> get(MediaType mediaType) {
+        return webTestClient.get().uri("/api/github/users/octocat/repos")
+                .accept(mediaType)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .returnResult();
+    }
+}
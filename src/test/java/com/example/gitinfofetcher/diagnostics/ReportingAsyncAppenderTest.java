@@ -0,0 +1,72 @@
+package com.example.gitinfofetcher.diagnostics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReportingAsyncAppenderTest {
+
+    @Test
+    void shouldDropInsteadOfBlockingAndReportTheDroppedCount() throws InterruptedException {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger logger = context.getLogger("reporting-async-appender-test");
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ListAppender<ILoggingEvent> events = new ListAppender<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                super.append(event);
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        events.setContext(context);
+        events.start();
+        ReportingAsyncAppender appender = new ReportingAsyncAppender();
+        appender.setContext(context);
+        appender.setName("WARN_QUEUE");
+        appender.setQueueSize(2);
+        appender.setDiscardingThreshold(0);
+        appender.addAppender(events);
+        appender.start();
+
+        appender.doAppend(event(logger, "event 0"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 4; i++) {
+            appender.doAppend(event(logger, "event " + i));
+        }
+        assertEquals(2, appender.dropped());
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (appender.getRemainingCapacity() < 2 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        appender.doAppend(event(logger, "event 5"));
+        appender.stop();
+
+        List<String> messages = events.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+        assertEquals(List.of("event 0", "event 1", "event 2",
+                "2 log events were dropped because the log queue of WARN_QUEUE was full", "event 5"), messages);
+        assertEquals(Level.WARN, events.list.get(3).getLevel());
+    }
+
+    private static ILoggingEvent event(Logger logger, String message) {
+        return new LoggingEvent(Logger.class.getName(), logger, Level.ERROR, message, null, null);
+    }
+}
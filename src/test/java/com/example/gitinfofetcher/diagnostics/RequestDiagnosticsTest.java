@@ -0,0 +1,94 @@
+package com.example.gitinfofetcher.diagnostics;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestDiagnosticsTest {
+
+    private static final ClientRequest REQUEST = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/users/octocat/repos")).build();
+
+    private final Logger summaryLogger = (Logger) LoggerFactory.getLogger(RequestDiagnostics.class);
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+    @BeforeEach
+    void captureSummaries() {
+        events.start();
+        summaryLogger.addAppender(events);
+    }
+
+    @AfterEach
+    void stopCapturing() {
+        summaryLogger.detachAppender(events);
+    }
+
+    @Test
+    void shouldLogOneSummaryWithTheUpstreamCallsOfTheLookup() {
+        UpstreamTimingFilter timing = new UpstreamTimingFilter();
+        Mono<ClientResponse> upstreamCall = timing.filter(REQUEST,
+                request -> Mono.delay(Duration.ofMillis(20)).thenReturn(ClientResponse.create(HttpStatus.OK).build()));
+        Flux<RepositoryBranchesDto> lookup = upstreamCall.then(upstreamCall)
+                .thenMany(Flux.just(repository("a", 2), repository("b", 3)));
+
+        RequestDiagnostics.summarized("octocat", "all", lookup).collectList().block();
+
+        assertEquals(1, events.list.size());
+        String summary = events.list.get(0).getFormattedMessage();
+        assertTrue(summary.startsWith("lookup user=octocat query=all outcome=complete repositories=2 branches=5 upstreamCalls=2 "), summary);
+        assertTrue(upstreamMillis(summary) >= 40, summary);
+    }
+
+    @Test
+    void shouldLogTheSummaryOfAFailedLookup() {
+        Flux<RepositoryBranchesDto> lookup = Flux.concat(Flux.just(repository("a", 1)), Flux.error(new IllegalStateException("boom")));
+
+        assertThrows(IllegalStateException.class, () -> RequestDiagnostics.summarized("octocat", "filtered", lookup).blockLast());
+
+        assertEquals(1, events.list.size());
+        assertTrue(events.list.get(0).getFormattedMessage()
+                .startsWith("lookup user=octocat query=filtered outcome=error repositories=1 branches=1 upstreamCalls=0 "));
+    }
+
+    @Test
+    void shouldPassExchangesOutsideALookupThrough() {
+        ClientResponse response = new UpstreamTimingFilter()
+                .filter(REQUEST, request -> Mono.just(ClientResponse.create(HttpStatus.NO_CONTENT).build()))
+                .block();
+
+        assertEquals(204, response.statusCode().value());
+        assertTrue(events.list.isEmpty());
+    }
+
+    private static RepositoryBranchesDto repository(String name, int branches) {
+        List<GitHubBranch> list = IntStream.range(0, branches)
+                .mapToObj(i -> new GitHubBranch("branch-" + i, null))
+                .toList();
+        return new RepositoryBranchesDto(name, "octocat", list);
+    }
+
+    private static long upstreamMillis(String summary) {
+        String value = summary.substring(summary.indexOf("upstreamMs=") + "upstreamMs=".length());
+        return Long.parseLong(value.substring(0, value.indexOf(' ')));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.gitinfofetcher.diagnostics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SampledLoggerTest {
+
+    @Test
+    void shouldLogAtMostTheConfiguredEventsPerSecondAndReportTheRest() throws InterruptedException {
+        Logger logger = (Logger) LoggerFactory.getLogger("sampled-logger-test");
+        logger.setLevel(Level.DEBUG);
+        ListAppender<ILoggingEvent> events = new ListAppender<>();
+        events.start();
+        logger.addAppender(events);
+        SampledLogger sampled = new SampledLogger(logger, 3);
+
+        for (int i = 0; i < 10; i++) {
+            sampled.debug("event {}", i);
+        }
+        Thread.sleep(1100);
+        sampled.debug("event {}", 10);
+
+        assertEquals(4, events.list.size());
+        assertEquals("event 0", events.list.get(0).getFormattedMessage());
+        assertEquals("event 10 (7 similar events suppressed)", events.list.get(3).getFormattedMessage());
+    }
+
+    @Test
+    void shouldKeepATrailingThrowableAsTheEventsException() throws InterruptedException {
+        Logger logger = (Logger) LoggerFactory.getLogger("sampled-logger-test-throwable");
+        logger.setLevel(Level.DEBUG);
+        ListAppender<ILoggingEvent> events = new ListAppender<>();
+        events.start();
+        logger.addAppender(events);
+        SampledLogger sampled = new SampledLogger(logger, 1);
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        sampled.debug("call {} failed", 0, failure);
+        sampled.debug("call {} failed", 1, failure);
+        Thread.sleep(1100);
+        sampled.debug("call {} failed", 2, failure);
+
+        assertEquals(2, events.list.size());
+        assertEquals("call 2 failed (1 similar events suppressed)", events.list.get(1).getFormattedMessage());
+        assertEquals("boom", events.list.get(1).getThrowableProxy().getMessage());
+    }
+
+    @Test
+    void shouldSkipEverythingWhenDebugIsDisabled() {
+        Logger logger = (Logger) LoggerFactory.getLogger("sampled-logger-test-disabled");
+        logger.setLevel(Level.INFO);
+        ListAppender<ILoggingEvent> events = new ListAppender<>();
+        events.start();
+        logger.addAppender(events);
+
+        new SampledLogger(logger, 3).debug("event {}", 1);
+
+        assertTrue(events.list.isEmpty());
+    }
+}
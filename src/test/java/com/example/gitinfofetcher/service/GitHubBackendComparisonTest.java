@@ -0,0 +1,122 @@
+package com.example.gitinfofetcher.service;
+
+import com.example.gitinfofetcher.client.AdaptiveConcurrencyLimiter;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Serves the same user from a REST stub and a GraphQL stub, each response delayed by {@link #LATENCY}, and
+ * compares how many upstream calls and how much wall-clock time each backend needs for it.
+ */
+public class GitHubBackendComparisonTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitHubBackendComparisonTest.class);
+
+    private static final int REPOSITORIES = 120;
+    private static final int GRAPHQL_PAGE_SIZE = 50;
+    private static final int LATENCY_MILLIS = 40;
+    private static final Duration LATENCY = Duration.ofMillis(LATENCY_MILLIS);
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort().containerThreads(100))
+            .build();
+
+    @BeforeEach
+    void stubUpstream() {
+        String repos = IntStream.range(0, REPOSITORIES)
+                .mapToObj(i -> "{\"name\":\"repo-" + i + "\",\"owner\":{\"login\":\"octocat\"},\"fork\":false}")
+                .collect(Collectors.joining(",", "[", "]"));
+        wireMock.stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(LATENCY_MILLIS)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(repos)));
+        wireMock.stubFor(get(urlPathMatching("/repos/octocat/.+/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(LATENCY_MILLIS)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"7fd1a60b01f91b314f59955a4e4d4e80d8edf11d\"}}]")));
+
+        int pages = (REPOSITORIES + GRAPHQL_PAGE_SIZE - 1) / GRAPHQL_PAGE_SIZE;
+        for (int page = 0; page < pages; page++) {
+            String nodes = IntStream.range(page * GRAPHQL_PAGE_SIZE, Math.min(REPOSITORIES, (page + 1) * GRAPHQL_PAGE_SIZE))
+                    .mapToObj(i -> "{\"name\":\"repo-" + i + "\",\"owner\":{\"login\":\"octocat\"},\"refs\":{"
+                            + "\"pageInfo\":{\"hasNextPage\":false,\"endCursor\":null},"
+                            + "\"nodes\":[{\"name\":\"main\",\"target\":{\"oid\":\"7fd1a60b01f91b314f59955a4e4d4e80d8edf11d\"}}]}}")
+                    .collect(Collectors.joining(",", "[", "]"));
+            boolean hasNextPage = page < pages - 1;
+            String body = "{\"data\":{\"repositoryOwner\":{\"repositories\":{\"pageInfo\":{\"hasNextPage\":" + hasNextPage
+                    + ",\"endCursor\":\"page-" + (page + 1) + "\"},\"nodes\":" + nodes + "}}}}";
+            wireMock.stubFor(post(urlEqualTo("/graphql"))
+                    .withRequestBody(page == 0
+                            ? matchingJsonPath("$.variables[?(@.cursor == null)]")
+                            : matchingJsonPath("$.variables.cursor", equalTo("page-" + page)))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withFixedDelay(LATENCY_MILLIS)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody(body)));
+        }
+    }
+
+    @Test
+    void graphQlBackendNeedsFewerUpstreamCallsAndLessTime() {
+        WebClient webClient = WebClient.builder().baseUrl(wireMock.baseUrl()).build();
+        GitHubBackend rest = new RestGitHubBackend(new GitHubPaginator(webClient, 100, 4),
+                new AdaptiveConcurrencyLimiter(8, 1, 64, Duration.ofSeconds(2)), false);
+        GitHubBackend graphQl = new GraphQlGitHubBackend(webClient, "/graphql", GRAPHQL_PAGE_SIZE, 100);
+
+        rest.fetchRepositoriesWithBranches("octocat").blockLast(Duration.ofMinutes(1));
+        graphQl.fetchRepositoriesWithBranches("octocat").blockLast(Duration.ofMinutes(1));
+
+        Measurement restRun = measure(rest);
+        Measurement graphQlRun = measure(graphQl);
+        logger.info("rest:    {} repos, {} upstream calls, {} ms", restRun.repositories(), restRun.calls(), restRun.millis());
+        logger.info("graphql: {} repos, {} upstream calls, {} ms", graphQlRun.repositories(), graphQlRun.calls(), graphQlRun.millis());
+
+        assertEquals(REPOSITORIES, restRun.repositories());
+        assertEquals(REPOSITORIES, graphQlRun.repositories());
+        assertEquals(1 + REPOSITORIES, restRun.calls());
+        assertEquals((REPOSITORIES + GRAPHQL_PAGE_SIZE - 1) / GRAPHQL_PAGE_SIZE, graphQlRun.calls());
+        assertTrue(graphQlRun.millis() < restRun.millis(),
+                "graphql should finish sooner (" + graphQlRun.millis() + " ms vs " + restRun.millis() + " ms)");
+        assertTrue(graphQlRun.millis() >= LATENCY.toMillis() * graphQlRun.calls());
+    }
+
+    private static Measurement measure(GitHubBackend backend) {
+        wireMock.resetRequests();
+        long start = System.nanoTime();
+        long repositories = backend.fetchRepositoriesWithBranches("octocat").count().block(Duration.ofMinutes(1));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        return new Measurement(repositories, wireMock.findAll(anyRequestedFor(anyUrl())).size(), millis);
+    }
+
+    private record Measurement(long repositories, int calls, long millis) {
+    }
+}
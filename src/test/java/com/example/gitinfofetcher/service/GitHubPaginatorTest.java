@@ -0,0 +1,169 @@
+package com.example.gitinfofetcher.service;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubRepository;
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@WireMockTest
+public class GitHubPaginatorTest {
+
+    private static final int PER_PAGE = 100;
+
+    @Test
+    void shouldFetchEveryPageAdvertisedByLastLink(WireMockRuntimeInfo wireMock) {
+        int totalRepos = 3_000;
+        int pages = totalRepos / PER_PAGE;
+        for (int page = 1; page <= pages; page++) {
+            stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                    .withQueryParam("page", page == 1 ? absent() : equalTo(String.valueOf(page)))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withHeader("Link", linkHeader(wireMock, "/users/octocat/repos", page, pages, true))
+                            .withBody(reposPage(page))));
+        }
+
+        GitHubPaginator paginator = new GitHubPaginator(webClient(wireMock), PER_PAGE, 4);
+
+        StepVerifier.create(paginator.fetchAll("/users/{username}/repos", GitHubRepository.class, "octocat")
+                        .map(GitHubRepository::name)
+                        .collectList())
+                .assertNext(names -> {
+                    assertEquals(totalRepos, names.size());
+                    assertEquals("repo-0", names.get(0));
+                    assertEquals("repo-" + (totalRepos - 1), names.get(totalRepos - 1));
+                })
+                .verifyComplete();
+
+        verify(pages, getRequestedFor(urlPathEqualTo("/users/octocat/repos"))
+                .withQueryParam("per_page", equalTo(String.valueOf(PER_PAGE))));
+    }
+
+    @Test
+    void shouldFollowNextLinksWhenLastIsNotAdvertised(WireMockRuntimeInfo wireMock) {
+        int pages = 3;
+        for (int page = 1; page <= pages; page++) {
+            stubFor(get(urlPathEqualTo("/repos/octocat/big/branches"))
+                    .withQueryParam("page", page == 1 ? absent() : equalTo(String.valueOf(page)))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withHeader("Link", linkHeader(wireMock, "/repos/octocat/big/branches", page, pages, false))
+                            .withBody(branchesPage(page))));
+        }
+
+        GitHubPaginator paginator = new GitHubPaginator(webClient(wireMock), PER_PAGE, 4);
+
+        StepVerifier.create(paginator.fetchAll("/repos/{owner}/{repo}/branches", GitHubBranch.class, "octocat", "big"))
+                .expectNextCount((long) pages * PER_PAGE)
+                .verifyComplete();
+
+        verify(pages, getRequestedFor(urlPathEqualTo("/repos/octocat/big/branches")));
+    }
+
+    @Test
+    void shouldEmitFirstPageBeforeSlowLastPageArrives(WireMockRuntimeInfo wireMock) {
+        int pages = 3;
+        for (int page = 1; page <= pages; page++) {
+            stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                    .withQueryParam("page", page == 1 ? absent() : equalTo(String.valueOf(page)))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withFixedDelay(page == pages ? 1_000 : 0)
+                            .withHeader("Content-Type", "application/json")
+                            .withHeader("Link", linkHeader(wireMock, "/users/octocat/repos", page, pages, true))
+                            .withBody(reposPage(page))));
+        }
+
+        GitHubPaginator paginator = new GitHubPaginator(webClient(wireMock), PER_PAGE, 4);
+        long start = System.nanoTime();
+        AtomicLong firstItemAt = new AtomicLong();
+
+        StepVerifier.create(paginator.fetchAll("/users/{username}/repos", GitHubRepository.class, "octocat")
+                        .doOnNext(repo -> firstItemAt.compareAndSet(0, System.nanoTime())))
+                .expectNextCount((long) pages * PER_PAGE)
+                .verifyComplete();
+
+        long completedAt = System.nanoTime();
+        assertTrue(completedAt - firstItemAt.get() > 500_000_000L,
+                "first page should be emitted well before the delayed last page, took " + (firstItemAt.get() - start) + "ns");
+    }
+
+    @Test
+    void shouldPropagateErrorFromLaterPage(WireMockRuntimeInfo wireMock) {
+        stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                .withQueryParam("page", absent())
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Link", linkHeader(wireMock, "/users/octocat/repos", 1, 2, true))
+                        .withBody(reposPage(1))));
+        stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                .withQueryParam("page", equalTo("2"))
+                .willReturn(aResponse().withStatus(500)));
+
+        GitHubPaginator paginator = new GitHubPaginator(webClient(wireMock), PER_PAGE, 4);
+
+        StepVerifier.create(paginator.fetchAll("/users/{username}/repos", GitHubRepository.class, "octocat"))
+                .expectNextCount(PER_PAGE)
+                .expectError(WebClientResponseException.InternalServerError.class)
+                .verify();
+    }
+
+    private static WebClient webClient(WireMockRuntimeInfo wireMock) {
+        return WebClient.builder().baseUrl(wireMock.getHttpBaseUrl()).build();
+    }
+
+    private static String linkHeader(WireMockRuntimeInfo wireMock, String path, int page, int pages, boolean includeLast) {
+        String base = wireMock.getHttpBaseUrl() + path + "?per_page=" + PER_PAGE + "&page=";
+        StringBuilder link = new StringBuilder();
+        if (page < pages) {
+            link.append('<').append(base).append(page + 1).append(">; rel=\"next\"");
+            if (includeLast) {
+                link.append(", <").append(base).append(pages).append(">; rel=\"last\"");
+            }
+        }
+        if (page > 1) {
+            if (link.length() > 0) {
+                link.append(", ");
+            }
+            link.append("<").append(base).append(1).append(">; rel=\"first\"");
+        }
+        return link.toString();
+    }
+
+    private static String reposPage(int page) {
+        List<String> repos = IntStream.range((page - 1) * PER_PAGE, page * PER_PAGE)
+                .mapToObj(i -> "{\"name\":\"repo-" + i + "\",\"owner\":{\"login\":\"octocat\"},\"fork\":false}")
+                .collect(Collectors.toList());
+        return "[" + String.join(",", repos) + "]";
+    }
+
+    private static String branchesPage(int page) {
+        List<String> branches = IntStream.range((page - 1) * PER_PAGE, page * PER_PAGE)
+                .mapToObj(i -> "{\"name\":\"branch-" + i + "\",\"commit\":{\"sha\":\"" + String.format("%040x", i) + "\"}}")
+                .collect(Collectors.toList());
+        return "[" + String.join(",", branches) + "]";
+    }
+}
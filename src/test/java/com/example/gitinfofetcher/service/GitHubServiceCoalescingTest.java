@@ -0,0 +1,68 @@
+package com.example.gitinfofetcher.service;
+
+import com.example.gitinfofetcher.cache.EncodedResponseCache;
+import com.example.gitinfofetcher.cache.RepositoryResultCache;
+import com.example.gitinfofetcher.client.AdaptiveConcurrencyLimiter;
+import com.example.gitinfofetcher.watch.WatchList;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class GitHubServiceCoalescingTest {
+
+    private static final int CLIENTS = 1_000;
+    private static final int REPOSITORIES = 10;
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @Test
+    void concurrentIdenticalRequestsShareUpstreamCalls() {
+        String repos = IntStream.range(0, REPOSITORIES)
+                .mapToObj(i -> "{\"name\":\"repo-" + i + "\",\"owner\":{\"login\":\"octocat\"},\"fork\":false}")
+                .collect(Collectors.joining(",", "[", "]"));
+        wireMock.stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(300)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(repos)));
+        wireMock.stubFor(get(urlPathMatching("/repos/octocat/.+/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(300)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"7fd1a60b01f91b314f59955a4e4d4e80d8edf11d\"}}]")));
+
+        WebClient webClient = WebClient.builder().baseUrl(wireMock.baseUrl()).build();
+        GitHubService service = new GitHubService(new RestGitHubBackend(new GitHubPaginator(webClient, 100, 4),
+                new AdaptiveConcurrencyLimiter(8, 1, 64, Duration.ofSeconds(2)), false), RepositoryResultCache.disabled(), EncodedResponseCache.disabled(), WatchList.disabled(), 8);
+
+        List<Long> repositoriesPerClient = Flux.range(0, CLIENTS)
+                .flatMap(i -> service.listUserRepositoriesWithBranches("octocat").count(), CLIENTS)
+                .collectList()
+                .block(Duration.ofMinutes(1));
+
+        assertEquals(CLIENTS, repositoriesPerClient.size());
+        repositoriesPerClient.forEach(count -> assertEquals(REPOSITORIES, count));
+        assertEquals(1, wireMock.findAll(getRequestedFor(urlPathEqualTo("/users/octocat/repos"))).size());
+        assertEquals(REPOSITORIES, wireMock.findAll(getRequestedFor(urlPathMatching("/repos/octocat/.+/branches"))).size());
+    }
+}
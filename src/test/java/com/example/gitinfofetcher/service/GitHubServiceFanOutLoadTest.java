@@ -0,0 +1,189 @@
+package com.example.gitinfofetcher.service;
+
+import com.example.gitinfofetcher.cache.EncodedResponseCache;
+import com.example.gitinfofetcher.cache.RepositoryResultCache;
+import com.example.gitinfofetcher.client.AdaptiveConcurrencyLimiter;
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubRepository;
+import com.example.gitinfofetcher.watch.WatchList;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the branch fan-out against a stub that, like GitHub's secondary rate limit, answers 429 once more
+ * than {@link #UPSTREAM_CAPACITY} requests are in flight and keeps rejecting everything for {@link #PENALTY}.
+ */
+public class GitHubServiceFanOutLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitHubServiceFanOutLoadTest.class);
+
+    private static final int REPOSITORIES = 300;
+    private static final int UPSTREAM_CAPACITY = 8;
+    private static final Duration PENALTY = Duration.ofMillis(250);
+    private static final ConcurrencyGate gate = new ConcurrencyGate(UPSTREAM_CAPACITY);
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort().containerThreads(400).extensions(gate))
+            .build();
+
+    @BeforeEach
+    void stubUpstream() {
+        stubUser("warmup", 20);
+        stubUser("octocat", REPOSITORIES);
+        wireMock.stubFor(get(urlPathMatching("/repos/.+/.+/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(20)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"7fd1a60b01f91b314f59955a4e4d4e80d8edf11d\"}}]")));
+        gate.reset();
+    }
+
+    @Test
+    void adaptiveFanOutSustainsHigherThroughputThanUnboundedFlatMap() {
+        WebClient webClient = WebClient.builder().baseUrl(wireMock.baseUrl()).build();
+        GitHubPaginator paginator = new GitHubPaginator(webClient, 100, 4);
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 64, Duration.ofSeconds(2));
+        GitHubService service = new GitHubService(new RestGitHubBackend(paginator, limiter, false), RepositoryResultCache.disabled(), EncodedResponseCache.disabled(), WatchList.disabled(), 8);
+        service.listUserRepositoriesWithBranches("warmup").blockLast(Duration.ofMinutes(1));
+        unboundedFanOut(paginator, "warmup").block(Duration.ofMinutes(1));
+        gate.reset();
+
+        long adaptiveStart = System.nanoTime();
+        long adaptiveCompleted = service.listUserRepositoriesWithBranches("octocat")
+                .count()
+                .block(Duration.ofMinutes(1));
+        double adaptiveSeconds = (System.nanoTime() - adaptiveStart) / 1e9;
+        int adaptiveRejected = gate.rejected();
+
+        gate.reset();
+        // the pipeline as it was before the limiter, retrying rejected calls so that it finishes the workload
+        long unboundedStart = System.nanoTime();
+        long unboundedCompleted = unboundedFanOut(paginator, "octocat").block(Duration.ofMinutes(1));
+        double unboundedSeconds = (System.nanoTime() - unboundedStart) / 1e9;
+        int unboundedRejected = gate.rejected();
+
+        double unboundedThroughput = unboundedCompleted / unboundedSeconds;
+        double adaptiveThroughput = adaptiveCompleted / adaptiveSeconds;
+        logger.info("unbounded flatMap: {} repos in {}s ({} repos/s), {} upstream 429s",
+                unboundedCompleted, String.format("%.2f", unboundedSeconds), String.format("%.0f", unboundedThroughput), unboundedRejected);
+        logger.info("adaptive limiter:  {} repos in {}s ({} repos/s), {} upstream 429s, final limit {}",
+                adaptiveCompleted, String.format("%.2f", adaptiveSeconds), String.format("%.0f", adaptiveThroughput), adaptiveRejected, limiter.limit());
+
+        assertEquals(REPOSITORIES, adaptiveCompleted);
+        assertTrue(adaptiveRejected < unboundedRejected,
+                "adaptive fan-out should trip the upstream limit less often (" + adaptiveRejected + " vs " + unboundedRejected + ")");
+        assertTrue(adaptiveThroughput > unboundedThroughput,
+                "adaptive fan-out should sustain higher throughput (" + adaptiveThroughput + " vs " + unboundedThroughput + " repos/s)");
+    }
+
+    private static void stubUser(String username, int repositories) {
+        String repos = IntStream.range(0, repositories)
+                .mapToObj(i -> "{\"name\":\"repo-" + i + "\",\"owner\":{\"login\":\"" + username + "\"},\"fork\":false}")
+                .collect(Collectors.joining(",", "[", "]"));
+        wireMock.stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(repos)));
+    }
+
+    private static Mono<Long> unboundedFanOut(GitHubPaginator paginator, String username) {
+        return paginator.fetchAll("/users/{username}/repos", GitHubRepository.class, username)
+                .flatMap(repo -> paginator.fetchAll("/repos/{owner}/{repo}/branches", GitHubBranch.class, username, repo.name())
+                        .collectList()
+                        .retryWhen(Retry.backoff(10, Duration.ofMillis(50)))
+                        .onErrorResume(e -> Mono.empty()))
+                .count();
+    }
+
+    static class ConcurrencyGate implements ResponseDefinitionTransformerV2, ServeEventListener {
+
+        private final int capacity;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final Set<UUID> admitted = ConcurrentHashMap.newKeySet();
+        private volatile long blockedUntil;
+
+        ConcurrencyGate(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public ResponseDefinition transform(ServeEvent serveEvent) {
+            if (!serveEvent.getRequest().getUrl().contains("/branches")) {
+                return serveEvent.getResponseDefinition();
+            }
+            long now = System.nanoTime();
+            if (now < blockedUntil || inFlight.incrementAndGet() > capacity) {
+                if (now >= blockedUntil) {
+                    inFlight.decrementAndGet();
+                    blockedUntil = now + PENALTY.toNanos();
+                }
+                rejected.incrementAndGet();
+                return aResponse()
+                        .withStatus(429)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"message\":\"You have exceeded a secondary rate limit.\"}")
+                        .build();
+            }
+            admitted.add(serveEvent.getId());
+            return serveEvent.getResponseDefinition();
+        }
+
+        @Override
+        public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+            if (admitted.remove(serveEvent.getId())) {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        int rejected() {
+            return rejected.get();
+        }
+
+        void reset() {
+            rejected.set(0);
+        }
+
+        @Override
+        public boolean applyGlobally() {
+            return true;
+        }
+
+        @Override
+        public String getName() {
+            return "concurrency-gate";
+        }
+    }
+}
@@ -1,30 +1,48 @@
 package com.example.gitinfofetcher.service;
 
+import com.example.gitinfofetcher.cache.EncodedResponseCache;
+import com.example.gitinfofetcher.cache.RepositoryResultCache;
+import com.example.gitinfofetcher.client.AdaptiveConcurrencyLimiter;
 import com.example.gitinfofetcher.domain.GitHubBranch;
 import com.example.gitinfofetcher.domain.GitHubCommit;
 import com.example.gitinfofetcher.domain.GitHubRepository;
 import com.example.gitinfofetcher.domain.GitHubUser;
 import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.dto.UserRepositoriesDto;
+import com.example.gitinfofetcher.watch.WatchList;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(MockitoExtension.class)
 public class GitHubServiceTest {
 
+    private static final int PER_PAGE = 100;
+
     @Mock
     private WebClient webClient;
     @Mock
@@ -45,16 +63,16 @@ public class GitHubServiceTest {
         );
 
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri("/users/{username}/repos", username)).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri("/users/{username}/repos?per_page={perPage}", username, PER_PAGE)).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
         // Mock the response for the repositories list
-        when(responseSpec.bodyToFlux(GitHubRepository.class)).thenReturn(Flux.just(repo1));
+        when(responseSpec.toEntityList(GitHubRepository.class)).thenReturn(page(List.of(repo1)));
 
         // Mock the response for the branches of repo1
-        when(requestHeadersUriSpec.uri("/repos/{owner}/{repo}/branches", owner.login(), repo1.name())).thenReturn(requestHeadersSpec);
-        when(responseSpec.bodyToFlux(GitHubBranch.class)).thenReturn(Flux.fromIterable(branchesForRepo1));
+        when(requestHeadersUriSpec.uri("/repos/{owner}/{repo}/branches?per_page={perPage}", owner.login(), repo1.name(), PER_PAGE)).thenReturn(requestHeadersSpec);
+        when(responseSpec.toEntityList(GitHubBranch.class)).thenReturn(page(branchesForRepo1));
 
-        GitHubService service = new GitHubService(webClient);
+        GitHubService service = new GitHubService(new RestGitHubBackend(new GitHubPaginator(webClient, PER_PAGE, 4), limiter(), false), RepositoryResultCache.disabled(), EncodedResponseCache.disabled(), WatchList.disabled(), 8);
 
         Flux<RepositoryBranchesDto> result = service.listUserRepositoriesWithBranches(username);
 
@@ -77,12 +95,12 @@ public class GitHubServiceTest {
         String username = "newuser";
         // Setup WebClient mocks
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri("/users/{username}/repos", username)).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri("/users/{username}/repos?per_page={perPage}", username, PER_PAGE)).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
         // Simulate an empty list of repositories
-        when(responseSpec.bodyToFlux(GitHubRepository.class)).thenReturn(Flux.empty());
+        when(responseSpec.toEntityList(GitHubRepository.class)).thenReturn(page(List.of()));
 
-        GitHubService service = new GitHubService(webClient);
+        GitHubService service = new GitHubService(new RestGitHubBackend(new GitHubPaginator(webClient, PER_PAGE, 4), limiter(), false), RepositoryResultCache.disabled(), EncodedResponseCache.disabled(), WatchList.disabled(), 8);
 
         // Call the method under test
         Flux<RepositoryBranchesDto> result = service.listUserRepositoriesWithBranches(username);
@@ -103,12 +121,12 @@ public class GitHubServiceTest {
 
         // simulate an HTTP 404 error for fetching repos
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri("/users/{username}/repos", username)).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri("/users/{username}/repos?per_page={perPage}", username, PER_PAGE)).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToFlux(GitHubRepository.class)).thenReturn(Flux.error(notFoundException));
+        when(responseSpec.toEntityList(GitHubRepository.class)).thenReturn(Mono.error(notFoundException));
 
         // Call the method under test
-        GitHubService service = new GitHubService(webClient);
+        GitHubService service = new GitHubService(new RestGitHubBackend(new GitHubPaginator(webClient, PER_PAGE, 4), limiter(), false), RepositoryResultCache.disabled(), EncodedResponseCache.disabled(), WatchList.disabled(), 8);
         Flux<RepositoryBranchesDto> result = service.listUserRepositoriesWithBranches(username);
 
         // Use StepVerifier to check that the correct error is propagated
@@ -127,16 +145,16 @@ public class GitHubServiceTest {
 
         // Mock the WebClient to simulate a successful fetch of repositories
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri("/users/{username}/repos", username)).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri("/users/{username}/repos?per_page={perPage}", username, PER_PAGE)).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToFlux(GitHubRepository.class)).thenReturn(Flux.just(repo));
+        when(responseSpec.toEntityList(GitHubRepository.class)).thenReturn(page(List.of(repo)));
 
         // Then simulate an HTTP 404 error for fetching branches
-        when(requestHeadersUriSpec.uri("/repos/{owner}/{repo}/branches", username, repo.name())).thenReturn(requestHeadersSpec);
-        when(responseSpec.bodyToFlux(GitHubBranch.class)).thenReturn(Flux.error(exception));
+        when(requestHeadersUriSpec.uri("/repos/{owner}/{repo}/branches?per_page={perPage}", username, repo.name(), PER_PAGE)).thenReturn(requestHeadersSpec);
+        when(responseSpec.toEntityList(GitHubBranch.class)).thenReturn(Mono.error(exception));
 
         // Call the method under test
-        GitHubService service = new GitHubService(webClient);
+        GitHubService service = new GitHubService(new RestGitHubBackend(new GitHubPaginator(webClient, PER_PAGE, 4), limiter(), false), RepositoryResultCache.disabled(), EncodedResponseCache.disabled(), WatchList.disabled(), 8);
         Flux<RepositoryBranchesDto> result = service.listUserRepositoriesWithBranches(username);
 
         // Use StepVerifier to check that the correct error is propagated
@@ -146,6 +164,39 @@ public class GitHubServiceTest {
                 .verify();
     }
 
+    @Test
+    void testPartialResultsMarkRepositoriesWhoseBranchesFailed() {
+        String username = "octocat";
+        GitHubRepository repo1 = new GitHubRepository("repo1", new GitHubUser(username), false, null);
+        GitHubRepository repo2 = new GitHubRepository("repo2", new GitHubUser(username), false, null);
+        WebClientResponseException exception = WebClientResponseException.create(
+                502, "Bad Gateway", null, null, null);
+
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri("/users/{username}/repos?per_page={perPage}", username, PER_PAGE)).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.toEntityList(GitHubRepository.class)).thenReturn(page(List.of(repo1, repo2)));
+        WebClient.RequestHeadersSpec failingBranches = mock(WebClient.RequestHeadersSpec.class);
+        WebClient.ResponseSpec failingResponse = mock(WebClient.ResponseSpec.class);
+        when(requestHeadersUriSpec.uri("/repos/{owner}/{repo}/branches?per_page={perPage}", username, repo1.name(), PER_PAGE)).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri("/repos/{owner}/{repo}/branches?per_page={perPage}", username, repo2.name(), PER_PAGE)).thenReturn(failingBranches);
+        when(failingBranches.retrieve()).thenReturn(failingResponse);
+        when(responseSpec.toEntityList(GitHubBranch.class)).thenReturn(page(List.of(new GitHubBranch("main", new GitHubCommit("sha-main")))));
+        when(failingResponse.toEntityList(GitHubBranch.class)).thenReturn(Mono.error(exception));
+
+        GitHubService service = new GitHubService(new RestGitHubBackend(new GitHubPaginator(webClient, PER_PAGE, 4), limiter(), true), RepositoryResultCache.disabled(), EncodedResponseCache.disabled(), WatchList.disabled(), 8);
+
+        List<RepositoryBranchesDto> result = service.listUserRepositoriesWithBranches(username).collectList().block();
+
+        assertEquals(2, result.size());
+        RepositoryBranchesDto ok = result.stream().filter(dto -> dto.repositoryName().equals("repo1")).findFirst().orElseThrow();
+        RepositoryBranchesDto failed = result.stream().filter(dto -> dto.repositoryName().equals("repo2")).findFirst().orElseThrow();
+        assertEquals(1, ok.branches().size());
+        assertNull(ok.error());
+        assertTrue(failed.branches().isEmpty());
+        assertEquals(502, failed.error().get("status"));
+    }
+
     @Test
     void testListUserRepositoriesWithBranches_NoBranches() {
         String username = "octocat";
@@ -153,16 +204,16 @@ public class GitHubServiceTest {
 
         // Mock the WebClient to simulate a successful fetch of repositories
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri("/users/{username}/repos", username)).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri("/users/{username}/repos?per_page={perPage}", username, PER_PAGE)).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToFlux(GitHubRepository.class)).thenReturn(Flux.just(repo));
+        when(responseSpec.toEntityList(GitHubRepository.class)).thenReturn(page(List.of(repo)));
 
         // Simulate an empty list of branches for the fetched repository
-        when(requestHeadersUriSpec.uri("/repos/{owner}/{repo}/branches", username, repo.name())).thenReturn(requestHeadersSpec);
-        when(responseSpec.bodyToFlux(GitHubBranch.class)).thenReturn(Flux.empty());
+        when(requestHeadersUriSpec.uri("/repos/{owner}/{repo}/branches?per_page={perPage}", username, repo.name(), PER_PAGE)).thenReturn(requestHeadersSpec);
+        when(responseSpec.toEntityList(GitHubBranch.class)).thenReturn(page(List.of()));
 
         // Call the method under test
-        GitHubService service = new GitHubService(webClient);
+        GitHubService service = new GitHubService(new RestGitHubBackend(new GitHubPaginator(webClient, PER_PAGE, 4), limiter(), false), RepositoryResultCache.disabled(), EncodedResponseCache.disabled(), WatchList.disabled(), 8);
         Flux<RepositoryBranchesDto> result = service.listUserRepositoriesWithBranches(username);
 
         StepVerifier.create(result)
@@ -173,4 +224,81 @@ public class GitHubServiceTest {
 
     }
 
+    @Test
+    public void testBulkLookupBoundsConcurrentUsersAndKeepsFailuresPerUser() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        GitHubBackend backend = username -> Flux.defer(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return username.startsWith("missing")
+                            ? Flux.<RepositoryBranchesDto>error(WebClientResponseException.create(404, "Not Found", null,
+                            "{\"message\":\"Not Found\"}".getBytes(), null))
+                            : Flux.just(new RepositoryBranchesDto("repo", username, List.of()));
+                })
+                .delaySubscription(Duration.ofMillis(20))
+                .doFinally(signal -> inFlight.decrementAndGet());
+        GitHubService service = new GitHubService(backend, RepositoryResultCache.disabled(), EncodedResponseCache.disabled(), WatchList.disabled(), 3);
+        Flux<String> usernames = Flux.range(0, 20).map(i -> i % 5 == 0 ? "missing-" + i : "user-" + i);
+
+        List<UserRepositoriesDto> records = service.listRepositoriesWithBranches(usernames).collectList().block();
+
+        assertEquals(20, records.size());
+        assertTrue(maxInFlight.get() <= 3, "at most 3 users should be looked up at once");
+        records.forEach(record -> {
+            if (record.username().startsWith("missing")) {
+                assertEquals(404, record.error().get("status"));
+            } else {
+                assertEquals(record.username(), record.repositories().get(0).ownerLogin());
+            }
+        });
+    }
+
+    @Test
+    public void testRecordsRepositoriesPerUserAndBranchesPerRepository() {
+        GitHubBranch branch = new GitHubBranch("main", new GitHubCommit("sha"));
+        GitHubBackend backend = username -> Flux.just(
+                new RepositoryBranchesDto("repo1", username, List.of(branch)),
+                new RepositoryBranchesDto("repo2", username, List.of(branch, branch, branch)));
+        GitHubService service = new GitHubService(backend, RepositoryResultCache.disabled(), EncodedResponseCache.disabled(), WatchList.disabled(), 8);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service.bindTo(registry);
+
+        service.listUserRepositoriesWithBranches("octocat").blockLast();
+
+        DistributionSummary repositories = registry.get("github.user.repositories").summary();
+        DistributionSummary branches = registry.get("github.repository.branches").summary();
+        assertEquals(1, repositories.count());
+        assertEquals(2.0, repositories.totalAmount());
+        assertEquals(2, branches.count());
+        assertEquals(4.0, branches.totalAmount());
+    }
+
+    @Test
+    public void testAnswersWatchedUsersFromTheLatestSync() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GitHubBackend backend = username -> Flux.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            return Flux.just(new RepositoryBranchesDto("repo1", username, List.of()));
+        });
+        WatchList watchList = new WatchList(backend, List.of("octocat"), Duration.ofMinutes(5), 100, 1, Clock.systemUTC());
+        watchList.sync().block();
+        GitHubService service = new GitHubService(backend, RepositoryResultCache.disabled(), EncodedResponseCache.disabled(), watchList, 8);
+
+        StepVerifier.create(service.listUserRepositoriesWithBranches("octocat"))
+                .expectNextMatches(dto -> dto.repositoryName().equals("repo1"))
+                .verifyComplete();
+        StepVerifier.create(service.listUserRepositoriesWithBranches("someone-else"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter() {
+        return new AdaptiveConcurrencyLimiter(8, 1, 64, Duration.ofSeconds(2));
+    }
+
+    private static <T> Mono<ResponseEntity<List<T>>> page(List<T> items) {
+        return Mono.just(ResponseEntity.ok(items));
+    }
 }
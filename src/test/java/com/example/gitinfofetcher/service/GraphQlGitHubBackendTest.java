@@ -0,0 +1,137 @@
+package com.example.gitinfofetcher.service;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@WireMockTest
+public class GraphQlGitHubBackendTest {
+
+    @Test
+    void shouldMapRepositoriesAndBranchesFromSingleQuery(WireMockRuntimeInfo wireMock) {
+        stubFor(post(urlEqualTo("/graphql"))
+                .withRequestBody(matchingJsonPath("$.variables.login", equalTo("octocat")))
+                .willReturn(json("""
+                        {"data":{"repositoryOwner":{"repositories":{
+                          "pageInfo":{"hasNextPage":false,"endCursor":"r1"},
+                          "nodes":[
+                            {"name":"Hello-World","owner":{"login":"octocat"},"refs":{
+                              "pageInfo":{"hasNextPage":false,"endCursor":"b2"},
+                              "nodes":[{"name":"main","target":{"oid":"7fd1a60b01f91b314f59955a4e4d4e80d8edf11d"}},
+                                       {"name":"dev","target":{"oid":"553c2077f0edc3d5dc5d17262f6aa498e69d6f8e"}}]}},
+                            {"name":"empty","owner":{"login":"octocat"},"refs":{
+                              "pageInfo":{"hasNextPage":false,"endCursor":null},"nodes":[]}}
+                          ]}}}}""")));
+
+        StepVerifier.create(backend(wireMock, 50, 100).fetchRepositoriesWithBranches("octocat").collectList())
+                .assertNext(repositories -> {
+                    assertEquals(2, repositories.size());
+                    RepositoryBranchesDto first = repositories.get(0);
+                    assertEquals("Hello-World", first.repositoryName());
+                    assertEquals("octocat", first.ownerLogin());
+                    assertEquals(List.of("main", "dev"), first.branches().stream().map(GitHubBranch::name).toList());
+                    assertEquals("7fd1a60b01f91b314f59955a4e4d4e80d8edf11d", first.branches().get(0).commit().getSha());
+                    assertEquals(0, repositories.get(1).branches().size());
+                })
+                .verifyComplete();
+
+        verify(1, postRequestedFor(urlEqualTo("/graphql")));
+    }
+
+    @Test
+    void shouldFetchRemainingRefsForRepositoriesWithManyBranches(WireMockRuntimeInfo wireMock) {
+        stubFor(post(urlEqualTo("/graphql"))
+                .withRequestBody(matchingJsonPath("$.variables.login"))
+                .willReturn(json("""
+                        {"data":{"repositoryOwner":{"repositories":{
+                          "pageInfo":{"hasNextPage":false,"endCursor":"r1"},
+                          "nodes":[{"name":"big","owner":{"login":"octocat"},"refs":{
+                            "pageInfo":{"hasNextPage":true,"endCursor":"b1"},
+                            "nodes":[{"name":"main","target":{"oid":"a"}}]}}]}}}}""")));
+        stubFor(post(urlEqualTo("/graphql"))
+                .withRequestBody(matchingJsonPath("$.variables.cursor", equalTo("b1")))
+                .willReturn(json("""
+                        {"data":{"repository":{"refs":{
+                          "pageInfo":{"hasNextPage":false,"endCursor":"b2"},
+                          "nodes":[{"name":"feature","target":{"oid":"b"}}]}}}}""")));
+
+        StepVerifier.create(backend(wireMock, 50, 1).fetchRepositoriesWithBranches("octocat"))
+                .assertNext(repository -> assertEquals(List.of("main", "feature"),
+                        repository.branches().stream().map(GitHubBranch::name).toList()))
+                .verifyComplete();
+
+        verify(2, postRequestedFor(urlEqualTo("/graphql")));
+    }
+
+    @Test
+    void shouldTakeDefaultBranchFromRepositoriesQueryWithoutFollowUpQueries(WireMockRuntimeInfo wireMock) {
+        stubFor(post(urlEqualTo("/graphql"))
+                .withRequestBody(matchingJsonPath("$.variables.orderField", equalTo("PUSHED_AT")))
+                .willReturn(json("""
+                        {"data":{"repositoryOwner":{"repositories":{
+                          "pageInfo":{"hasNextPage":true,"endCursor":"r1"},
+                          "nodes":[
+                            {"name":"recent","owner":{"login":"octocat"},"pushedAt":"2024-01-24T22:05:14Z",
+                             "defaultBranchRef":{"name":"main","target":{"oid":"a"}},
+                             "refs":{"pageInfo":{"hasNextPage":true,"endCursor":"b1"},"nodes":[{"name":"dev","target":{"oid":"b"}}]}},
+                            {"name":"stale","owner":{"login":"octocat"},"pushedAt":"2020-01-01T00:00:00Z",
+                             "defaultBranchRef":{"name":"master","target":{"oid":"c"}},
+                             "refs":{"pageInfo":{"hasNextPage":false,"endCursor":null},"nodes":[]}}
+                          ]}}}}""")));
+        RepositoryQuery query = RepositoryQuery.of(null, Instant.parse("2024-01-01T00:00:00Z"), null, "pushed", null, null, true);
+
+        StepVerifier.create(backend(wireMock, 2, 1).fetchRepositoriesWithBranches("octocat", query))
+                .assertNext(repository -> {
+                    assertEquals("recent", repository.repositoryName());
+                    assertEquals(List.of("main"), repository.branches().stream().map(GitHubBranch::name).toList());
+                    assertEquals("a", repository.branches().get(0).commit().getSha());
+                })
+                .verifyComplete();
+
+        verify(1, postRequestedFor(urlEqualTo("/graphql")));
+    }
+
+    @Test
+    void shouldReportUnknownOwnerAsNotFound(WireMockRuntimeInfo wireMock) {
+        stubFor(post(urlEqualTo("/graphql"))
+                .willReturn(json("""
+                        {"data":{"repositoryOwner":null},
+                         "errors":[{"type":"NOT_FOUND","message":"Could not resolve to a RepositoryOwner with the login of 'ghost'."}]}""")));
+
+        StepVerifier.create(backend(wireMock, 50, 100).fetchRepositoriesWithBranches("ghost"))
+                .expectErrorMatches(e -> e instanceof WebClientResponseException ex && ex.getStatusCode() == HttpStatus.NOT_FOUND)
+                .verify();
+    }
+
+    private static GraphQlGitHubBackend backend(WireMockRuntimeInfo wireMock, int pageSize, int refsPageSize) {
+        WebClient webClient = WebClient.builder().baseUrl(wireMock.getHttpBaseUrl()).build();
+        return new GraphQlGitHubBackend(webClient, "/graphql", pageSize, refsPageSize);
+    }
+
+    private static ResponseDefinitionBuilder json(String body) {
+        return aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(body);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.gitinfofetcher.service;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubRepository;
+import com.example.gitinfofetcher.domain.GitHubUser;
+import com.example.gitinfofetcher.exceptions.InvalidQueryException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RepositoryQueryTest {
+
+    private static final Instant JANUARY = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void shouldBeUnfilteredWithoutParameters() {
+        assertTrue(RepositoryQuery.of(null, null, null, null, null, " ", null).isUnfiltered());
+        assertFalse(RepositoryQuery.of("api-*", null, null, null, null, null, null).isUnfiltered());
+    }
+
+    @Test
+    void shouldMatchRepositoryNamesCaseInsensitivelyAndBranchNamesExactly() {
+        RepositoryQuery query = RepositoryQuery.of("hello-*,spoon-knif?", null, null, null, null, "feature/*", null);
+
+        assertTrue(query.includes(repository("Hello-World", null)));
+        assertTrue(query.includes(repository("Spoon-Knife", null)));
+        assertFalse(query.includes(repository("hello", null)));
+        assertFalse(query.includes(repository("my.hello-world", null)));
+        assertEquals(List.of("feature/a"), query.selectBranches(List.of(
+                new GitHubBranch("feature/a", null), new GitHubBranch("Feature/b", null), new GitHubBranch("main", null)))
+                .stream().map(GitHubBranch::name).toList());
+    }
+
+    @Test
+    void shouldKeepRepositoriesPushedWithinTheWindow() {
+        RepositoryQuery query = RepositoryQuery.of(null, JANUARY, JANUARY.plusSeconds(3600), "pushed", null, null, null);
+
+        assertTrue(query.includes(repository("a", JANUARY)));
+        assertFalse(query.includes(repository("b", JANUARY.plusSeconds(3600))));
+        assertFalse(query.includes(repository("c", null)));
+        assertTrue(query.mayBeFollowedByMatches(repository("d", JANUARY.plusSeconds(7200))));
+        assertFalse(query.mayBeFollowedByMatches(repository("e", JANUARY.minusSeconds(1))));
+    }
+
+    @Test
+    void shouldRejectInvalidParameters() {
+        assertThrows(InvalidQueryException.class, () -> RepositoryQuery.of(null, null, null, "stars", null, null, null));
+        assertThrows(InvalidQueryException.class, () -> RepositoryQuery.of(null, null, null, null, 0, null, null));
+        assertThrows(InvalidQueryException.class, () -> RepositoryQuery.of(null, JANUARY.plusSeconds(1), JANUARY, null, null, null, null));
+    }
+
+    private static GitHubRepository repository(String name, Instant pushedAt) {
+        return new GitHubRepository(name, new GitHubUser("octocat"), false, null, "main", pushedAt);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.gitinfofetcher.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SingleFlightTest {
+
+    @Test
+    void shouldShareInFlightCallAndReplayEarlierElementsToLateSubscribers() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.Many<Integer> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        Flux<Integer> call = singleFlight.execute("octocat", () -> {
+            calls.incrementAndGet();
+            return upstream.asFlux();
+        });
+
+        List<Integer> first = new ArrayList<>();
+        call.subscribe(first::add);
+        upstream.tryEmitNext(1);
+        StepVerifier.create(singleFlight.execute("octocat", Flux::empty))
+                .expectNext(1)
+                .then(() -> upstream.tryEmitNext(2))
+                .expectNext(2)
+                .then(upstream::tryEmitComplete)
+                .verifyComplete();
+
+        assertEquals(List.of(1, 2), first);
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void shouldStartNewCallOnceThePreviousOneHasCompleted() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(singleFlight.execute("octocat", () -> Flux.just(calls.incrementAndGet())))
+                    .expectNext(i + 1)
+                    .verifyComplete();
+        }
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void shouldKeepFetchingForOthersWhenOneSubscriberCancels() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger upstreamCancels = new AtomicInteger();
+        Sinks.Many<Integer> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        Flux<Integer> call = singleFlight.execute("octocat",
+                () -> upstream.asFlux().doOnCancel(upstreamCancels::incrementAndGet));
+
+        Disposable impatient = call.subscribe();
+        List<Integer> patient = new ArrayList<>();
+        call.subscribe(patient::add);
+        impatient.dispose();
+        upstream.tryEmitNext(1);
+        upstream.tryEmitComplete();
+
+        assertEquals(List.of(1), patient);
+        assertEquals(0, upstreamCancels.get());
+    }
+
+    @Test
+    void shouldCancelUpstreamAndReleaseEntryWhenEverySubscriberCancels() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger upstreamCancels = new AtomicInteger();
+        Flux<Integer> call = singleFlight.execute("octocat", () -> Flux.<Integer>never().doOnCancel(upstreamCancels::incrementAndGet));
+
+        Disposable first = call.subscribe();
+        Disposable second = call.subscribe();
+        first.dispose();
+        second.dispose();
+
+        assertEquals(1, upstreamCancels.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.gitinfofetcher.watch;
+
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.dto.BranchChangeDto;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.exceptions.CursorExpiredException;
+import com.example.gitinfofetcher.service.GitHubBackend;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WatchListTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    private final Map<String, List<RepositoryBranchesDto>> upstream = new ConcurrentHashMap<>();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final GitHubBackend backend = username -> Flux.defer(() -> {
+        upstreamCalls.incrementAndGet();
+        List<RepositoryBranchesDto> repositories = upstream.get(username);
+        return repositories != null ? Flux.fromIterable(repositories) : Flux.error(new IllegalStateException("upstream down"));
+    });
+
+    @Test
+    void shouldKeepLatestSnapshotOfWatchedUsersOnly() {
+        upstream.put("octocat", List.of(repository("Hello-World", branch("main", "a1"))));
+        WatchList watchList = new WatchList(backend, List.of(" Octocat ", ""), Duration.ofMinutes(5), 100, 2, CLOCK);
+
+        assertNull(watchList.snapshot("octocat"));
+        watchList.sync().block();
+
+        assertTrue(watchList.isWatched("OCTOCAT"));
+        assertEquals("Hello-World", watchList.snapshot("octocat").get(0).repositoryName());
+        assertNull(watchList.snapshot("someone-else"));
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldReportAddedRemovedAndMovedBranchesSinceCursor() {
+        upstream.put("octocat", List.of(repository("Hello-World", branch("main", "a1"), branch("old", "b1"))));
+        WatchList watchList = new WatchList(backend, List.of("octocat"), Duration.ofMinutes(5), 100, 2, CLOCK);
+        watchList.sync().block();
+        long afterFirstSync = watchList.lastCursor();
+
+        upstream.put("octocat", List.of(repository("Hello-World", branch("main", "a2"), branch("feature", "c1"))));
+        watchList.sync().block();
+        watchList.sync().block();
+
+        assertEquals(2, afterFirstSync);
+        List<BranchChangeDto> changes = watchList.changes(afterFirstSync, false).collectList().block();
+        assertEquals(3, changes.size());
+        assertEquals(List.of(3L, 4L, 5L), changes.stream().map(BranchChangeDto::cursor).toList());
+        BranchChangeDto moved = find(changes, "main");
+        assertEquals(BranchChangeDto.Type.MOVED, moved.type());
+        assertEquals("a1", moved.previousSha());
+        assertEquals("a2", moved.sha());
+        assertEquals(BranchChangeDto.Type.ADDED, find(changes, "feature").type());
+        BranchChangeDto removed = find(changes, "old");
+        assertEquals(BranchChangeDto.Type.REMOVED, removed.type());
+        assertEquals("b1", removed.previousSha());
+        assertNull(removed.sha());
+        assertEquals(0, watchList.changes(watchList.lastCursor(), false).count().block());
+    }
+
+    @Test
+    void shouldKeepPreviousSnapshotWhenSyncFails() {
+        upstream.put("octocat", List.of(repository("Hello-World", branch("main", "a1"))));
+        WatchList watchList = new WatchList(backend, List.of("octocat"), Duration.ofMinutes(5), 100, 2, CLOCK);
+        watchList.sync().block();
+
+        upstream.remove("octocat");
+        watchList.sync().block();
+
+        assertEquals(1, watchList.snapshot("octocat").size());
+        assertEquals(1, watchList.failedSyncs());
+    }
+
+    @Test
+    void shouldRejectCursorOlderThanRetainedLog() {
+        upstream.put("octocat", List.of(repository("Hello-World", branch("a", "1"), branch("b", "1"), branch("c", "1"))));
+        WatchList watchList = new WatchList(backend, List.of("octocat"), Duration.ofMinutes(5), 2, 2, CLOCK);
+        watchList.sync().block();
+
+        assertThrows(CursorExpiredException.class, () -> watchList.changes(0, false).blockLast());
+        assertEquals(2, watchList.changes(1, false).count().block());
+    }
+
+    @Test
+    void shouldFollowBacklogWithLiveChanges() {
+        upstream.put("octocat", List.of(repository("Hello-World", branch("main", "a1"))));
+        WatchList watchList = new WatchList(backend, List.of("octocat"), Duration.ofMinutes(5), 100, 2, CLOCK);
+        watchList.sync().block();
+
+        StepVerifier.create(watchList.changes(0, true))
+                .assertNext(change -> assertEquals(BranchChangeDto.Type.ADDED, change.type()))
+                .then(() -> {
+                    upstream.put("octocat", List.of(repository("Hello-World", branch("main", "a2"))));
+                    watchList.sync().block();
+                })
+                .assertNext(change -> {
+                    assertEquals(2, change.cursor());
+                    assertEquals(BranchChangeDto.Type.MOVED, change.type());
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private static BranchChangeDto find(List<BranchChangeDto> changes, String branch) {
+        return changes.stream().filter(change -> change.branch().equals(branch)).findFirst().orElseThrow();
+    }
+
+    private static RepositoryBranchesDto repository(String name, GitHubBranch... branches) {
+        return new RepositoryBranchesDto(name, "octocat", List.of(branches));
+    }
+
+    private static GitHubBranch branch(String name, String sha) {
+        return new GitHubBranch(name, new GitHubCommit(sha));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.gitinfofetcher.blocking;
+
+import com.example.gitinfofetcher.cache.EncodedResponseCache;
+import com.example.gitinfofetcher.cache.RepositoryResultCache;
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.dto.UserRepositoriesDto;
+import com.example.gitinfofetcher.service.GitHubBackend;
+import com.example.gitinfofetcher.service.GitHubService;
+import com.example.gitinfofetcher.watch.WatchList;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs 10k concurrent lookups against a backend that answers after {@link #LATENCY}, once through the
+ * reactive service, once through the virtual-thread facade and once from a fixed pool of platform threads
+ * blocking on the reactive service, the way a servlet application would call it without virtual threads.
+ */
+public class BlockingGitHubServiceLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockingGitHubServiceLoadTest.class);
+
+    private static final int USERS = 10_000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final Duration LATENCY = Duration.ofMillis(50);
+
+    private final GitHubBackend backend = username -> Mono.delay(LATENCY)
+            .thenMany(Flux.just(new RepositoryBranchesDto(username + "-repo", username,
+                    List.of(new GitHubBranch("main", new GitHubCommit("7fd1a60b01f91b314f59955a4e4d4e80d8edf11d"))))));
+
+    private final GitHubService service = new GitHubService(backend, RepositoryResultCache.disabled(),
+            EncodedResponseCache.disabled(), WatchList.disabled(), USERS);
+
+    private final List<String> usernames = IntStream.range(0, USERS).mapToObj(i -> "user-" + i).toList();
+
+    @Test
+    void virtualThreadsKeepUpWithTheReactivePath() throws Exception {
+        BlockingGitHubService blocking = new BlockingGitHubService(service, Duration.ofMinutes(1));
+        blocking.listRepositoriesWithBranches(usernames.subList(0, 1_000));
+
+        long start = System.nanoTime();
+        long reactive = Flux.fromIterable(usernames)
+                .flatMap(username -> service.listUserRepositoriesWithBranches(username).count(), USERS)
+                .filter(count -> count == 1)
+                .count()
+                .block(Duration.ofMinutes(1));
+        Duration reactiveTime = Duration.ofNanos(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        List<UserRepositoriesDto> results = blocking.listRepositoriesWithBranches(usernames);
+        Duration virtualTime = Duration.ofNanos(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        long platform = 0;
+        try (ExecutorService pool = Executors.newFixedThreadPool(PLATFORM_THREADS)) {
+            List<Future<Long>> lookups = usernames.stream()
+                    .map(username -> pool.submit(() -> service.listUserRepositoriesWithBranches(username).count().block()))
+                    .toList();
+            for (Future<Long> lookup : lookups) {
+                platform += lookup.get();
+            }
+        }
+        Duration platformTime = Duration.ofNanos(System.nanoTime() - start);
+
+        logger.info("{} lookups: reactive {} ms, virtual threads {} ms, {} platform threads {} ms", USERS,
+                reactiveTime.toMillis(), virtualTime.toMillis(), PLATFORM_THREADS, platformTime.toMillis());
+        assertEquals(USERS, reactive);
+        assertEquals(USERS, results.stream().filter(result -> result.error() == null).count());
+        assertEquals(USERS, platform);
+        assertTrue(virtualTime.compareTo(platformTime.dividedBy(4)) < 0,
+                "virtual threads took " + virtualTime + ", platform pool " + platformTime);
+    }
+}
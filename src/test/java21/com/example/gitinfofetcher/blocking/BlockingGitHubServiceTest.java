@@ -0,0 +1,73 @@
+package com.example.gitinfofetcher.blocking;
+
+import com.example.gitinfofetcher.cache.EncodedResponseCache;
+import com.example.gitinfofetcher.cache.RepositoryResultCache;
+import com.example.gitinfofetcher.domain.GitHubBranch;
+import com.example.gitinfofetcher.domain.GitHubCommit;
+import com.example.gitinfofetcher.dto.RepositoryBranchesDto;
+import com.example.gitinfofetcher.dto.UserRepositoriesDto;
+import com.example.gitinfofetcher.service.GitHubBackend;
+import com.example.gitinfofetcher.service.GitHubService;
+import com.example.gitinfofetcher.watch.WatchList;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlockingGitHubServiceTest {
+
+    private static final RepositoryBranchesDto HELLO_WORLD = new RepositoryBranchesDto("Hello-World", "octocat",
+            List.of(new GitHubBranch("main", new GitHubCommit("7fd1a60b01f91b314f59955a4e4d4e80d8edf11d"))));
+
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    private final GitHubBackend backend = username -> switch (username) {
+        case "octocat" -> Flux.just(HELLO_WORLD);
+        case "ghost" -> Flux.error(WebClientResponseException.create(HttpStatus.NOT_FOUND.value(), "Not Found", new HttpHeaders(), new byte[0], StandardCharsets.UTF_8));
+        default -> Flux.<RepositoryBranchesDto>never().doOnCancel(() -> cancelled.set(true));
+    };
+
+    private final BlockingGitHubService blocking = new BlockingGitHubService(new GitHubService(backend,
+            RepositoryResultCache.disabled(), EncodedResponseCache.disabled(), WatchList.disabled(), 8), Duration.ofMillis(500));
+
+    @Test
+    void shouldReturnRepositoriesOfOneUser() {
+        assertEquals(List.of(HELLO_WORLD), blocking.listUserRepositoriesWithBranches("octocat"));
+    }
+
+    @Test
+    void shouldRethrowUpstreamErrors() {
+        WebClientResponseException e = assertThrows(WebClientResponseException.class,
+                () -> blocking.listUserRepositoriesWithBranches("ghost"));
+        assertEquals(404, e.getStatusCode().value());
+    }
+
+    @Test
+    void shouldCancelUpstreamWhenTheDeadlinePasses() {
+        assertThrows(LookupTimeoutException.class, () -> blocking.listUserRepositoriesWithBranches("slow"));
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    void shouldReportEachUserOfABatchSeparately() {
+        List<UserRepositoriesDto> results = blocking.listRepositoriesWithBranches(List.of("octocat", "ghost", "slow"));
+
+        assertEquals(List.of("octocat", "ghost", "slow"), results.stream().map(UserRepositoriesDto::username).toList());
+        assertEquals(List.of(HELLO_WORLD), results.get(0).repositories());
+        assertNull(results.get(0).error());
+        assertEquals(404, results.get(1).error().get("status"));
+        assertEquals(504, results.get(2).error().get("status"));
+        assertTrue(cancelled.get());
+    }
+}